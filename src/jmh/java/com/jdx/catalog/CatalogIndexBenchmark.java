@@ -0,0 +1,117 @@
+package com.jdx.catalog;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jdx.model.JdkInfo;
+
+/**
+ * Compares {@link CatalogIndex} lookups with the stream-filter-sort over every entry that
+ * {@link JdkCatalogImpl#findByVersion} used before (string prefix match and string sort),
+ * on synthetic catalogs shaped like a build farm's: several vendors and architectures,
+ * nightly and EA builds of each major.
+ *
+ * <p>Run with: {@code mvn -Pbenchmarks verify -Djmh.args=CatalogIndexBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogIndexBenchmark {
+
+    private static final String[] VENDORS = {
+        "Eclipse Adoptium", "Azul Systems, Inc.", "Amazon.com Inc.", "Microsoft", "Oracle Corporation", "BellSoft"
+    };
+    private static final String[] ARCHES = {"x86_64", "aarch64"};
+    private static final int[] MAJORS = {8, 11, 17, 21, 22, 23, 24, 25};
+
+    @Param({"10", "1000", "10000"})
+    public int entries;
+
+    private List<JdkInfo> jdks;
+    private CatalogIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        jdks = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            int major = MAJORS[random.nextInt(MAJORS.length)];
+            String version = major == 8 ? "1.8.0_" + random.nextInt(500) : major + ".0." + random.nextInt(30)
+                + (random.nextInt(10) == 0 ? "-ea" : "");
+            Set<String> capabilities = new LinkedHashSet<>(List.of("cds", "jfr"));
+            if (major > 8 && random.nextBoolean()) {
+                capabilities.add("jlink");
+            }
+            jdks.add(new JdkInfo("jdk-" + i, version, VENDORS[random.nextInt(VENDORS.length)],
+                ARCHES[random.nextInt(ARCHES.length)], "/opt/jdks/jdk-" + i, capabilities, true));
+        }
+        index = new CatalogIndex(jdks);
+    }
+
+    @Benchmark
+    public CatalogIndex buildIndex() {
+        return new CatalogIndex(jdks);
+    }
+
+    @Benchmark
+    public List<JdkInfo> legacyFindByVersion() {
+        return jdks.stream()
+            .filter(jdk -> jdk.archive() == null && legacyMatches(jdk.version(), "17"))
+            .sorted(Comparator.comparing(JdkInfo::version).reversed())
+            .toList();
+    }
+
+    @Benchmark
+    public List<JdkInfo> indexedFindByVersion() {
+        return index.find(JdkQuery.any().withVersion("17"));
+    }
+
+    @Benchmark
+    public List<JdkInfo> legacyVendorArchCapability() {
+        return jdks.stream()
+            .filter(jdk -> jdk.vendor().toLowerCase(Locale.ROOT).contains("adoptium"))
+            .filter(jdk -> jdk.arch().equals("aarch64"))
+            .filter(jdk -> jdk.hasCapability("jlink"))
+            .sorted(Comparator.comparing(JdkInfo::version).reversed())
+            .toList();
+    }
+
+    @Benchmark
+    public List<JdkInfo> indexedVendorArchCapability() {
+        return index.find(JdkQuery.any().withVendor("temurin").withArch("aarch64").withCapabilities(Set.of("jlink")));
+    }
+
+    private static boolean legacyMatches(String jdkVersion, String requested) {
+        return legacyNormalize(jdkVersion).startsWith(legacyNormalize(requested));
+    }
+
+    private static String legacyNormalize(String version) {
+        version = version.replaceAll("^\"|\"$", "");
+        if (version.startsWith("1.8")) {
+            version = "8" + version.substring(3);
+        }
+        return version;
+    }
+}
@@ -0,0 +1,89 @@
+package com.jdx.discovery;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link ReleaseFile} with the line/regex/Properties parser it replaced, on
+ * release files taken from real JDK installs (see src/jmh/resources/release).
+ *
+ * <p>Run with: {@code mvn -Pbenchmarks verify -Djmh.args=ReleaseFileBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReleaseFileBenchmark {
+
+    @Param({"temurin-8", "temurin-11", "temurin-17", "temurin-21", "debian-17"})
+    public String sample;
+
+    private byte[] content;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream in = ReleaseFileBenchmark.class.getResourceAsStream("/release/" + sample)) {
+            if (in == null) {
+                throw new IOException("Missing sample release file: " + sample);
+            }
+            content = in.readAllBytes();
+        }
+        file = Files.createTempFile("release-", "-" + sample);
+        Files.write(file, content);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void legacyFromFile(Blackhole bh) throws IOException {
+        Properties props = new Properties();
+        List<String> lines = Files.readAllLines(file);
+        for (String line : lines) {
+            if (line.contains("=")) {
+                String[] parts = line.split("=", 2);
+                String key = parts[0].trim();
+                String value = parts[1].trim().replaceAll("^\"|\"$", "");
+                props.setProperty(key, value);
+            }
+        }
+        bh.consume(props.getProperty("JAVA_VERSION", "unknown"));
+        bh.consume(props.getProperty("IMPLEMENTOR", "Unknown"));
+        bh.consume(props.getProperty("OS_ARCH", System.getProperty("os.arch")));
+    }
+
+    @Benchmark
+    public ReleaseFile singlePassFromFile() throws IOException {
+        return ReleaseFile.read(file);
+    }
+
+    @Benchmark
+    public ReleaseFile singlePassInMemory() {
+        return ReleaseFile.parse(content);
+    }
+}
@@ -0,0 +1,105 @@
+package com.jdx.model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing versions into {@link JavaVersion} and sorting and matching them, against
+ * the string comparison and {@code startsWith} matching used before, on a mix of the
+ * version forms found in {@code release} files and {@code java -version} output.
+ *
+ * <p>Run with: {@code mvn -Pbenchmarks verify -Djmh.args=JavaVersionBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaVersionBenchmark {
+
+    private static final int COUNT = 1000;
+
+    private String[] texts;
+    private JavaVersion[] versions;
+    private JavaVersion requirement;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        texts = new String[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            texts[i] = switch (random.nextInt(5)) {
+                case 0 -> "1.8.0_" + random.nextInt(500);
+                case 1 -> "\"11.0." + random.nextInt(25) + "\"";
+                case 2 -> "17.0." + random.nextInt(15) + "+" + random.nextInt(12);
+                case 3 -> "21.0." + random.nextInt(6);
+                default -> (22 + random.nextInt(4)) + "-ea+" + random.nextInt(30);
+            };
+        }
+        versions = Arrays.stream(texts).map(text -> JavaVersion.parse(text).orElseThrow()).toArray(JavaVersion[]::new);
+        requirement = JavaVersion.parse("17").orElseThrow();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(JavaVersion.parse(text));
+        }
+    }
+
+    @Benchmark
+    public String[] legacySort() {
+        String[] sorted = texts.clone();
+        Arrays.sort(sorted, Comparator.reverseOrder());
+        return sorted;
+    }
+
+    @Benchmark
+    public JavaVersion[] parsedSort() {
+        JavaVersion[] sorted = versions.clone();
+        Arrays.sort(sorted, Comparator.reverseOrder());
+        return sorted;
+    }
+
+    @Benchmark
+    public int legacyMatch() {
+        int matches = 0;
+        for (String text : texts) {
+            String normalized = text.replaceAll("^\"|\"$", "");
+            if (normalized.startsWith("1.8")) {
+                normalized = "8" + normalized.substring(3);
+            }
+            if (normalized.startsWith("17")) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int parsedMatch() {
+        int matches = 0;
+        for (JavaVersion version : versions) {
+            if (requirement.isMetBy(version)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
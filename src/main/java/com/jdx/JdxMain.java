@@ -17,6 +17,7 @@ import picocli.CommandLine.Command;
         ScanCommand.class,
         ListCommand.class,
         InfoCommand.class,
+        PsCommand.class,
         UseCommand.class,
         PinCommand.class,
         ApplyCommand.class,
@@ -0,0 +1,297 @@
+package com.jdx.catalog;
+
+import com.jdx.model.JdkInfo;
+import com.jdx.util.AtomicFiles;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The catalog in a compact binary form ({@code ~/.jdx/catalog.bin}), memory-mapped
+ * read-only and decoded lazily, so that commands which only read the catalog start without
+ * parsing JSON.
+ *
+ * <p>Layout, big-endian:
+ * <pre>
+ *   header   magic "JDXC", format version (u16), reserved (u16), file length (u64),
+ *            string count, string index offset, string data offset,
+ *            list data offset, list data length (ints),
+ *            record count, record offset,
+ *            slow roots list start, slow roots list length       (u32 each),
+ *            generation                                          (u64),
+ *            CRC-32C of the catalog.json written with this file  (u32)
+ *   strings  index of (offset, length) pairs into UTF-8 data; each distinct string once
+ *   lists    string numbers, referenced by (start, length) from records
+ *   records  {@link #RECORD_SIZE} bytes each: ten string numbers (-1 for null), three lists, flags
+ * </pre>
+ * Module names and vendors repeat across JDKs and are stored once. Strings are decoded the
+ * first time they are read; reading a record's id does not decode the rest of the record.
+ *
+ * <p>The generation numbers the catalog's saves (see {@link CatalogJournal}); it tells
+ * readers which journal frames this file already includes. The checksum of
+ * {@code catalog.json} tells them whether that file was replaced since, e.g. edited or
+ * restored by hand, which file times cannot tell reliably.
+ *
+ * <p>Catalogs of at least {@link #MAP_THRESHOLD} bytes are memory-mapped. Smaller ones,
+ * which is nearly all of them, are read into the heap instead: setting up the first mapping
+ * of a JVM costs tens of milliseconds, far more than reading a few kilobytes.
+ *
+ * <p>Windows refuses to replace a file that any process has mapped, and a mapping lasts
+ * until its buffer is garbage collected, so a mapped catalog could never be compacted
+ * there. On Windows every catalog is read into the heap.
+ */
+final class BinaryCatalog {
+
+    static final int FORMAT_VERSION = 3;
+
+    static final long MAP_THRESHOLD = 256 * 1024;
+
+    private static final boolean IS_WINDOWS = System.getProperty("os.name").toLowerCase().contains("win");
+
+    private static final int MAGIC = 0x4A445843;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 17 * Integer.BYTES;
+    private static final int NULL = -1;
+    private static final int FLAG_VALID = 1;
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final int stringIndex;
+    private final int stringData;
+    private final int listData;
+    private final int recordCount;
+    private final int records;
+    private final int slowRootsStart;
+    private final int slowRootsLength;
+    private final long generation;
+    private final int jsonChecksum;
+
+    private BinaryCatalog(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a jdx binary catalog");
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION) {
+            throw new IOException("unsupported binary catalog version " + buffer.getShort(4));
+        }
+        if (buffer.getLong(8) != buffer.capacity()) {
+            throw new IOException("truncated binary catalog");
+        }
+        strings = new String[buffer.getInt(16)];
+        stringIndex = buffer.getInt(20);
+        stringData = buffer.getInt(24);
+        listData = buffer.getInt(28);
+        recordCount = buffer.getInt(36);
+        records = buffer.getInt(40);
+        slowRootsStart = buffer.getInt(44);
+        slowRootsLength = buffer.getInt(48);
+        generation = buffer.getLong(52);
+        jsonChecksum = buffer.getInt(60);
+        if ((long) records + (long) recordCount * RECORD_SIZE > buffer.capacity()) {
+            throw new IOException("truncated binary catalog");
+        }
+    }
+
+    /**
+     * Open a binary catalog; a mapped file is not read until entries are.
+     *
+     * @throws IOException if the file cannot be read or is not a complete catalog of this version
+     */
+    static BinaryCatalog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD && !IS_WINDOWS) {
+                // The mapping stays valid after the channel is closed
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                return new BinaryCatalog(mapped);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+                // Read until full; a shorter file fails the length check
+            }
+            return new BinaryCatalog(buffer.clear());
+        }
+    }
+
+    /**
+     * The generation of the catalog this file holds; 0 for files written without one.
+     */
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * The CRC-32C of the {@code catalog.json} written along with this file.
+     */
+    int jsonChecksum() {
+        return jsonChecksum;
+    }
+
+    int size() {
+        return recordCount;
+    }
+
+    /**
+     * The id of a record, without decoding anything else.
+     */
+    String id(int record) {
+        return string(field(record, 0));
+    }
+
+    JdkInfo get(int record) {
+        return new JdkInfo(
+            string(field(record, 0)),
+            string(field(record, 1)),
+            string(field(record, 2)),
+            string(field(record, 3)),
+            string(field(record, 4)),
+            new LinkedHashSet<>(list(field(record, 10), field(record, 11))),
+            (field(record, 16) & FLAG_VALID) != 0,
+            string(field(record, 5)),
+            string(field(record, 6)),
+            string(field(record, 7)),
+            string(field(record, 8)),
+            list(field(record, 12), field(record, 13)),
+            list(field(record, 14), field(record, 15)),
+            string(field(record, 9)));
+    }
+
+    List<String> slowRoots() {
+        return list(slowRootsStart, slowRootsLength);
+    }
+
+    private int field(int record, int field) {
+        return buffer.getInt(records + record * RECORD_SIZE + field * Integer.BYTES);
+    }
+
+    private List<String> list(int start, int length) {
+        List<String> values = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            values.add(string(buffer.getInt(listData + (start + i) * Integer.BYTES)));
+        }
+        return values;
+    }
+
+    private String string(int number) {
+        if (number == NULL) {
+            return null;
+        }
+        String value = strings[number];
+        if (value == null) {
+            int offset = buffer.getInt(stringIndex + number * 2 * Integer.BYTES);
+            int length = buffer.getInt(stringIndex + number * 2 * Integer.BYTES + Integer.BYTES);
+            byte[] bytes = new byte[length];
+            buffer.get(stringData + offset, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[number] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Write {@code jdks} and {@code slowRoots} to {@code file} as {@code generation}, along
+     * with a {@code catalog.json} of checksum {@code jsonChecksum}. The
+     * file is written next to the target and renamed over it (see {@link AtomicFiles}),
+     * because readers may have the old one mapped.
+     */
+    static void write(Path file, Collection<JdkInfo> jdks, Collection<String> slowRoots, long generation,
+                      int jsonChecksum) throws IOException {
+        Strings table = new Strings();
+        List<Integer> lists = new ArrayList<>();
+        List<int[]> recordFields = new ArrayList<>();
+        for (JdkInfo jdk : jdks) {
+            int[] fields = new int[17];
+            fields[0] = table.number(jdk.id());
+            fields[1] = table.number(jdk.version());
+            fields[2] = table.number(jdk.vendor());
+            fields[3] = table.number(jdk.arch());
+            fields[4] = table.number(jdk.path());
+            fields[5] = table.number(jdk.runtimeVersion());
+            fields[6] = table.number(jdk.implementorVersion());
+            fields[7] = table.number(jdk.libc());
+            fields[8] = table.number(jdk.buildType());
+            fields[9] = table.number(jdk.archive());
+            addList(table, lists, jdk.capabilities(), fields, 10);
+            addList(table, lists, jdk.modules(), fields, 12);
+            addList(table, lists, jdk.aliases(), fields, 14);
+            fields[16] = jdk.valid() ? FLAG_VALID : 0;
+            recordFields.add(fields);
+        }
+        int[] slow = new int[2];
+        addList(table, lists, slowRoots, slow, 0);
+
+        int stringIndex = HEADER_SIZE;
+        int stringData = stringIndex + table.values.size() * 2 * Integer.BYTES;
+        int listData = stringData + table.bytes;
+        int records = listData + lists.size() * Integer.BYTES;
+        int length = records + recordFields.size() * RECORD_SIZE;
+
+        ByteBuffer out = ByteBuffer.allocate(length);
+        out.putInt(MAGIC).putShort((short) FORMAT_VERSION).putShort((short) 0).putLong(length)
+            .putInt(table.values.size()).putInt(stringIndex).putInt(stringData)
+            .putInt(listData).putInt(lists.size())
+            .putInt(recordFields.size()).putInt(records)
+            .putInt(slow[0]).putInt(slow[1])
+            .putLong(generation).putInt(jsonChecksum);
+        int offset = 0;
+        for (byte[] value : table.values) {
+            out.putInt(offset).putInt(value.length);
+            offset += value.length;
+        }
+        for (byte[] value : table.values) {
+            out.put(value);
+        }
+        for (int number : lists) {
+            out.putInt(number);
+        }
+        for (int[] fields : recordFields) {
+            for (int field : fields) {
+                out.putInt(field);
+            }
+        }
+
+        AtomicFiles.write(file, out.array());
+    }
+
+    private static void addList(Strings table, List<Integer> lists, Collection<String> values, int[] fields, int at) {
+        fields[at] = lists.size();
+        fields[at + 1] = values == null ? 0 : values.size();
+        if (values != null) {
+            for (String value : values) {
+                lists.add(table.number(value));
+            }
+        }
+    }
+
+    /**
+     * Distinct strings in order of first use.
+     */
+    private static final class Strings {
+        private final Map<String, Integer> numbers = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private int bytes;
+
+        int number(String value) {
+            if (value == null) {
+                return NULL;
+            }
+            return numbers.computeIfAbsent(value, v -> {
+                byte[] utf8 = v.getBytes(StandardCharsets.UTF_8);
+                values.add(utf8);
+                bytes += utf8.length;
+                return values.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.jdx.catalog;
+
+import com.jdx.model.JavaVersion;
+import com.jdx.model.JdkInfo;
+import com.jdx.model.VersionSpec;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Secondary indexes over a snapshot of the catalog, so that lookups by version, vendor,
+ * architecture and capability do not scan and sort every entry.
+ *
+ * <p>Entries are numbered in the order {@link JdkCatalog#findByVersion} returns them, and
+ * each index maps a key to the {@link BitSet} of entry numbers having it. A query
+ * intersects the sets of its criteria and walks the result in order, so nothing is sorted
+ * per query. Versions are parsed once, when the index is built, and version requirements
+ * are tested against the packed {@link JavaVersion}s. The index is immutable; the catalog
+ * builds a new one after it changes.
+ */
+final class CatalogIndex {
+
+
+    /** Vendor names as recorded, and the short names users type for them. */
+    private static final Map<String, String> SHORT_VENDOR_NAMES = Map.of(
+        "eclipse adoptium", "temurin",
+        "microsoft build of openjdk", "microsoft",
+        "microsoft", "microsoft",
+        "oracle corporation", "oracle",
+        "azul systems, inc.", "zulu",
+        "amazon.com inc.", "corretto",
+        "bellsoft", "liberica",
+        "sap se", "sapmachine");
+
+    private final JdkInfo[] entries;
+    /** Parsed version of each entry, or {@code null} if it has none. */
+    private final JavaVersion[] versions;
+    private final BitSet all = new BitSet();
+    private final BitSet installed = new BitSet();
+    private final Map<Integer, BitSet> byMajor = new HashMap<>();
+    private final Map<String, BitSet> byVendor = new HashMap<>();
+    private final Map<String, BitSet> byArch = new HashMap<>();
+    private final Map<String, BitSet> byCapability = new HashMap<>();
+
+    CatalogIndex(Collection<JdkInfo> jdks) {
+        record Parsed(JdkInfo jdk, JavaVersion version) {}
+        // Newest version first, unparseable versions last; ids break ties so the order is stable
+        Parsed[] parsed = jdks.stream()
+            .map(jdk -> new Parsed(jdk, JavaVersion.parse(jdk.version()).orElse(null)))
+            .sorted(Comparator.comparing(Parsed::version, Comparator.nullsLast(Comparator.<JavaVersion>reverseOrder()))
+                .thenComparing(p -> p.jdk().id()))
+            .toArray(Parsed[]::new);
+        entries = new JdkInfo[parsed.length];
+        versions = new JavaVersion[parsed.length];
+        for (int i = 0; i < parsed.length; i++) {
+            JdkInfo jdk = parsed[i].jdk();
+            entries[i] = jdk;
+            versions[i] = parsed[i].version();
+            all.set(i);
+            if (jdk.archive() == null) {
+                installed.set(i);
+            }
+            if (versions[i] != null) {
+                byMajor.computeIfAbsent(versions[i].feature(), k -> new BitSet()).set(i);
+            }
+            if (jdk.vendor() != null) {
+                byVendor.computeIfAbsent(jdk.vendor().toLowerCase(Locale.ROOT), k -> new BitSet()).set(i);
+            }
+            if (jdk.arch() != null) {
+                byArch.computeIfAbsent(jdk.arch(), k -> new BitSet()).set(i);
+            }
+            for (String capability : jdk.capabilities()) {
+                byCapability.computeIfAbsent(capability, k -> new BitSet()).set(i);
+            }
+        }
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    /**
+     * Entries matching {@code query}, newest version first. A version requirement that
+     * cannot be parsed matches nothing.
+     */
+    List<JdkInfo> find(JdkQuery query) {
+        BitSet result = (BitSet) all.clone();
+        VersionSpec spec = null;
+        if (query.version() != null) {
+            Optional<VersionSpec> parsed = VersionSpec.parse(query.version());
+            if (parsed.isEmpty()) {
+                return List.of();
+            }
+            spec = parsed.get();
+            result.and(installed);
+            result.and(featureCandidates(spec));
+        }
+        if (query.vendor() != null) {
+            result.and(vendors(query.vendor()));
+        }
+        if (query.arch() != null) {
+            result.and(byArch.getOrDefault(query.arch(), new BitSet()));
+        }
+        for (String capability : query.capabilities()) {
+            result.and(byCapability.getOrDefault(capability, new BitSet()));
+        }
+
+        List<JdkInfo> matches = new ArrayList<>(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            if (spec == null || spec.test(versions[i])) {
+                matches.add(entries[i]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Entries whose feature release is in the range {@code spec} can be met by.
+     */
+    private BitSet featureCandidates(VersionSpec spec) {
+        int min = spec.minFeature();
+        int max = spec.maxFeature();
+        BitSet candidates = new BitSet();
+        if (min == max) {
+            BitSet feature = byMajor.get(min);
+            if (feature != null) {
+                candidates.or(feature);
+            }
+            return candidates;
+        }
+        for (Map.Entry<Integer, BitSet> feature : byMajor.entrySet()) {
+            if (feature.getKey() >= min && feature.getKey() <= max) {
+                candidates.or(feature.getValue());
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Entries of every vendor whose recorded name, or the short name for it, contains {@code vendor}.
+     */
+    private BitSet vendors(String vendor) {
+        String wanted = vendor.toLowerCase(Locale.ROOT);
+        BitSet matches = new BitSet();
+        for (Map.Entry<String, BitSet> entry : byVendor.entrySet()) {
+            String name = entry.getKey();
+            if (name.contains(wanted) || SHORT_VENDOR_NAMES.getOrDefault(name, "").equals(wanted)) {
+                matches.or(entry.getValue());
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,303 @@
+package com.jdx.catalog;
+
+import com.jdx.model.JdkInfo;
+import com.jdx.util.AtomicFiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Changes made to the catalog since its snapshot ({@code catalog.bin} and
+ * {@code catalog.json}) was last written, appended to {@code ~/.jdx/catalog.log}, so that
+ * saving a catalog writes what changed rather than the whole catalog.
+ *
+ * <p>Layout, big-endian: magic "JDXJ", format version (u16), reserved (u16), base
+ * generation (u64), then one frame per save: payload length (u32), CRC-32C of the payload
+ * (u32), payload. A payload is the frame's generation (u64) and change count (u32)
+ * followed by the changes, each a type byte and its fields. A frame is written with a
+ * single write and forced to disk before the save returns, so the changes of one save,
+ * such as everything a scan found, are applied together or not at all.
+ *
+ * <p>Every save is a generation of the catalog, one more than the last. The base
+ * generation is that of the snapshot the journal was started on, and compacting writes the
+ * snapshot with the journal's generation and then starts a new journal on it. The journal
+ * is replaced rather than truncated, and frames are only appended, so readers need no lock:
+ * a reader that finds the journal based on a newer snapshot than the one it read retries,
+ * and one that finds it based on an older snapshot (a compaction interrupted before the
+ * new journal was started) skips the frames the snapshot already includes.
+ *
+ * <p>Reading stops at the first incomplete or damaged frame, which is what a crash during
+ * a write leaves behind; the next append overwrites it.
+ */
+final class CatalogJournal {
+
+    static final int FORMAT_VERSION = 2;
+
+    /** Journals longer than this are folded into the snapshot. */
+    static final long COMPACT_THRESHOLD = 256 * 1024;
+
+    private static final int MAGIC = 0x4A44584A;
+    private static final int HEADER_SIZE = 16;
+    private static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte SLOW_ROOTS = 3;
+
+    /**
+     * One change to the catalog.
+     */
+    sealed interface Change {
+    }
+
+    /** Add a JDK, or replace the entry with its id. */
+    record Put(JdkInfo jdk) implements Change {
+    }
+
+    /** Remove the entry with this id. */
+    record Remove(String id) implements Change {
+    }
+
+    /** Replace the recorded slow discovery roots. */
+    record SlowRoots(List<String> roots) implements Change {
+    }
+
+    private final Path file;
+    /** Length of the header and the whole frames read or written, or 0 if there is no journal. */
+    private long length;
+    private long base;
+    private long generation;
+
+    CatalogJournal(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Read the changes of every whole frame newer than {@code snapshotGeneration}, oldest
+     * first. A missing journal has none, and is taken to be based on that snapshot.
+     *
+     * @throws IOException if the file cannot be read or is not a journal of this version
+     */
+    List<Change> read(long snapshotGeneration) throws IOException {
+        length = 0;
+        base = snapshotGeneration;
+        generation = snapshotGeneration;
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a jdx catalog journal");
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION) {
+            throw new IOException("unsupported catalog journal version " + buffer.getShort(4));
+        }
+        base = buffer.getLong(8);
+        generation = Math.max(base, snapshotGeneration);
+
+        List<Change> changes = new ArrayList<>();
+        int position = HEADER_SIZE;
+        while (position + FRAME_HEADER_SIZE <= bytes.length) {
+            int payloadLength = buffer.getInt(position);
+            int crc = buffer.getInt(position + Integer.BYTES);
+            int payload = position + FRAME_HEADER_SIZE;
+            if (payloadLength < Long.BYTES || payloadLength > bytes.length - payload
+                    || crc(bytes, payload, payloadLength) != crc) {
+                break;
+            }
+            long frameGeneration = buffer.getLong(payload);
+            if (frameGeneration > snapshotGeneration) {
+                try {
+                    changes.addAll(decode(bytes, payload + Long.BYTES, payloadLength - Long.BYTES));
+                } catch (IOException e) {
+                    break;
+                }
+            }
+            generation = Math.max(generation, frameGeneration);
+            position = payload + payloadLength;
+        }
+        length = position;
+        return changes;
+    }
+
+    /**
+     * Append {@code changes} as the next generation's frame and force it to disk. A journal
+     * that does not exist yet is started on the generation last read.
+     */
+    void append(List<Change> changes) throws IOException {
+        if (length == 0) {
+            reset(generation);
+        }
+        byte[] encoded = encode(changes);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + Long.BYTES + encoded.length);
+        frame.putInt(Long.BYTES + encoded.length).putInt(0).putLong(generation + 1).put(encoded);
+        frame.putInt(Integer.BYTES, crc(frame.array(), FRAME_HEADER_SIZE, Long.BYTES + encoded.length)).flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // Drop a frame left incomplete by an earlier crash
+            if (channel.size() > length) {
+                channel.truncate(length);
+            }
+            long position = length;
+            while (frame.hasRemaining()) {
+                position += channel.write(frame, position);
+            }
+            channel.force(false);
+            length = position;
+            generation++;
+        }
+    }
+
+    /**
+     * Replace the journal with an empty one based on a snapshot of {@code generation},
+     * once that snapshot includes every change in it.
+     */
+    void reset(long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+            .putInt(MAGIC).putShort((short) FORMAT_VERSION).putShort((short) 0).putLong(generation);
+        AtomicFiles.write(file, header.array());
+        length = HEADER_SIZE;
+        base = generation;
+        this.generation = generation;
+    }
+
+    /**
+     * Bytes read or written so far, including the header; 0 if there is no journal.
+     */
+    long length() {
+        return length;
+    }
+
+    /**
+     * Generation of the snapshot the journal was started on.
+     */
+    long base() {
+        return base;
+    }
+
+    /**
+     * Generation of the catalog after the last frame read or written.
+     */
+    long generation() {
+        return generation;
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(List<Change> changes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(changes.size());
+        for (Change change : changes) {
+            switch (change) {
+                case Put put -> {
+                    JdkInfo jdk = put.jdk();
+                    out.writeByte(PUT);
+                    writeString(out, jdk.id());
+                    writeString(out, jdk.version());
+                    writeString(out, jdk.vendor());
+                    writeString(out, jdk.arch());
+                    writeString(out, jdk.path());
+                    writeList(out, jdk.capabilities() == null ? null : List.copyOf(jdk.capabilities()));
+                    out.writeBoolean(jdk.valid());
+                    writeString(out, jdk.runtimeVersion());
+                    writeString(out, jdk.implementorVersion());
+                    writeString(out, jdk.libc());
+                    writeString(out, jdk.buildType());
+                    writeList(out, jdk.modules());
+                    writeList(out, jdk.aliases());
+                    writeString(out, jdk.archive());
+                }
+                case Remove remove -> {
+                    out.writeByte(REMOVE);
+                    writeString(out, remove.id());
+                }
+                case SlowRoots slowRoots -> {
+                    out.writeByte(SLOW_ROOTS);
+                    writeList(out, slowRoots.roots());
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Change> decode(byte[] bytes, int offset, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset, length));
+        int count = in.readInt();
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte type = in.readByte();
+            switch (type) {
+                case PUT -> {
+                    String id = readString(in);
+                    String version = readString(in);
+                    String vendor = readString(in);
+                    String arch = readString(in);
+                    String path = readString(in);
+                    List<String> capabilities = readList(in);
+                    boolean valid = in.readBoolean();
+                    changes.add(new Put(new JdkInfo(id, version, vendor, arch, path,
+                        capabilities == null ? null : new LinkedHashSet<>(capabilities), valid,
+                        readString(in), readString(in), readString(in), readString(in),
+                        readList(in), readList(in), readString(in))));
+                }
+                case REMOVE -> changes.add(new Remove(readString(in)));
+                case SLOW_ROOTS -> changes.add(new SlowRoots(readList(in)));
+                default -> throw new IOException("unknown catalog journal change " + type);
+            }
+        }
+        return changes;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+    }
+
+    private static List<String> readList(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(Math.min(size, 1024));
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+}
@@ -2,8 +2,10 @@ package com.jdx.catalog;
 
 import com.jdx.model.JdkInfo;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface for managing the catalog of discovered JDKs.
@@ -11,10 +13,16 @@ import java.util.Optional;
 public interface JdkCatalog {
     
     /**
-     * Add a JDK to the catalog.
+     * Add a JDK to the catalog, or replace the entry of the same id. The aliases the
+     * entry was recorded with are kept, as a scan only sees those under the roots it searched.
      */
     void add(JdkInfo jdkInfo);
     
+    /**
+     * Remove a JDK from the catalog.
+     */
+    void remove(String id);
+    
     /**
      * Get all JDKs in the catalog.
      */
@@ -26,12 +34,40 @@ public interface JdkCatalog {
     Optional<JdkInfo> findById(String id);
     
     /**
-     * Find JDKs matching a version specification.
+     * Find installed JDKs meeting a version requirement (see {@link com.jdx.model.VersionSpec}),
+     * newest version first.
      */
     List<JdkInfo> findByVersion(String versionSpec);
     
     /**
-     * Save the catalog to disk.
+     * Find JDKs matching every criterion of a query, newest version first.
+     */
+    List<JdkInfo> find(JdkQuery query);
+    
+    /**
+     * Whether a JDK, in the catalog or not, satisfies a version specification the way
+     * {@link #findByVersion} would.
+     */
+    boolean matches(JdkInfo jdk, String versionSpec);
+    
+    /**
+     * Discovery roots that timed out during earlier scans.
+     */
+    Set<Path> getSlowRoots();
+    
+    /**
+     * Replace the recorded set of slow discovery roots.
+     */
+    void setSlowRoots(Set<Path> roots);
+    
+    /**
+     * Generation of the catalog as last loaded or saved; every save makes a new one.
+     */
+    long generation();
+    
+    /**
+     * Save the changes made since the catalog was loaded or last saved, applied over the
+     * latest catalog on disk.
      */
     void save();
     
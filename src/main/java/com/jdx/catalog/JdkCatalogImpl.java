@@ -2,36 +2,105 @@ package com.jdx.catalog;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jdx.catalog.CatalogJournal.Change;
 import com.jdx.model.JdkInfo;
+import com.jdx.model.VersionSpec;
+import com.jdx.util.AtomicFiles;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
 
 /**
  * Implementation of JDK catalog using JSON file storage.
+ *
+ * <p>The catalog is a snapshot, written as {@code catalog.json}, which stays the readable
+ * export and import format, and {@code catalog.bin} (see {@link BinaryCatalog}), plus the
+ * changes made since, in {@code catalog.log} (see {@link CatalogJournal}). A save appends
+ * the entries added, replaced or removed since the last one to the journal; once the
+ * journal passes {@link CatalogJournal#COMPACT_THRESHOLD}, the snapshot is rewritten and
+ * a new journal started. Re-adding an unchanged entry, as every scan does, changes nothing;
+ * aliases are merged into those already recorded, since a quick scan does not see the
+ * aliases a deep scan found.
+ *
+ * <p>Loading reads the binary snapshot, which is memory-mapped and only decoded entry by
+ * entry when asked for, so read-only commands such as {@code list}, {@code use} and
+ * {@code info} never load Jackson, and replays the journal over it. The JSON file is
+ * parsed only when it is not the one the binary file was written with, which the binary
+ * file records the checksum of, e.g. after being edited, copied in or restored from a
+ * backup by hand; it then replaces the catalog, journal included, and the binary file is
+ * rebuilt from it. File times would miss a copy that keeps them, such as {@code cp -p}.
+ *
+ * <p>Several processes may use one catalog. Each save is a generation (see
+ * {@link CatalogJournal}); files are only ever appended to or replaced by renaming (see
+ * {@link AtomicFiles}), so readers take no lock and see one generation. Writers take an
+ * advisory lock on {@code catalog.lock} and apply their changes over the latest generation.
  */
 public class JdkCatalogImpl implements JdkCatalog {
     
-    private static final String JDX_DIR = System.getProperty("user.home") + "/.jdx";
-    private static final String CATALOG_FILE = JDX_DIR + "/catalog.json";
+    private static final int MAX_READ_ATTEMPTS = 10;
+
+    /** Serialises writers within this JVM, which the file lock does not. */
+    private static final Object WRITERS = new Object();
+
+    private final Path jdxDir;
+    private final Path catalogFile;
+    private final Path binaryFile;
+    private final Path lockFile;
+    private final CatalogJournal journal;
     
     private final Map<String, JdkInfo> catalog = new ConcurrentHashMap<>();
-    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    /** Entries of the mapped binary catalog not decoded yet, by id, and their record numbers. */
+    private final Map<String, Integer> undecoded = new ConcurrentHashMap<>();
+    private volatile BinaryCatalog mapped;
+    /** Built on the first query after the catalog changes. */
+    private volatile CatalogIndex index;
+    private volatile Set<Path> slowRoots = Set.of();
+    private volatile long generation;
+    /** Changes since the last save, appended to the journal by the next one. */
+    private final List<Change> pending = new ArrayList<>();
+    /**
+     * Slow roots added and removed since the last save; applied to the latest set when
+     * saving, so that roots another process recorded meanwhile are kept.
+     */
+    private final Set<Path> slowRootsAdded = new HashSet<>();
+    private final Set<Path> slowRootsRemoved = new HashSet<>();
+
+    /**
+     * Holds the JSON mapper, so that Jackson is only loaded when the JSON file is read or written.
+     */
+    private static final class Json {
+        static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    }
 
     public JdkCatalogImpl() {
+        this(Paths.get(System.getProperty("user.home"), ".jdx"));
+    }
+
+    /**
+     * A catalog stored in {@code jdxDir} rather than {@code ~/.jdx}.
+     */
+    public JdkCatalogImpl(Path jdxDir) {
+        this.jdxDir = jdxDir;
+        this.catalogFile = jdxDir.resolve("catalog.json");
+        this.binaryFile = jdxDir.resolve("catalog.bin");
+        this.lockFile = jdxDir.resolve("catalog.lock");
+        this.journal = new CatalogJournal(jdxDir.resolve("catalog.log"));
         ensureJdxDir();
         load();
     }
 
     private void ensureJdxDir() {
-        Path jdxPath = Paths.get(JDX_DIR);
-        if (!Files.exists(jdxPath)) {
+        if (!Files.exists(jdxDir)) {
             try {
-                Files.createDirectories(jdxPath);
+                Files.createDirectories(jdxDir);
             } catch (IOException e) {
                 System.err.println("Warning: Could not create .jdx directory: " + e.getMessage());
             }
@@ -39,90 +108,441 @@ public class JdkCatalogImpl implements JdkCatalog {
     }
 
     @Override
-    public void add(JdkInfo jdk) {
+    public synchronized void add(JdkInfo jdk) {
+        JdkInfo existing = findById(jdk.id()).orElse(null);
+        if (existing != null) {
+            jdk = jdk.withAliasesOf(existing);
+        }
+        if (jdk.equals(existing)) {
+            return;
+        }
+        put(jdk);
+        pending.add(new CatalogJournal.Put(jdk));
+    }
+
+    @Override
+    public synchronized void remove(String id) {
+        if (findById(id).isEmpty()) {
+            return;
+        }
+        delete(id);
+        pending.add(new CatalogJournal.Remove(id));
+    }
+
+    private void put(JdkInfo jdk) {
+        undecoded.remove(jdk.id());
         catalog.put(jdk.id(), jdk);
+        index = null;
+    }
+
+    private void delete(String id) {
+        undecoded.remove(id);
+        catalog.remove(id);
+        index = null;
     }
 
     @Override
     public List<JdkInfo> getAll() {
+        decodeAll();
         return new ArrayList<>(catalog.values());
     }
 
     @Override
     public Optional<JdkInfo> findById(String id) {
-        return Optional.ofNullable(catalog.get(id));
+        JdkInfo jdk = catalog.get(id);
+        if (jdk == null && undecoded.containsKey(id)) {
+            jdk = decode(id);
+        }
+        return Optional.ofNullable(jdk);
     }
 
     @Override
     public List<JdkInfo> findByVersion(String version) {
-        return catalog.values().stream()
-            .filter(jdk -> matchesVersion(jdk.version(), version))
-            .sorted(Comparator.comparing(JdkInfo::version).reversed())
-            .toList();
+        // Archived JDKs cannot be activated, so they never satisfy a version request
+        return find(JdkQuery.any().withVersion(version));
     }
 
-    private boolean matchesVersion(String jdkVersion, String requestedVersion) {
-        // Simple version matching
-        // Supports: "8", "1.8", "17", "17.0.11", "21", etc.
-        String normalized = normalizeVersion(jdkVersion);
-        String requested = normalizeVersion(requestedVersion);
-        
-        return normalized.startsWith(requested) || normalized.equals(requested);
+    @Override
+    public List<JdkInfo> find(JdkQuery query) {
+        return index().find(query);
     }
 
-    private String normalizeVersion(String version) {
-        // Remove quotes and normalize
-        version = version.replaceAll("^\"|\"$", "");
-        
-        // Convert 1.8 to 8
-        if (version.startsWith("1.8")) {
-            version = "8" + version.substring(3);
+    private CatalogIndex index() {
+        CatalogIndex current = index;
+        if (current == null) {
+            decodeAll();
+            current = new CatalogIndex(catalog.values());
+            index = current;
         }
-        
-        return version;
+        return current;
     }
 
     @Override
-    public void save() {
+    public boolean matches(JdkInfo jdk, String versionSpec) {
+        return jdk.archive() == null
+            && VersionSpec.parse(versionSpec).map(spec -> spec.test(jdk.version())).orElse(false);
+    }
+
+    @Override
+    public Set<Path> getSlowRoots() {
+        return slowRoots;
+    }
+
+    @Override
+    public synchronized void setSlowRoots(Set<Path> roots) {
+        Set<Path> copy = Set.copyOf(roots);
+        for (Path root : copy) {
+            if (!slowRoots.contains(root)) {
+                slowRootsAdded.add(root);
+                slowRootsRemoved.remove(root);
+            }
+        }
+        for (Path root : slowRoots) {
+            if (!copy.contains(root)) {
+                slowRootsRemoved.add(root);
+                slowRootsAdded.remove(root);
+            }
+        }
+        slowRoots = copy;
+    }
+
+    private List<String> sortedSlowRoots() {
+        return slowRoots.stream().map(Path::toString).sorted().toList();
+    }
+
+    private synchronized JdkInfo decode(String id) {
+        Integer record = undecoded.remove(id);
+        if (record == null) {
+            return catalog.get(id);
+        }
+        JdkInfo jdk = mapped.get(record);
+        catalog.put(id, jdk);
+        return jdk;
+    }
+
+    private void decodeAll() {
+        for (String id : undecoded.keySet()) {
+            decode(id);
+        }
+    }
+
+    @Override
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Append the changes since the last save to the journal, as the next generation.
+     *
+     * <p>Other processes may have saved since this catalog was read, so under the write lock
+     * the latest generation is read first and this catalog's changes are applied over it:
+     * an entry another process added stays, and one both changed ends as this save left it.
+     * Slow roots are merged the same way, root by root.
+     */
+    @Override
+    public synchronized void save() {
+        if (pending.isEmpty() && slowRootsAdded.isEmpty() && slowRootsRemoved.isEmpty()) {
+            return;
+        }
+        withWriteLock(() -> {
+            readLatest(true);
+            List<Change> changes = new ArrayList<>(pending);
+            Set<Path> merged = new HashSet<>(slowRoots);
+            merged.addAll(slowRootsAdded);
+            merged.removeAll(slowRootsRemoved);
+            if (!merged.equals(slowRoots)) {
+                changes.add(new CatalogJournal.SlowRoots(merged.stream().map(Path::toString).sorted().toList()));
+            }
+            if (changes.isEmpty()) {
+                // Another process saved the same
+                return;
+            }
+            changes.forEach(this::apply);
+            boolean appended = false;
+            try {
+                journal.append(changes);
+                generation = journal.generation();
+                appended = true;
+            } catch (IOException e) {
+                System.err.println("Warning: Could not append to catalog journal: " + e.getMessage());
+                generation++;
+            }
+            if (!appended || journal.length() > CatalogJournal.COMPACT_THRESHOLD || !Files.exists(binaryFile)) {
+                compact();
+            }
+        });
+        pending.clear();
+        slowRootsAdded.clear();
+        slowRootsRemoved.clear();
+    }
+
+    /**
+     * Rewrite the snapshot with the whole catalog and start a new journal on it. Must hold
+     * the write lock.
+     */
+    private void compact() {
+        decodeAll();
+        List<String> slow = sortedSlowRoots();
+        boolean saved = false;
+        int jsonChecksum;
         try {
-            Path catalogPath = Paths.get(CATALOG_FILE);
-            CatalogData data = new CatalogData(new ArrayList<>(catalog.values()));
-            mapper.writeValue(catalogPath.toFile(), data);
+            CatalogData data = new CatalogData(new ArrayList<>(catalog.values()), slow, generation);
+            byte[] json = Json.MAPPER.writeValueAsBytes(data);
+            AtomicFiles.write(catalogFile, json);
+            jsonChecksum = checksum(json);
+            saved = true;
         } catch (IOException e) {
             System.err.println("Warning: Could not save catalog: " + e.getMessage());
+            // The old file is still the one the binary file goes with
+            jsonChecksum = readJsonChecksum().orElse(0);
+        }
+        saved |= saveBinary(slow, jsonChecksum);
+        if (saved) {
+            resetJournal();
         }
     }
 
-    @Override
-    public void load() {
-        Path catalogPath = Paths.get(CATALOG_FILE);
-        if (!Files.exists(catalogPath)) {
-            return;
+    /**
+     * Write {@code catalog.bin}, recording the checksum of the {@code catalog.json} it goes with.
+     */
+    private boolean saveBinary(List<String> slow, int jsonChecksum) {
+        try {
+            BinaryCatalog.write(binaryFile, catalog.values(), slow, generation, jsonChecksum);
+            return true;
+        } catch (IOException e) {
+            // Loading falls back to catalog.json
+            System.err.println("Warning: Could not save binary catalog: " + e.getMessage());
+            return false;
         }
-        
+    }
+
+    private void resetJournal() {
         try {
-            CatalogData data = mapper.readValue(catalogPath.toFile(), CatalogData.class);
-            catalog.clear();
-            if (data.jdks != null) {
-                for (JdkInfo jdk : data.jdks) {
-                    catalog.put(jdk.id(), jdk);
+            journal.reset(generation);
+        } catch (IOException e) {
+            // Its frames are skipped, being no newer than the snapshot
+            System.err.println("Warning: Could not reset catalog journal: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void load() {
+        pending.clear();
+        slowRootsAdded.clear();
+        slowRootsRemoved.clear();
+        readLatest(false);
+    }
+
+    /**
+     * Read the latest generation: the binary snapshot and the journal frames newer than it.
+     * Readers take no lock. A writer compacting between reading the two is seen as a journal
+     * based on a newer snapshot than the one read, and the read is retried.
+     *
+     * <p>Reading {@code catalog.json}, because it was edited or copied in by hand or the
+     * binary snapshot is missing or damaged, rewrites the snapshot and so takes the write
+     * lock, unless {@code locked} says it is held. So does a reader that keeps losing the
+     * race with compacting writers: under the lock nothing compacts, and a snapshot and
+     * journal that still do not fit together are damaged and replaced from the JSON file.
+     */
+    private void readLatest(boolean locked) {
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            if (!Files.exists(binaryFile)) {
+                if (!Files.exists(catalogFile)) {
+                    // Nothing compacted yet
+                    install(null, journalChanges(0));
+                    return;
                 }
+                break;
             }
+            BinaryCatalog binary;
+            try {
+                binary = BinaryCatalog.open(binaryFile);
+            } catch (IOException e) {
+                // Damaged or from another version: rebuilt from catalog.json below
+                break;
+            }
+            if (isJsonReplaced(binary)) {
+                // Imported below; a writer compacting meanwhile looks the same, and under
+                // the lock the two files fit again
+                break;
+            }
+            List<Change> changes = journalChanges(binary.generation());
+            if (journal.base() <= binary.generation()) {
+                install(binary, changes);
+                return;
+            }
+            // A writer compacted between reading the snapshot and the journal
+        }
+        if (locked) {
+            readJson();
+        } else {
+            withWriteLock(() -> readLatest(true));
+        }
+    }
+
+    /**
+     * Load {@code catalog.json} and rebuild the binary snapshot from it. A file other than
+     * the one the binary snapshot was written with was edited or copied in and replaces the
+     * catalog, journal included; otherwise it is the last snapshot and the journal is
+     * replayed over it. Must hold the write lock.
+     */
+    private void readJson() {
+        if (!Files.exists(catalogFile)) {
+            install(null, journalChanges(0));
+            return;
+        }
+        boolean imported = false;
+        try {
+            imported = Files.exists(binaryFile) && isJsonReplaced(BinaryCatalog.open(binaryFile));
+        } catch (IOException e) {
+            // A damaged binary snapshot is replaced by the last JSON one
+        }
+        byte[] json;
+        CatalogData data;
+        try {
+            json = Files.readAllBytes(catalogFile);
+            data = Json.MAPPER.readValue(json, CatalogData.class);
         } catch (IOException e) {
             System.err.println("Warning: Could not load catalog: " + e.getMessage());
+            install(null, journalChanges(0));
+            return;
+        }
+        List<Change> changes = journalChanges(data.generation);
+        install(null, List.of());
+        if (data.jdks != null) {
+            for (JdkInfo jdk : data.jdks) {
+                catalog.put(jdk.id(), jdk);
+            }
+        }
+        Set<Path> slow = new HashSet<>();
+        if (data.slowRoots != null) {
+            for (String root : data.slowRoots) {
+                slow.add(Paths.get(root));
+            }
+        }
+        slowRoots = Set.copyOf(slow);
+        if (!imported) {
+            changes.forEach(this::apply);
+        }
+        // An import is a change of its own
+        generation = journal.generation() + (imported ? 1 : 0);
+        if (saveBinary(sortedSlowRoots(), checksum(json))) {
+            resetJournal();
+        }
+    }
+
+    /**
+     * Whether {@code catalog.json} was replaced since {@code binary} was written. A missing
+     * or unreadable file has nothing to import.
+     */
+    private boolean isJsonReplaced(BinaryCatalog binary) {
+        OptionalInt checksum = readJsonChecksum();
+        return checksum.isPresent() && checksum.getAsInt() != binary.jsonChecksum();
+    }
+
+    private OptionalInt readJsonChecksum() {
+        try {
+            return OptionalInt.of(checksum(Files.readAllBytes(catalogFile)));
+        } catch (IOException e) {
+            return OptionalInt.empty();
+        }
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * The journal's changes newer than a snapshot of {@code snapshotGeneration}.
+     */
+    private List<Change> journalChanges(long snapshotGeneration) {
+        try {
+            return journal.read(snapshotGeneration);
+        } catch (IOException e) {
+            System.err.println("Warning: Could not read catalog journal, changes since the last compaction are lost: "
+                + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Replace the catalog with {@code binary}, or nothing, and {@code changes} applied over it.
+     */
+    private void install(BinaryCatalog binary, List<Change> changes) {
+        catalog.clear();
+        undecoded.clear();
+        mapped = binary;
+        index = null;
+        Set<Path> slow = new HashSet<>();
+        if (binary != null) {
+            for (int record = 0; record < binary.size(); record++) {
+                undecoded.put(binary.id(record), record);
+            }
+            for (String root : binary.slowRoots()) {
+                slow.add(Paths.get(root));
+            }
+        }
+        slowRoots = Set.copyOf(slow);
+        changes.forEach(this::apply);
+        generation = journal.generation();
+    }
+
+    private void apply(Change change) {
+        switch (change) {
+            case CatalogJournal.Put put -> put(put.jdk());
+            case CatalogJournal.Remove remove -> delete(remove.id());
+            case CatalogJournal.SlowRoots roots -> slowRoots = roots.roots().stream()
+                .map(Paths::get)
+                .collect(Collectors.toUnmodifiableSet());
+        }
+    }
+
+    /**
+     * Run {@code action} holding the catalog's write lock: an advisory lock on
+     * {@code catalog.lock} against other processes, and a monitor against other threads,
+     * since a JVM can hold a file lock only once. On file systems without locking the
+     * action runs unlocked.
+     */
+    private void withWriteLock(Runnable action) {
+        synchronized (WRITERS) {
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                channel.lock();
+            } catch (IOException e) {
+                System.err.println("Warning: Could not lock catalog, saving without a lock: " + e.getMessage());
+            }
+            try {
+                action.run();
+            } finally {
+                if (channel != null) {
+                    try {
+                        // Releases the lock
+                        channel.close();
+                    } catch (IOException e) {
+                        // Nothing left to do
+                    }
+                }
+            }
         }
     }
 
     // Helper class for JSON serialization
     private static class CatalogData {
         public List<JdkInfo> jdks;
+        public List<String> slowRoots;
+        public long generation;
 
         // This constructor is used through reflection
         @SuppressWarnings("unused")
         public CatalogData() {}
 
-        public CatalogData(List<JdkInfo> jdks) {
+        public CatalogData(List<JdkInfo> jdks, List<String> slowRoots, long generation) {
             this.jdks = jdks;
+            this.slowRoots = slowRoots;
+            this.generation = generation;
         }
     }
 }
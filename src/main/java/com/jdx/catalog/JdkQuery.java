@@ -0,0 +1,40 @@
+package com.jdx.catalog;
+
+import java.util.Set;
+
+/**
+ * Criteria for {@link JdkCatalog#find}; every criterion that is set must hold.
+ *
+ * @param version      version specification as for {@link JdkCatalog#findByVersion}, or
+ *                     {@code null} for any; when set, archived JDKs never match
+ * @param vendor       vendor name or part of it, case-insensitive, such as {@code temurin}
+ *                     or {@code Eclipse Adoptium}, or {@code null} for any
+ * @param arch         architecture as recorded, such as {@code aarch64}, or {@code null} for any
+ * @param capabilities capability ids the JDK must all have
+ */
+public record JdkQuery(String version, String vendor, String arch, Set<String> capabilities) {
+
+    public JdkQuery {
+        capabilities = capabilities == null ? Set.of() : Set.copyOf(capabilities);
+    }
+
+    public static JdkQuery any() {
+        return new JdkQuery(null, null, null, Set.of());
+    }
+
+    public JdkQuery withVersion(String version) {
+        return new JdkQuery(version, vendor, arch, capabilities);
+    }
+
+    public JdkQuery withVendor(String vendor) {
+        return new JdkQuery(version, vendor, arch, capabilities);
+    }
+
+    public JdkQuery withArch(String arch) {
+        return new JdkQuery(version, vendor, arch, capabilities);
+    }
+
+    public JdkQuery withCapabilities(Set<String> capabilities) {
+        return new JdkQuery(version, vendor, arch, capabilities);
+    }
+}
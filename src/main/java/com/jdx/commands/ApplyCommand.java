@@ -48,6 +48,10 @@ public class ApplyCommand implements Callable<Integer> {
         String runtimeVersion = config.project().runtime().require();
         JdkCatalogImpl catalog = new JdkCatalogImpl();
         List<JdkInfo> matches = catalog.findByVersion(runtimeVersion);
+        if (matches.isEmpty()) {
+            // The runtime may be installed but not cataloged yet
+            matches = ScanCommand.discover(catalog, runtimeVersion).stream().toList();
+        }
         
         if (matches.isEmpty()) {
             System.err.println("Error: No JDK found for runtime version: " + runtimeVersion);
@@ -9,6 +9,8 @@ import picocli.CommandLine.Parameters;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 @Command(
@@ -49,6 +51,9 @@ public class ConfigCommand implements Callable<Integer> {
         // Simple key access
         String result = switch (key) {
             case "catalog.autorefresh_days" -> String.valueOf(config.catalog().autorefresh_days());
+            case "discovery.include" -> String.join(",", config.discovery().include());
+            case "discovery.exclude" -> String.join(",", config.discovery().exclude());
+            case "discovery.disabled_sources" -> String.join(",", config.discovery().disabled_sources());
             case "defaults.runtime" -> config.defaults().runtime();
             case "safety.require_confirmation_on_persist" -> String.valueOf(config.safety().require_confirmation_on_persist());
             case "telemetry.enabled" -> String.valueOf(config.telemetry().enabled());
@@ -77,24 +82,52 @@ public class ConfigCommand implements Callable<Integer> {
         config = switch (key) {
             case "catalog.autorefresh_days" -> new JdxConfig(
                 new JdxConfig.CatalogConfig(Integer.parseInt(value)),
+                config.discovery(),
+                config.defaults(),
+                config.safety(),
+                config.telemetry()
+            );
+            case "discovery.include" -> new JdxConfig(
+                config.catalog(),
+                new JdxConfig.DiscoveryConfig(splitList(value), config.discovery().exclude(),
+                    config.discovery().disabled_sources()),
+                config.defaults(),
+                config.safety(),
+                config.telemetry()
+            );
+            case "discovery.exclude" -> new JdxConfig(
+                config.catalog(),
+                new JdxConfig.DiscoveryConfig(config.discovery().include(), splitList(value),
+                    config.discovery().disabled_sources()),
+                config.defaults(),
+                config.safety(),
+                config.telemetry()
+            );
+            case "discovery.disabled_sources" -> new JdxConfig(
+                config.catalog(),
+                new JdxConfig.DiscoveryConfig(config.discovery().include(), config.discovery().exclude(),
+                    splitList(value)),
                 config.defaults(),
                 config.safety(),
                 config.telemetry()
             );
             case "defaults.runtime" -> new JdxConfig(
                 config.catalog(),
+                config.discovery(),
                 new JdxConfig.DefaultsConfig(value, config.defaults().vendor_preference()),
                 config.safety(),
                 config.telemetry()
             );
             case "safety.require_confirmation_on_persist" -> new JdxConfig(
                 config.catalog(),
+                config.discovery(),
                 config.defaults(),
                 new JdxConfig.SafetyConfig(Boolean.parseBoolean(value)),
                 config.telemetry()
             );
             case "telemetry.enabled" -> new JdxConfig(
                 config.catalog(),
+                config.discovery(),
                 config.defaults(),
                 config.safety(),
                 new JdxConfig.TelemetryConfig(Boolean.parseBoolean(value))
@@ -113,13 +146,24 @@ public class ConfigCommand implements Callable<Integer> {
         return 1;
     }
 
-    private JdxConfig loadConfig() throws Exception {
+    private static List<String> splitList(String value) {
+        return Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(item -> !item.isEmpty())
+            .toList();
+    }
+
+    /**
+     * Load ~/.jdx/config.yaml, falling back to defaults for the file or any missing section.
+     */
+    static JdxConfig loadConfig() throws Exception {
         Path configPath = Paths.get(CONFIG_FILE);
         
         if (!Files.exists(configPath)) {
             // Return default config
             return new JdxConfig(
                 new JdxConfig.CatalogConfig(7),
+                JdxConfig.DiscoveryConfig.defaults(),
                 new JdxConfig.DefaultsConfig("21", new String[]{"Microsoft", "Temurin", "any"}),
                 new JdxConfig.SafetyConfig(true),
                 new JdxConfig.TelemetryConfig(false)
@@ -127,7 +171,18 @@ public class ConfigCommand implements Callable<Integer> {
         }
 
         ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-        return mapper.readValue(configPath.toFile(), JdxConfig.class);
+        JdxConfig config = mapper.readValue(configPath.toFile(), JdxConfig.class);
+        if (config.discovery() == null) {
+            // Config files written before the discovery section existed
+            config = new JdxConfig(
+                config.catalog(),
+                JdxConfig.DiscoveryConfig.defaults(),
+                config.defaults(),
+                config.safety(),
+                config.telemetry()
+            );
+        }
+        return config;
     }
 
     private void saveConfig(JdxConfig config) throws Exception {
@@ -7,6 +7,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 
+import com.jdx.discovery.PathResolver;
+
 import picocli.CommandLine.Command;
 
 @Command(
@@ -70,17 +72,9 @@ public class DetectForeignCommand implements Callable<Integer> {
     }
 
     private boolean checkJenv() {
-        try {
-            // Check if jenv command exists
-            Process process = new ProcessBuilder("which", "jenv")
-                .redirectErrorStream(true)
-                .start();
-            int exitCode = process.waitFor();
-            if (exitCode == 0) {
-                return true;
-            }
-        } catch (Exception e) {
-            // Ignore
+        // Check if jenv command exists
+        if (PathResolver.fromEnvironment().find("jenv").isPresent()) {
+            return true;
         }
         
         // Check JENV_ROOT
@@ -101,15 +95,7 @@ public class DetectForeignCommand implements Callable<Integer> {
     }
 
     private boolean checkMise() {
-        try {
-            Process process = new ProcessBuilder("which", "mise")
-                .redirectErrorStream(true)
-                .start();
-            int exitCode = process.waitFor();
-            return exitCode == 0;
-        } catch (Exception e) {
-            return false;
-        }
+        return PathResolver.fromEnvironment().find("mise").isPresent();
     }
 
     private boolean checkAsdf() {
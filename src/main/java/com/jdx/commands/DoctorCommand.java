@@ -1,15 +1,15 @@
 package com.jdx.commands;
 
 import com.jdx.catalog.JdkCatalogImpl;
+import com.jdx.discovery.PathResolver;
 import com.jdx.model.JdkInfo;
 import picocli.CommandLine.Command;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 @Command(
@@ -77,22 +77,10 @@ public class DoctorCommand implements Callable<Integer> {
     }
 
     private boolean checkJavaInPath() {
-        try {
-            Process process = new ProcessBuilder("which", "java")
-                .redirectErrorStream(true)
-                .start();
-            
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream()))) {
-                String javaPath = reader.readLine();
-                if (javaPath != null && !javaPath.isEmpty()) {
-                    System.out.println("✓ java found in PATH: " + javaPath);
-                    return true;
-                }
-            }
-            process.waitFor();
-        } catch (Exception e) {
-            // Ignore
+        Optional<Path> javaPath = PathResolver.fromEnvironment().find("java");
+        if (javaPath.isPresent()) {
+            System.out.println("✓ java found in PATH: " + javaPath.get());
+            return true;
         }
         
         System.out.println("✗ java not found in PATH");
@@ -46,14 +46,37 @@ public class InfoCommand implements Callable<Integer> {
         System.out.println("ID:           " + jdk.id());
         System.out.println("Version:      " + jdk.version());
         System.out.println("Vendor:       " + jdk.vendor());
-        System.out.println("Architecture: " + jdk.arch());
+        if (jdk.runtimeVersion() != null) {
+            System.out.println("Runtime:      " + jdk.runtimeVersion());
+        }
+        if (jdk.implementorVersion() != null) {
+            System.out.println("Build:        " + jdk.implementorVersion());
+        }
+        System.out.println("Architecture: " + jdk.arch() + (jdk.libc() != null ? " (" + jdk.libc() + ")" : ""));
+        if (jdk.buildType() != null) {
+            System.out.println("Build type:   " + jdk.buildType());
+        }
         System.out.println("Path:         " + jdk.path());
+        if (jdk.archive() != null) {
+            System.out.println("Archive:      " + jdk.archive() + " (not extracted)");
+        }
+        for (String alias : jdk.aliases()) {
+            System.out.println("Alias:        " + alias);
+        }
         System.out.println("Status:       " + (jdk.valid() ? "✓ Valid" : "✗ Broken"));
         
         if (!jdk.capabilities().isEmpty()) {
             System.out.println("Capabilities: " + String.join(", ", jdk.capabilities()));
         }
         
+        if (jdk.modules() != null && !jdk.modules().isEmpty()) {
+            System.out.println("Modules:      " + jdk.modules().size() + " (" + String.join(" ", jdk.modules()) + ")");
+        }
+        
+        if (jdk.archive() != null) {
+            return 0;
+        }
+        
         System.out.println("\nTo use this JDK:");
         System.out.println("  eval \"$(jdx use " + jdk.id() + " --shell)\"");
         
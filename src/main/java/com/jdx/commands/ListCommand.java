@@ -1,11 +1,15 @@
 package com.jdx.commands;
 
 import com.jdx.catalog.JdkCatalogImpl;
+import com.jdx.catalog.JdkQuery;
+import com.jdx.model.Capability;
 import com.jdx.model.JdkInfo;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 @Command(
@@ -16,6 +20,17 @@ public class ListCommand implements Callable<Integer> {
     
     @Option(names = {"--json"}, description = "Output in JSON format")
     private boolean json;
+    
+    @Option(names = {"--capability"}, paramLabel = "<capability>",
+        description = "Only list JDKs with this capability (jlink, jpackage, jmods, cds, debug-symbols, jfr, javafx, vector, crac); repeatable")
+    private List<String> capabilities = new ArrayList<>();
+
+    @Option(names = {"--vendor"}, paramLabel = "<vendor>",
+        description = "Only list JDKs from this vendor, e.g. temurin, zulu or \"Eclipse Adoptium\" (case-insensitive, partial names match)")
+    private String vendor;
+
+    @Option(names = {"--arch"}, paramLabel = "<arch>", description = "Only list JDKs for this architecture, e.g. x86_64 or aarch64")
+    private String arch;
 
     @Override
     public Integer call() throws Exception {
@@ -26,6 +41,20 @@ public class ListCommand implements Callable<Integer> {
             System.out.println("No JDKs found. Run 'jdx scan' to discover JDKs.");
             return 0;
         }
+        
+        for (String capability : capabilities) {
+            if (Capability.fromId(capability).isEmpty()) {
+                System.err.println("Error: Unknown capability: " + capability);
+                return 1;
+            }
+        }
+        if (!capabilities.isEmpty() || vendor != null || arch != null) {
+            jdks = catalog.find(JdkQuery.any().withVendor(vendor).withArch(arch).withCapabilities(Set.copyOf(capabilities)));
+        }
+        if (jdks.isEmpty()) {
+            System.out.println("No JDKs match " + describeFilters() + ".");
+            return 0;
+        }
 
         if (json) {
             // Simple JSON output
@@ -57,6 +86,20 @@ public class ListCommand implements Callable<Integer> {
         return 0;
     }
 
+    private String describeFilters() {
+        List<String> filters = new ArrayList<>();
+        if (vendor != null) {
+            filters.add("vendor " + vendor);
+        }
+        if (arch != null) {
+            filters.add("arch " + arch);
+        }
+        if (!capabilities.isEmpty()) {
+            filters.add("capabilities " + String.join(", ", capabilities));
+        }
+        return String.join(", ", filters);
+    }
+
     private String truncate(String str, int maxLength) {
         if (str.length() <= maxLength) {
             return str;
@@ -0,0 +1,196 @@
+package com.jdx.commands;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jdx.catalog.JdkCatalogImpl;
+import com.jdx.discovery.RunningJvms;
+import com.jdx.discovery.RunningJvms.JvmProcess;
+import com.jdx.model.JdkInfo;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+@Command(
+    name = "ps",
+    description = "Show which JDK each running JVM uses, with process counts, memory and uptime"
+)
+public class PsCommand implements Callable<Integer> {
+
+    @Option(names = {"--json"}, description = "Output in JSON format")
+    private boolean json;
+
+    @Option(names = {"--pids"}, description = "List every process under its JDK")
+    private boolean pids;
+
+    /**
+     * The processes running from one JDK, or from one uncataloged launcher when {@code jdk} is null.
+     */
+    private record Usage(JdkInfo jdk, Path launcher, List<JvmProcess> processes) {
+
+        long rssBytes() {
+            return processes.stream().mapToLong(p -> Math.max(0, p.rssBytes())).sum();
+        }
+
+        Duration longestUptime(Instant now) {
+            return processes.stream().map(p -> p.uptime(now)).max(Duration::compareTo).orElse(Duration.ZERO);
+        }
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        if (!RunningJvms.isSupported()) {
+            System.err.println("Error: jdx ps reads /proc and is only available on Linux");
+            return 1;
+        }
+
+        List<JdkInfo> jdks = new JdkCatalogImpl().getAll();
+        Map<Path, JdkInfo> homes = new HashMap<>();
+        for (JdkInfo jdk : jdks) {
+            if (jdk.archive() != null) {
+                continue;
+            }
+            homes.put(Paths.get(jdk.path()), jdk);
+            for (String alias : jdk.aliases()) {
+                homes.putIfAbsent(Paths.get(alias), jdk);
+            }
+        }
+
+        RunningJvms.Snapshot snapshot = RunningJvms.scan(homes.keySet());
+        Map<String, Usage> usages = new LinkedHashMap<>();
+        for (JvmProcess process : snapshot.processes()) {
+            JdkInfo jdk = owningJdk(homes, process.executable());
+            String key = jdk != null ? "jdk:" + jdk.id() : "exe:" + process.executable();
+            usages.computeIfAbsent(key, k -> new Usage(jdk, process.executable(), new ArrayList<>()))
+                .processes().add(process);
+        }
+        List<JdkInfo> idle = jdks.stream()
+            .filter(jdk -> jdk.archive() == null)
+            .filter(jdk -> !usages.containsKey("jdk:" + jdk.id()))
+            .toList();
+
+        Instant now = Instant.now();
+        if (json) {
+            printJson(usages.values(), idle, snapshot.inaccessible(), now);
+        } else {
+            printTable(usages.values(), idle, snapshot, now);
+        }
+        return 0;
+    }
+
+    /**
+     * The cataloged JDK whose home contains the launcher, such as {@code <home>/bin/java}
+     * or {@code <home>/jre/bin/java}; null if the launcher belongs to no cataloged JDK.
+     */
+    private static JdkInfo owningJdk(Map<Path, JdkInfo> homes, Path launcher) {
+        for (Path dir = launcher.getParent(); dir != null; dir = dir.getParent()) {
+            JdkInfo jdk = homes.get(dir);
+            if (jdk != null) {
+                return jdk;
+            }
+        }
+        return null;
+    }
+
+    private void printTable(Iterable<Usage> usages, List<JdkInfo> idle, RunningJvms.Snapshot snapshot, Instant now) {
+        if (snapshot.processes().isEmpty()) {
+            System.out.println("No running JVMs found.");
+        } else {
+            System.out.printf("%-30s %-15s %6s %10s %10s%n", "JDK", "VERSION", "PROCS", "RSS", "UPTIME");
+            System.out.println("-".repeat(75));
+            long totalRss = 0;
+            for (Usage usage : usages) {
+                String id = usage.jdk() != null ? usage.jdk().id() : "(not cataloged)";
+                String version = usage.jdk() != null ? usage.jdk().version() : "";
+                System.out.printf("%-30s %-15s %6d %10s %10s%n", id, version, usage.processes().size(),
+                    formatBytes(usage.rssBytes()), formatUptime(usage.longestUptime(now)));
+                if (usage.jdk() == null) {
+                    System.out.println("  " + usage.launcher());
+                }
+                if (pids) {
+                    for (JvmProcess process : usage.processes()) {
+                        System.out.printf("  pid %-10d %10s %10s%s%n", process.pid(),
+                            process.rssBytes() < 0 ? "?" : formatBytes(process.rssBytes()),
+                            formatUptime(process.uptime(now)),
+                            process.deleted() ? "  (launcher deleted or replaced)" : "");
+                    }
+                }
+                totalRss += usage.rssBytes();
+            }
+            System.out.println("\nTotal: " + snapshot.processes().size() + " JVM(s), " + formatBytes(totalRss) + " RSS");
+        }
+        // Root may still be denied some processes, e.g. in a container without CAP_SYS_PTRACE
+        boolean root = snapshot.inaccessible() > 0 && RunningJvms.isRoot();
+        if (snapshot.inaccessible() > 0) {
+            System.out.println("Note: " + snapshot.inaccessible() + " process(es) could not be inspected"
+                + (root ? "" : "; other users' processes are only visible to root"));
+        }
+
+        if (!idle.isEmpty()) {
+            // Any of the processes that could not be inspected may be using one of these
+            System.out.println(snapshot.inaccessible() > 0
+                ? "\nNot used by any JVM that could be inspected (not known to be safe to remove"
+                    + (root ? "):" : "; run as root to check all):")
+                : "\nNot used by any running JVM (safe to remove as far as running processes go):");
+            for (JdkInfo jdk : idle) {
+                System.out.printf("  %-30s %-15s %s%n", jdk.id(), jdk.version(), jdk.path());
+            }
+        }
+    }
+
+    private void printJson(Iterable<Usage> usages, List<JdkInfo> idle, int inaccessible, Instant now)
+            throws JsonProcessingException {
+        List<Map<String, Object>> running = new ArrayList<>();
+        for (Usage usage : usages) {
+            List<Map<String, Object>> processes = new ArrayList<>();
+            for (JvmProcess process : usage.processes()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("pid", process.pid());
+                entry.put("rss_bytes", process.rssBytes());
+                entry.put("uptime_seconds", process.uptime(now).toSeconds());
+                entry.put("launcher_deleted", process.deleted());
+                processes.add(entry);
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", usage.jdk() == null ? null : usage.jdk().id());
+            entry.put("launcher", usage.launcher().toString());
+            entry.put("processes", usage.processes().size());
+            entry.put("rss_bytes", usage.rssBytes());
+            entry.put("pids", processes);
+            running.add(entry);
+        }
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("running", running);
+        output.put("idle", idle.stream().map(JdkInfo::id).toList());
+        output.put("inaccessible", inaccessible);
+        // Jackson escapes quotes and backslashes, which launcher paths may contain
+        System.out.println(new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(output));
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes >= 1L << 30) {
+            return String.format("%.1f GiB", bytes / (double) (1L << 30));
+        }
+        return String.format("%d MiB", bytes >> 20);
+    }
+
+    private static String formatUptime(Duration uptime) {
+        if (uptime.toDays() > 0) {
+            return uptime.toDays() + "d" + uptime.toHoursPart() + "h";
+        }
+        if (uptime.toHours() > 0) {
+            return uptime.toHours() + "h" + uptime.toMinutesPart() + "m";
+        }
+        return uptime.toMinutes() + "m" + uptime.toSecondsPart() + "s";
+    }
+}
@@ -2,13 +2,32 @@ package com.jdx.commands;
 
 import com.jdx.catalog.JdkCatalog;
 import com.jdx.catalog.JdkCatalogImpl;
+import com.jdx.discovery.DiscoveryOptions;
 import com.jdx.discovery.JdkDiscovery;
 import com.jdx.discovery.JdkDiscoveryImpl;
+import com.jdx.discovery.ScanStats;
+import com.jdx.discovery.SourceTiming;
+import com.jdx.discovery.WalkProgress;
 import com.jdx.model.JdkInfo;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Command to scan the system for installed JDKs and save them to the catalog.
@@ -16,38 +35,374 @@ import java.util.List;
 @Command(name = "scan", description = "Scan for installed JDKs and update catalog")
 public class ScanCommand implements Runnable {
     
-    @Option(names = {"--deep"}, description = "Perform deep scan, searching beyond standard JDK installation locations")
-    private boolean deep;
+    @Option(names = {"--deep"}, arity = "0..1", fallbackValue = "standard", paramLabel = "<mode>", description = "Perform deep scan, searching beyond standard JDK installation locations; --deep=full also walks the whole file system from /")
+    private String deep;
+    
+    @Option(names = {"--cross-mounts"}, description = "With --deep=full, also walk file systems mounted below / (pseudo file systems are always skipped)")
+    private boolean crossMounts;
+    
+    @Option(names = {"--include-remote"}, description = "With --deep=full --cross-mounts, also walk network file systems such as NFS and SMB")
+    private boolean includeRemote;
+    
+    @Option(names = {"--no-cache"}, description = "Re-read every JDK home instead of reusing unchanged ones from the discovery cache")
+    private boolean noCache;
+    
+    @Option(names = {"--watch"}, description = "Keep running after the scan and update the catalog as JDKs are installed or removed, until interrupted")
+    private boolean watch;
+    
+    @Option(names = {"--deadline"}, paramLabel = "<duration>", description = "Stop the whole scan after this long, keeping partial results (e.g. 30s, 2m, 500ms)")
+    private String deadline;
+    
+    @Option(names = {"--root-timeout"}, paramLabel = "<duration>", description = "Abandon any single scan location after this long, keeping partial results (e.g. 5s)")
+    private String rootTimeout;
+    
+    @Option(names = {"--archives"}, paramLabel = "<dir>", description = "Index the JDK archives (.tar.gz, .tgz, .zip) in this directory without extracting them, instead of scanning installed JDKs")
+    private Path archives;
+    
+    @Option(names = {"--image"}, paramLabel = "<path>", description = "Find the JDKs inside a local container image (an OCI layout directory or a docker save tarball) without unpacking it, instead of scanning installed JDKs; repeatable")
+    private List<Path> images;
+    
+    @Option(names = {"--timings"}, description = "Show how long each discovery source took and how many JDKs it found")
+    private boolean timings;
+    
+    private static final Pattern DURATION = Pattern.compile("(\\d{1,9})\\s*(ms|s|m)?");
     
-    private final JdkDiscovery discovery;
     private final JdkCatalog catalog;
     
     public ScanCommand() {
-        this.discovery = new JdkDiscoveryImpl();
         this.catalog = new JdkCatalogImpl();
     }
     
     @Override
     public void run() {
-        System.out.println("Scanning for JDK installations" + (deep ? " (deep scan)..." : "..."));
+        Duration scanDeadline;
+        Duration scanRootTimeout;
+        try {
+            scanDeadline = parseDuration(deadline);
+            scanRootTimeout = parseDuration(rootTimeout);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            return;
+        }
+        if (deep != null && !deep.equals("standard") && !deep.equals("full")) {
+            System.err.println("Error: Unknown deep scan mode '" + deep + "', expected 'standard' or 'full'");
+            return;
+        }
+        boolean deepScan = deep != null;
+        boolean fullScan = "full".equals(deep);
+        
+        DiscoveryOptions options = DiscoveryOptions.defaults()
+            .withCache(!noCache)
+            .withTimeouts(scanDeadline, scanRootTimeout)
+            .withSlowRoots(catalog.getSlowRoots())
+            .withMounts(crossMounts, includeRemote);
+        try {
+            options = options.withConfig(ConfigCommand.loadConfig().discovery());
+        } catch (Exception e) {
+            System.err.println("Warning: Could not read config.yaml, using default discovery rules: " + e.getMessage());
+        }
         
-        List<JdkInfo> jdks = deep ? discovery.deepScan() : discovery.scan();
+        JdkDiscovery discovery = new JdkDiscoveryImpl(options);
+        if (archives != null) {
+            scanArchives(discovery);
+            return;
+        }
+        if (images != null && !images.isEmpty()) {
+            scanImages(discovery);
+            return;
+        }
+        
+        System.out.println("Scanning for JDK installations"
+            + (fullScan ? " (full deep scan)..." : deepScan ? " (deep scan)..." : "..."));
+        List<JdkInfo> jdks = new ArrayList<>();
+        
+        // Print each JDK as soon as it is found; the catalog is written once at the end
+        try (Stream<JdkInfo> found = fullScan ? discovery.fullScan(this::printProgress) : discovery.stream(deepScan)) {
+            found.forEach(jdk -> {
+                if (jdks.isEmpty()) {
+                    System.out.println();
+                }
+                jdks.add(jdk);
+                System.out.println("  - " + jdk.id() + ": " + jdk.version() + " (" + jdk.vendor() + ") at " + jdk.path());
+            });
+        }
+        
+        ScanStats stats = discovery.lastScanStats();
+        System.out.println("Cache: " + stats.cacheHits() + " hit(s), " + stats.cacheMisses() + " miss(es), "
+            + stats.reparsed() + " reparsed");
+        System.out.println("Directories: " + stats.directoriesReused() + " unchanged, "
+            + stats.directoriesListed() + " listed");
+        for (Path root : stats.timedOutRoots()) {
+            System.out.println("Timed out, results partial: " + root);
+        }
+        if (timings) {
+            printTimings(stats.sourceTimings());
+        }
+        
+        // Remember slow roots so later scans deprioritise them
+        Set<Path> slowRoots = new TreeSet<>(catalog.getSlowRoots());
+        boolean slowRootsChanged = slowRoots.addAll(stats.timedOutRoots());
+        slowRootsChanged |= slowRoots.removeAll(stats.recoveredRoots());
+        catalog.setSlowRoots(slowRoots);
         
         if (jdks.isEmpty()) {
             System.out.println("No JDKs found.");
+            if (slowRootsChanged) {
+                catalog.save();
+            }
+        } else {
+            System.out.println("\nFound " + jdks.size() + " JDK(s).");
+            
+            // Aliases are only complete once the scan has finished
+            Set<String> aliasPaths = new HashSet<>();
+            jdks.replaceAll(jdk -> jdk.withAliases(stats.aliases().getOrDefault(jdk.path(), List.of())));
+            jdks.forEach(jdk -> aliasPaths.addAll(jdk.aliases()));
+            
+            // Drop entries recorded under what turned out to be an alias of another JDK
+            for (JdkInfo existing : catalog.getAll()) {
+                if (aliasPaths.contains(existing.path())) {
+                    catalog.remove(existing.id());
+                }
+            }
+            
+            // Save to catalog
+            for (JdkInfo jdk : jdks) {
+                catalog.add(jdk);
+            }
+            catalog.save();
+            System.out.println("\nCatalog updated successfully.");
+        }
+        
+        if (watch) {
+            watch(discovery, deepScan);
+        }
+    }
+    
+    /**
+     * Replace the catalog's archived JDKs under the archive directory with those found now.
+     */
+    private void scanArchives(JdkDiscovery discovery) {
+        Path directory = archives.toAbsolutePath().normalize();
+        System.out.println("Indexing JDK archives in " + directory + "...");
+        
+        List<JdkInfo> jdks;
+        try {
+            jdks = discovery.scanArchives(directory);
+        } catch (IOException e) {
+            System.err.println("Error: Could not read archive directory: " + e.getMessage());
             return;
         }
         
-        System.out.println("\nFound " + jdks.size() + " JDK(s):");
+        ScanStats stats = discovery.lastScanStats();
+        if (!jdks.isEmpty()) {
+            System.out.println();
+        }
         for (JdkInfo jdk : jdks) {
-            System.out.println("  - " + jdk.id() + ": " + jdk.version() + " (" + jdk.vendor() + ") at " + jdk.path());
+            System.out.println("  - " + jdk.id() + ": " + jdk.version() + " (" + jdk.vendor() + ") in " + jdk.archive());
         }
+        System.out.println("Archives: " + stats.cacheHits() + " unchanged, " + stats.cacheMisses() + " read");
         
-        // Save to catalog
+        for (JdkInfo existing : catalog.getAll()) {
+            if (existing.archive() != null && Paths.get(existing.archive()).startsWith(directory)) {
+                catalog.remove(existing.id());
+            }
+        }
         for (JdkInfo jdk : jdks) {
             catalog.add(jdk);
         }
         catalog.save();
-        System.out.println("\nCatalog updated successfully.");
+        System.out.println("\nFound " + jdks.size() + " archived JDK(s). Catalog updated successfully.");
+    }
+    
+    /**
+     * Replace the catalog's JDKs from each image with those found in it now.
+     */
+    private void scanImages(JdkDiscovery discovery) {
+        int found = 0;
+        for (Path image : images) {
+            Path path = image.toAbsolutePath().normalize();
+            System.out.println("Reading image " + path + "...");
+            
+            List<JdkInfo> jdks;
+            try {
+                jdks = discovery.scanImage(path);
+            } catch (IOException e) {
+                System.err.println("Error: Could not read image " + path + ": " + e.getMessage());
+                continue;
+            }
+            
+            ScanStats stats = discovery.lastScanStats();
+            for (JdkInfo jdk : jdks) {
+                System.out.println("  - " + jdk.id() + ": " + jdk.version() + " (" + jdk.vendor() + ") at " + jdk.path());
+            }
+            System.out.println(stats.cacheHits() > 0 ? "Image unchanged since the last scan" : "Image read");
+            
+            for (JdkInfo existing : catalog.getAll()) {
+                if (path.toString().equals(existing.archive())) {
+                    catalog.remove(existing.id());
+                }
+            }
+            for (JdkInfo jdk : jdks) {
+                catalog.add(jdk);
+            }
+            found += jdks.size();
+        }
+        catalog.save();
+        System.out.println("\nFound " + found + " JDK(s) in images. Catalog updated successfully.");
+    }
+    
+    /**
+     * Look for a JDK matching {@code versionSpec} that is not in the catalog yet, for
+     * commands that need one now. The likeliest locations are searched first and the
+     * search stops at the first match, which is added to the catalog. Messages go to
+     * stderr, so activation scripts on stdout stay clean.
+     */
+    static Optional<JdkInfo> discover(JdkCatalog catalog, String versionSpec) {
+        DiscoveryOptions options = DiscoveryOptions.defaults().withSlowRoots(catalog.getSlowRoots());
+        try {
+            options = options.withConfig(ConfigCommand.loadConfig().discovery());
+        } catch (Exception e) {
+            System.err.println("Warning: Could not read config.yaml, using default discovery rules: " + e.getMessage());
+        }
+        
+        System.err.println("JDK " + versionSpec + " is not in the catalog, searching for it...");
+        List<Path> knownHomes = catalog.getAll().stream()
+            .filter(jdk -> jdk.archive() == null)
+            .map(jdk -> Paths.get(jdk.path()))
+            .toList();
+        JdkDiscovery discovery = new JdkDiscoveryImpl(options);
+        Optional<JdkInfo> found = discovery.findFirst(jdk -> catalog.matches(jdk, versionSpec), knownHomes);
+        
+        // Slow roots are remembered as by a scan, so the next search leaves them for last
+        ScanStats stats = discovery.lastScanStats();
+        Set<Path> slowRoots = new TreeSet<>(catalog.getSlowRoots());
+        boolean slowRootsChanged = slowRoots.addAll(stats.timedOutRoots());
+        slowRootsChanged |= slowRoots.removeAll(stats.recoveredRoots());
+        catalog.setSlowRoots(slowRoots);
+        for (Path root : stats.timedOutRoots()) {
+            System.err.println("Timed out, not fully searched: " + root);
+        }
+        
+        if (found.isPresent()) {
+            JdkInfo jdk = found.get();
+            catalog.add(jdk);
+            catalog.save();
+            System.err.println("Found " + jdk.id() + ": " + jdk.version() + " at " + jdk.path() + ", added to the catalog.");
+        } else if (slowRootsChanged) {
+            catalog.save();
+        }
+        return found;
+    }
+    
+    private void printProgress(WalkProgress progress) {
+        System.err.printf("Walked %,d directories in %ds (%,.0f dirs/s), %d JDK home(s) so far%n",
+            progress.directories(), progress.elapsed().toSeconds(), progress.directoriesPerSecond(), progress.homes());
+    }
+    
+    private void watch(JdkDiscovery discovery, boolean deep) {
+        System.out.println("\nWatching for JDK changes. Press Ctrl+C to stop.");
+        try {
+            discovery.watch(deep, this::update);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Error: Could not watch for JDK changes: " + e.getMessage());
+        }
+    }
+    
+    private void printTimings(List<SourceTiming> sourceTimings) {
+        System.out.println();
+        System.out.printf("%-25s %-10s %-8s %-8s %-10s %s%n",
+            "SOURCE", "PRIORITY", "ROOTS", "JDKS", "TIME", "STATUS");
+        System.out.println("-".repeat(75));
+        
+        for (SourceTiming timing : sourceTimings) {
+            System.out.printf("%-25s %-10d %-8d %-8d %-10s %s%n",
+                timing.name(),
+                timing.priority(),
+                timing.roots(),
+                timing.jdks(),
+                timing.elapsed().toMillis() + "ms",
+                timing.timedOut() ? "timed out" : "ok");
+        }
+    }
+    
+    /**
+     * Parse a duration such as {@code 500ms}, {@code 30s} or {@code 2m}; a bare number means seconds.
+     * 
+     * @return the duration, or {@code null} if none was given
+     */
+    static Duration parseDuration(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Matcher matcher = DURATION.matcher(value.trim().toLowerCase(Locale.ROOT));
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid duration '" + value + "', expected e.g. 500ms, 30s or 2m");
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        String unit = matcher.group(2);
+        if ("ms".equals(unit)) {
+            return Duration.ofMillis(amount);
+        }
+        if ("m".equals(unit)) {
+            return Duration.ofMinutes(amount);
+        }
+        return Duration.ofSeconds(amount);
+    }
+    
+    /**
+     * Replace the catalog entries at or below {@code directory} with the JDKs found there now.
+     */
+    private void update(Path directory, List<JdkInfo> found) {
+        // Cataloged paths are real paths, and the watched directory may be reached through a link
+        Path realDirectory;
+        try {
+            realDirectory = directory.toRealPath();
+        } catch (IOException e) {
+            realDirectory = directory;
+        }
+        Map<String, JdkInfo> previous = new HashMap<>();
+        for (JdkInfo jdk : catalog.getAll()) {
+            // Archived JDKs are not watched, and a rescan never returns them
+            if (jdk.archive() == null && (isBelow(jdk, directory) || isBelow(jdk, realDirectory))) {
+                previous.put(jdk.id(), jdk);
+            }
+        }
+        
+        boolean changed = false;
+        for (JdkInfo jdk : found) {
+            JdkInfo old = previous.remove(jdk.id());
+            if (old != null) {
+                // A rescan only sees the watched directory, not the links elsewhere that lead to the JDK
+                jdk = jdk.withAliasesOf(old);
+            }
+            if (jdk.equals(old)) {
+                continue;
+            }
+            catalog.add(jdk);
+            changed = true;
+            System.out.println("  " + (old == null ? "+ " : "~ ") + jdk.id() + ": " + jdk.version()
+                + " (" + jdk.vendor() + ") at " + jdk.path());
+        }
+        for (JdkInfo jdk : previous.values()) {
+            catalog.remove(jdk.id());
+            changed = true;
+            System.out.println("  - " + jdk.id() + ": " + jdk.version() + " (" + jdk.vendor() + ") at " + jdk.path());
+        }
+        
+        if (changed) {
+            catalog.save();
+        }
+    }
+    
+    /**
+     * Whether a JDK lies at or below {@code directory}, at its path or at one of its aliases.
+     */
+    private static boolean isBelow(JdkInfo jdk, Path directory) {
+        if (Paths.get(jdk.path()).startsWith(directory)) {
+            return true;
+        }
+        return jdk.aliases().stream().anyMatch(alias -> Paths.get(alias).startsWith(directory));
     }
 }
@@ -6,6 +6,7 @@ import java.util.concurrent.Callable;
 
 import com.jdx.catalog.JdkCatalogImpl;
 import com.jdx.model.JdkInfo;
+import com.jdx.model.VersionSpec;
 import com.jdx.shell.ShellActivationImpl;
 
 import picocli.CommandLine.Command;
@@ -45,6 +46,11 @@ public class UseCommand implements Callable<Integer> {
             }
         }
 
+        // A version that is not cataloged yet may still be installed
+        if (jdkOpt.isEmpty() && VersionSpec.parse(idOrVersion).isPresent()) {
+            jdkOpt = ScanCommand.discover(catalog, idOrVersion);
+        }
+
         if (jdkOpt.isEmpty()) {
             System.err.println("JDK not found: " + idOrVersion);
             System.err.println("Run 'jdx list' to see available JDKs.");
@@ -52,6 +58,11 @@ public class UseCommand implements Callable<Integer> {
         }
 
         JdkInfo jdk = jdkOpt.get();
+        if (jdk.archive() != null) {
+            System.err.println("Error: JDK " + jdk.id() + " is only available as an archive: " + jdk.archive());
+            System.err.println("Extract it and run 'jdx scan' to use it.");
+            return 1;
+        }
 
         if (dryRun) {
             System.err.println("[DRY RUN] Would activate JDK:");
@@ -0,0 +1,129 @@
+package com.jdx.discovery;
+
+import com.jdx.model.JdkInfo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent index of JDK archives and container images that have already been read, keyed
+ * by path and validated by size and modification time, so repeat scans only open new or
+ * changed archives and images. Those that turned out not to hold a JDK are recorded too,
+ * so they are not read again either.
+ */
+final class ArchiveIndex {
+
+    private static final String JDX_DIR = System.getProperty("user.home") + "/.jdx";
+    private static final String INDEX_FILE = JDX_DIR + "/archive-index.json";
+
+    /** Bumped whenever the indexed JdkInfo shape or ids change, which discards older indexes. */
+    private static final int FORMAT_VERSION = 4;
+
+    /**
+     * @param size     archive size in bytes
+     * @param modified last-modified time of the archive, in millis
+     * @param jdks     the JDKs inside the archive; empty if it holds none
+     */
+    record Entry(long size, long modified, List<JdkInfo> jdks) {
+
+        Entry {
+            jdks = jdks == null ? List.of() : List.copyOf(jdks);
+        }
+
+        boolean matches(BasicFileAttributes attrs) {
+            return size == attrs.size() && modified == attrs.lastModifiedTime().toMillis();
+        }
+    }
+
+    private final JsonStore<Entry> store;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger read = new AtomicInteger();
+
+    ArchiveIndex() {
+        this(Paths.get(INDEX_FILE));
+    }
+
+    ArchiveIndex(Path indexFile) {
+        this.store = new JsonStore<>(indexFile, FORMAT_VERSION, Entry.class);
+    }
+
+    /**
+     * Return the indexed entry for {@code archive} if its size and mtime are unchanged.
+     */
+    Optional<Entry> lookup(Path archive, BasicFileAttributes attrs) {
+        Entry entry = entries.get(archive.toString());
+        if (entry == null || !entry.matches(attrs)) {
+            return Optional.empty();
+        }
+        reused.incrementAndGet();
+        return Optional.of(entry);
+    }
+
+    void put(Path archive, BasicFileAttributes attrs, List<JdkInfo> jdks) {
+        entries.put(archive.toString(), new Entry(attrs.size(), attrs.lastModifiedTime().toMillis(), jdks));
+        read.incrementAndGet();
+        dirty = true;
+    }
+
+    /**
+     * Forget archives below {@code directory} that are no longer there.
+     */
+    void retain(Path directory, Set<Path> present) {
+        boolean removed = entries.keySet().removeIf(archive -> {
+            Path path = Paths.get(archive);
+            return path.startsWith(directory) && !present.contains(path);
+        });
+        if (removed) {
+            dirty = true;
+        }
+    }
+
+    void resetCounters() {
+        reused.set(0);
+        read.set(0);
+    }
+
+    /** Archives whose indexed entry was still valid. */
+    int reused() {
+        return reused.get();
+    }
+
+    /** Archives that were opened and read. */
+    int read() {
+        return read.get();
+    }
+
+    void load() {
+        store.load().ifPresent(loaded -> {
+            entries.clear();
+            entries.putAll(loaded);
+            dirty = false;
+        });
+    }
+
+    /**
+     * Write the index back, unless nothing changed since it was loaded.
+     */
+    void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            store.save(Map.copyOf(entries));
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("Warning: Could not save archive index: " + e.getMessage());
+        }
+    }
+}
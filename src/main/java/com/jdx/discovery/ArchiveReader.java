@@ -0,0 +1,152 @@
+package com.jdx.discovery;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds the JDK home inside a {@code .zip}, {@code .tar.gz}/{@code .tgz} or {@code .tar}
+ * archive and reads its {@code release} file, without extracting anything to disk.
+ *
+ * <p>Zip archives are read through their central directory, so only the {@code release}
+ * entry is inflated. Tarballs have no index and are read in a single streaming pass: each
+ * {@code release} entry's content is read when it is reached, the contents of other
+ * entries are skipped, and only their names are kept. Either way, every entry name is
+ * recorded and the shallowest {@code release} file wins, so a JDK reports the same
+ * capabilities whatever the archive format and entry order.
+ *
+ * <p>A {@code release} file counts as a JDK home marker when it is at most
+ * {@link #MAX_HOME_DEPTH} directories deep, which covers both {@code jdk-21/release} and
+ * the macOS layout {@code jdk-21.jdk/Contents/Home/release}.
+ */
+final class ArchiveReader {
+
+    private static final int MAX_HOME_DEPTH = 3;
+    private static final int MAX_RELEASE_SIZE = 64 * 1024;
+
+    /**
+     * A JDK found inside an archive.
+     *
+     * @param home    home directory inside the archive, without trailing slash; empty
+     *                when the archive root is the home
+     * @param release the parsed {@code release} file
+     * @param entries names of all entries in the archive
+     */
+    record Archived(String home, ReleaseFile release, NavigableSet<String> entries) {
+
+        /**
+         * Whether a file or directory, relative to the home, is present in the archive.
+         */
+        boolean contains(String file) {
+            String name = home.isEmpty() ? file : home + "/" + file;
+            String next = entries.ceiling(name);
+            return next != null && (next.equals(name) || next.startsWith(name + "/"));
+        }
+    }
+
+    private ArchiveReader() {}
+
+    /**
+     * Whether a file name looks like an archive this reader understands.
+     */
+    static boolean isArchive(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".zip") || name.endsWith(".tar.gz") || name.endsWith(".tgz") || name.endsWith(".tar");
+    }
+
+    /**
+     * Read the JDK in an archive.
+     *
+     * @return empty when the archive holds no {@code release} file
+     * @throws IOException if the archive cannot be read or is corrupt
+     */
+    static Optional<Archived> read(Path archive) throws IOException {
+        String name = archive.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".zip")) {
+            return readZip(archive);
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(archive), 64 * 1024)) {
+            return name.endsWith(".tar") ? readTar(in) : readTar(new GZIPInputStream(in, 64 * 1024));
+        }
+    }
+
+    private static Optional<Archived> readZip(Path archive) throws IOException {
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            NavigableSet<String> entries = new TreeSet<>();
+            ZipEntry release = null;
+            for (Enumeration<? extends ZipEntry> it = zip.entries(); it.hasMoreElements(); ) {
+                ZipEntry entry = it.nextElement();
+                String entryName = TarInput.normalize(entry.getName());
+                entries.add(entryName);
+                if (!entry.isDirectory() && isRelease(entryName)
+                        && (release == null || depth(entryName) < depth(TarInput.normalize(release.getName())))) {
+                    release = entry;
+                }
+            }
+            if (release == null || release.getSize() > MAX_RELEASE_SIZE) {
+                return Optional.empty();
+            }
+
+            byte[] content;
+            try (InputStream in = zip.getInputStream(release)) {
+                content = in.readNBytes(MAX_RELEASE_SIZE);
+            }
+            String home = homeOf(TarInput.normalize(release.getName()));
+            return Optional.of(new Archived(home, ReleaseFile.parse(content), entries));
+        }
+    }
+
+    private static Optional<Archived> readTar(InputStream in) throws IOException {
+        NavigableSet<String> entries = new TreeSet<>();
+        String release = null;
+        byte[] content = null;
+        TarInput tar = new TarInput(in);
+        for (TarInput.Entry entry = tar.next(); entry != null; entry = tar.next()) {
+            if (!entry.name().isEmpty()) {
+                entries.add(entry.name());
+            }
+            if (entry.isFile() && isRelease(entry.name())
+                    && (release == null || depth(entry.name()) < depth(release))) {
+                // The stream cannot come back to this entry, so its content is read now
+                release = entry.name();
+                content = entry.size() <= MAX_RELEASE_SIZE ? tar.read(MAX_RELEASE_SIZE) : null;
+            }
+        }
+        if (content == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Archived(homeOf(release), ReleaseFile.parse(content), entries));
+    }
+
+    private static boolean isRelease(String name) {
+        return (name.equals("release") || name.endsWith("/release")) && depth(name) <= MAX_HOME_DEPTH;
+    }
+
+    /**
+     * Number of directories above an entry.
+     */
+    private static int depth(String name) {
+        int depth = 0;
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) == '/') {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    private static String homeOf(String release) {
+        int slash = release.lastIndexOf('/');
+        return slash < 0 ? "" : release.substring(0, slash);
+    }
+}
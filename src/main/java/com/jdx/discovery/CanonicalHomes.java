@@ -0,0 +1,99 @@
+package com.jdx.discovery;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.jdx.model.JdkInfo;
+
+/**
+ * Per-scan registry of JDK homes by physical identity.
+ *
+ * <p>The same JDK is often reachable under several paths: distribution symlinks such as
+ * {@code /usr/lib/jvm/default-java}, {@code java} on PATH, JAVA_HOME, SDKMAN's
+ * {@code current}. Each candidate is resolved to its real path and identified by file key
+ * (or by real path where the platform has no file keys), so only the first path to reach
+ * a JDK gets it parsed; every other path is recorded as an alias of the real one.
+ *
+ * <p>Which path gets there first depends on thread scheduling, so the order of the scan's
+ * results is restored afterwards from every path that reached each JDK (see
+ * {@link #inRootOrder}).
+ */
+final class CanonicalHomes {
+
+    private final Map<Object, Path> canonicalByIdentity = new ConcurrentHashMap<>();
+    /** Every candidate that resolved to each canonical path, the canonical path included if it was one. */
+    private final Map<Path, Set<Path>> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * Claim a candidate home for parsing.
+     *
+     * @return the real path of the home if no other path has reached it yet in this scan,
+     *         or empty if it has (the candidate is then recorded as an alias)
+     * @throws IOException if the candidate cannot be resolved
+     */
+    Optional<Path> claim(Path candidate) throws IOException {
+        Path real = candidate.toRealPath();
+        Object fileKey = Files.readAttributes(real, BasicFileAttributes.class).fileKey();
+        Path first = canonicalByIdentity.putIfAbsent(fileKey != null ? fileKey : real, real);
+        Path canonical = first != null ? first : real;
+        candidates.computeIfAbsent(canonical, path -> ConcurrentHashMap.newKeySet()).add(candidate);
+        return first == null ? Optional.of(real) : Optional.empty();
+    }
+
+    /**
+     * Other paths at which the JDK with this canonical path was reached, sorted.
+     */
+    List<String> aliasesOf(Path canonical) {
+        Set<Path> paths = candidates.getOrDefault(canonical, Set.of());
+        return paths.stream().filter(path -> !path.equals(canonical)).map(Path::toString).sorted().toList();
+    }
+
+    /**
+     * Order JDKs as if each had been claimed through the first of its paths in merge order:
+     * by the first root, in {@code roots} order, below which any of its paths lies, then by
+     * that path. The result is the same whichever path won the race to claim a JDK.
+     * JDKs none of whose paths lie below a root keep their relative order, at the end.
+     */
+    List<JdkInfo> inRootOrder(List<JdkInfo> jdks, List<DiscoveryRoot> roots) {
+        Map<JdkInfo, Position> positions = new HashMap<>();
+        for (JdkInfo jdk : jdks) {
+            Path canonical = Paths.get(jdk.path());
+            Position best = new Position(Integer.MAX_VALUE, "");
+            for (Path path : candidates.getOrDefault(canonical, Set.of(canonical))) {
+                for (int i = 0; i < roots.size() && i <= best.root(); i++) {
+                    if (path.startsWith(roots.get(i).path())) {
+                        Position position = new Position(i, path.toString());
+                        if (position.compareTo(best) < 0) {
+                            best = position;
+                        }
+                        break;
+                    }
+                }
+            }
+            positions.putIfAbsent(jdk, best);
+        }
+        List<JdkInfo> ordered = new ArrayList<>(jdks);
+        ordered.sort(Comparator.comparing(positions::get));
+        return ordered;
+    }
+
+    private record Position(int root, String path) implements Comparable<Position> {
+
+        @Override
+        public int compareTo(Position other) {
+            int byRoot = Integer.compare(root, other.root);
+            return byRoot != 0 ? byRoot : path.compareTo(other.path);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.jdx.discovery;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.jdx.model.Capability;
+
+/**
+ * Works out what a JDK home provides from its module image and a handful of well-known
+ * files, without running anything from it.
+ *
+ * <p>Module-backed capabilities come from {@code lib/modules}; when that cannot be read
+ * (JDK 8, or an unsupported image) the module list from the {@code release} file is used,
+ * and JDK 8 layouts are recognised by their jars. The result is cached per home together
+ * with the rest of the {@link com.jdx.model.JdkInfo} by {@link JdkHomeCache}.
+ */
+final class CapabilityProber {
+
+    /**
+     * @param modules      modules installed in the home, in alphabetical order
+     * @param capabilities what the home provides
+     */
+    record Result(List<String> modules, EnumSet<Capability> capabilities) {}
+
+    private static final List<String> JLINK_FILES = List.of("bin/jlink", "bin/jlink.exe");
+    private static final List<String> JPACKAGE_FILES = List.of("bin/jpackage", "bin/jpackage.exe");
+    private static final List<String> JMODS_FILES = List.of("jmods");
+    // Default CDS archive generated at build time
+    private static final List<String> CDS_FILES =
+        List.of("lib/server/classes.jsa", "bin/server/classes.jsa", "jre/lib/amd64/server/classes.jsa");
+    private static final List<String> DEBUG_SYMBOL_FILES = List.of("lib/server/libjvm.debuginfo",
+        "lib/server/libjvm.diz", "lib/server/libjvm.so.debug", "lib/server/libjvm.dylib.dSYM", "bin/server/jvm.pdb");
+    private static final List<String> JFR_FILES = List.of("lib/jfr.jar", "jre/lib/jfr.jar");
+    private static final List<String> JAVAFX_FILES = List.of("lib/ext/jfxrt.jar", "jre/lib/ext/jfxrt.jar");
+    private static final List<String> PROBED_FILES = Stream.of(JLINK_FILES, JPACKAGE_FILES, JMODS_FILES,
+        CDS_FILES, DEBUG_SYMBOL_FILES, JFR_FILES, JAVAFX_FILES).flatMap(List::stream).toList();
+
+    private CapabilityProber() {}
+
+    /**
+     * Probe a JDK home.
+     *
+     * @param releaseModules modules declared in the {@code release} file, used when the
+     *                       module image cannot be read
+     */
+    static Result probe(Path home, List<String> releaseModules) {
+        List<String> modules;
+        try {
+            modules = JImage.modules(home.resolve("lib/modules"));
+        } catch (IOException e) {
+            modules = releaseModules;
+        }
+        return probe(modules, file -> Files.exists(home.resolve(file)));
+    }
+
+    /**
+     * Work out capabilities from a module list and a view of the home's files.
+     *
+     * @param exists tells whether a file or directory, relative to the home, is present
+     */
+    static Result probe(List<String> modules, Predicate<String> exists) {
+        EnumSet<Capability> capabilities = EnumSet.noneOf(Capability.class);
+        if (modules.contains("jdk.jlink") || anyExists(exists, JLINK_FILES)) {
+            capabilities.add(Capability.JLINK);
+        }
+        if (modules.contains("jdk.jpackage") || anyExists(exists, JPACKAGE_FILES)) {
+            capabilities.add(Capability.JPACKAGE);
+        }
+        if (anyExists(exists, JMODS_FILES)) {
+            capabilities.add(Capability.JMODS);
+        }
+        if (anyExists(exists, CDS_FILES)) {
+            capabilities.add(Capability.CDS);
+        }
+        if (anyExists(exists, DEBUG_SYMBOL_FILES)) {
+            capabilities.add(Capability.DEBUG_SYMBOLS);
+        }
+        if (modules.contains("jdk.jfr") || anyExists(exists, JFR_FILES)) {
+            capabilities.add(Capability.JFR);
+        }
+        if (modules.stream().anyMatch(module -> module.startsWith("javafx.")) || anyExists(exists, JAVAFX_FILES)) {
+            capabilities.add(Capability.JAVAFX);
+        }
+        if (modules.contains("jdk.incubator.vector")) {
+            capabilities.add(Capability.VECTOR);
+        }
+        if (modules.contains("jdk.crac")) {
+            capabilities.add(Capability.CRAC);
+        }
+        return new Result(modules, capabilities);
+    }
+
+    /**
+     * Whether a path, relative to any directory, is or lies below one of the files the
+     * prober looks at. Lets callers that see a file system only once, such as an image
+     * layer stream, keep just the entries that matter.
+     */
+    static boolean isProbed(String path) {
+        for (String file : PROBED_FILES) {
+            if (path.equals(file) || path.endsWith("/" + file)
+                    || path.startsWith(file + "/") || path.contains("/" + file + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyExists(Predicate<String> exists, List<String> files) {
+        for (String file : files) {
+            if (exists.test(file)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,169 @@
+package com.jdx.discovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent index of the directories visited by discovery walks, in the spirit of git's
+ * untracked cache.
+ *
+ * <p>For every directory it remembers the modification time, the names of its
+ * subdirectories and whether it is a JDK home (negative verdicts included). A directory
+ * whose modification time and file key are unchanged does not need to be listed or
+ * probed again: adding, removing or renaming an entry always bumps the mtime of the
+ * directory that contains it. Subdirectories are still stat-ed one by one, so changes
+ * deeper in the tree are picked up by their own entries.
+ */
+final class DirectoryIndex {
+
+    private static final String JDX_DIR = System.getProperty("user.home") + "/.jdx";
+    private static final String INDEX_FILE = JDX_DIR + "/directory-index.json";
+
+    /** Bumped whenever what counts as a JDK home changes, which discards older indexes. */
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Directories modified this recently are not indexed: a change landing within the
+     * same timestamp tick as the listing would otherwise go unnoticed.
+     */
+    private static final long RACY_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    /**
+     * Indexed state of one directory.
+     *
+     * @param fileKey  file key (inode) of the directory, if the platform has one
+     * @param modified last-modified time of the directory, in nanos
+     * @param jdkHome  whether the directory was recognised as a JDK home
+     * @param children sorted names of its subdirectories, or {@code null} if it was
+     *                 never listed (JDK homes and directories at the maximum depth)
+     */
+    record Entry(String fileKey, long modified, boolean jdkHome, List<String> children) {
+
+        boolean matches(BasicFileAttributes attrs) {
+            return modified == attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS)
+                && Objects.equals(fileKey, fileKeyOf(attrs));
+        }
+    }
+
+    private final JsonStore<Entry> store;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger listed = new AtomicInteger();
+
+    DirectoryIndex() {
+        this(Paths.get(INDEX_FILE));
+    }
+
+    DirectoryIndex(Path indexFile) {
+        this.store = new JsonStore<>(indexFile, FORMAT_VERSION, Entry.class);
+    }
+
+    /**
+     * Return the indexed state of {@code dir} if it has not changed since it was recorded.
+     */
+    Optional<Entry> lookup(Path dir, BasicFileAttributes attrs) {
+        Entry entry = entries.get(dir.toString());
+        if (entry == null || !entry.matches(attrs)) {
+            return Optional.empty();
+        }
+        reused.incrementAndGet();
+        return Optional.of(entry);
+    }
+
+    /**
+     * Record the freshly read state of {@code dir}. Subdirectories that disappeared since
+     * the previous listing are forgotten together with everything indexed below them.
+     */
+    void put(Path dir, BasicFileAttributes attrs, boolean jdkHome, List<String> children) {
+        listed.incrementAndGet();
+        String key = dir.toString();
+        Entry previous = entries.get(key);
+        if (previous != null && previous.children() != null && children != null) {
+            for (String name : previous.children()) {
+                if (!children.contains(name)) {
+                    forget(dir.resolve(name).toString());
+                }
+            }
+        }
+
+        long modified = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        long now = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        if (modified > now - RACY_WINDOW_NANOS) {
+            // Too fresh to trust; list it again next time
+            if (entries.remove(key) != null) {
+                dirty = true;
+            }
+            return;
+        }
+        entries.put(key, new Entry(fileKeyOf(attrs), modified, jdkHome, children));
+        dirty = true;
+    }
+
+    private void forget(String dir) {
+        String prefix = dir + File.separator;
+        Collection<String> keys = entries.keySet();
+        if (keys.removeIf(key -> key.equals(dir) || key.startsWith(prefix))) {
+            dirty = true;
+        }
+    }
+
+    void resetCounters() {
+        reused.set(0);
+        listed.set(0);
+    }
+
+    /**
+     * Number of directories whose indexed state was reused since the last reset.
+     */
+    int reused() {
+        return reused.get();
+    }
+
+    /**
+     * Number of directories that had to be read from disk since the last reset.
+     */
+    int listed() {
+        return listed.get();
+    }
+
+    void load() {
+        store.load().ifPresent(loaded -> {
+            entries.clear();
+            entries.putAll(loaded);
+            dirty = false;
+        });
+    }
+
+    /**
+     * Write the index back, unless nothing changed since it was loaded.
+     */
+    void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            store.save(Map.copyOf(entries));
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("Warning: Could not save directory index: " + e.getMessage());
+        }
+    }
+
+    private static String fileKeyOf(BasicFileAttributes attrs) {
+        Object fileKey = attrs.fileKey();
+        return fileKey != null ? fileKey.toString() : null;
+    }
+}
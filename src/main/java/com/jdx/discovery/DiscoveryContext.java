@@ -0,0 +1,35 @@
+package com.jdx.discovery;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * What a {@link DiscoverySource} needs to know about the scan it takes part in.
+ *
+ * @param deep     whether this is a deep scan
+ * @param osName   lower-case operating system name
+ * @param userHome home directory of the current user
+ */
+public record DiscoveryContext(boolean deep, String osName, Path userHome) {
+
+    /**
+     * Context for a scan on the current machine.
+     */
+    public static DiscoveryContext current(boolean deep) {
+        return new DiscoveryContext(deep, System.getProperty("os.name").toLowerCase(Locale.ROOT),
+            Paths.get(System.getProperty("user.home")));
+    }
+
+    public boolean isWindows() {
+        return osName.contains("win");
+    }
+
+    public boolean isMac() {
+        return osName.contains("mac");
+    }
+
+    public boolean isLinux() {
+        return osName.contains("nux");
+    }
+}
@@ -0,0 +1,77 @@
+package com.jdx.discovery;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+
+/**
+ * Include and exclude globs for deep scans, compiled once into {@link PathMatcher}s.
+ * 
+ * <p>Exclude globs prune whole subtrees. Include globs, when present, restrict which
+ * JDK homes are recorded; the traversal still descends into non-matching parents, and
+ * a directory matching an include glob is never pruned, even if an exclude glob matches
+ * it too. Globs are matched against absolute paths, e.g. {@code /opt/}{@code *}{@code /.git};
+ * a glob not anchored at the root ({@code /}, {@code **} or a drive) matches at any depth,
+ * so {@code node_modules} means {@code **}{@code /node_modules}.
+ */
+final class DiscoveryFilter {
+
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+
+    private DiscoveryFilter(List<PathMatcher> includes, List<PathMatcher> excludes) {
+        this.includes = includes;
+        this.excludes = excludes;
+    }
+
+    static DiscoveryFilter of(List<String> includeGlobs, List<String> excludeGlobs) {
+        FileSystem fs = FileSystems.getDefault();
+        return new DiscoveryFilter(compile(fs, includeGlobs), compile(fs, excludeGlobs));
+    }
+
+    private static List<PathMatcher> compile(FileSystem fs, List<String> globs) {
+        if (globs == null) {
+            return List.of();
+        }
+        return globs.stream()
+            .filter(glob -> glob != null && !glob.isBlank())
+            .map(String::trim)
+            .map(glob -> fs.getPathMatcher("glob:" + (isAnchored(glob) ? glob : "**/" + glob)))
+            .toList();
+    }
+
+    private static boolean isAnchored(String glob) {
+        return glob.startsWith("/") || glob.startsWith("\\\\") || glob.startsWith("**")
+            || (glob.length() >= 2 && Character.isLetter(glob.charAt(0)) && glob.charAt(1) == ':');
+    }
+
+    /**
+     * Whether the traversal should skip this directory and everything below it.
+     */
+    boolean excludes(Path directory) {
+        for (PathMatcher matcher : excludes) {
+            if (matcher.matches(directory)) {
+                return !matchesInclude(directory);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a recognised JDK home should be recorded.
+     */
+    boolean includes(Path home) {
+        return includes.isEmpty() || matchesInclude(home);
+    }
+
+    private boolean matchesInclude(Path path) {
+        for (PathMatcher matcher : includes) {
+            if (matcher.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
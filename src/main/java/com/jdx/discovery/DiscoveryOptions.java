@@ -0,0 +1,83 @@
+package com.jdx.discovery;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import com.jdx.model.JdxConfig;
+
+/**
+ * Tuning options for {@link JdkDiscoveryImpl}.
+ *
+ * @param fileDescriptorBudget maximum number of directories and release files open at the
+ *                             same time during a scan; 1 makes the scan effectively serial
+ * @param useCache             reuse previously parsed JDK homes whose fingerprint is unchanged
+ * @param includeGlobs         only record JDK homes matching one of these globs (all if empty)
+ * @param excludeGlobs         never descend into directories matching one of these globs
+ * @param deadline             time budget for the whole scan, or {@code null} for none
+ * @param rootTimeout          time budget for each discovery root, or {@code null} for none
+ * @param slowRoots            roots that timed out in earlier scans; they are deprioritised
+ * @param disabledSources      names of {@link DiscoverySource}s to skip
+ * @param crossMounts          let a full scan enter file systems mounted below the one it starts on
+ * @param includeRemote        let a full scan that crosses mounts enter network file systems
+ */
+public record DiscoveryOptions(
+    int fileDescriptorBudget,
+    boolean useCache,
+    List<String> includeGlobs,
+    List<String> excludeGlobs,
+    Duration deadline,
+    Duration rootTimeout,
+    Set<Path> slowRoots,
+    Set<String> disabledSources,
+    boolean crossMounts,
+    boolean includeRemote
+) {
+
+    public DiscoveryOptions {
+        slowRoots = slowRoots == null ? Set.of() : Set.copyOf(slowRoots);
+        disabledSources = disabledSources == null ? Set.of() : Set.copyOf(disabledSources);
+    }
+
+    public static DiscoveryOptions defaults() {
+        JdxConfig.DiscoveryConfig discovery = JdxConfig.DiscoveryConfig.defaults();
+        return new DiscoveryOptions(ParallelScanner.DEFAULT_FILE_DESCRIPTOR_BUDGET, true,
+            discovery.include(), discovery.exclude(), null, null, Set.of(), Set.copyOf(discovery.disabled_sources()),
+            false, false);
+    }
+
+    public DiscoveryOptions withCache(boolean useCache) {
+        return new DiscoveryOptions(fileDescriptorBudget, useCache, includeGlobs, excludeGlobs,
+            deadline, rootTimeout, slowRoots, disabledSources, crossMounts, includeRemote);
+    }
+
+    /**
+     * Apply the traversal rules and disabled sources from the {@code discovery} section of config.yaml.
+     */
+    public DiscoveryOptions withConfig(JdxConfig.DiscoveryConfig discovery) {
+        return new DiscoveryOptions(fileDescriptorBudget, useCache, discovery.include(), discovery.exclude(),
+            deadline, rootTimeout, slowRoots, Set.copyOf(discovery.disabled_sources()), crossMounts, includeRemote);
+    }
+
+    /**
+     * Limit the scan as a whole and each of its roots; {@code null} means no limit.
+     */
+    public DiscoveryOptions withTimeouts(Duration deadline, Duration rootTimeout) {
+        return new DiscoveryOptions(fileDescriptorBudget, useCache, includeGlobs, excludeGlobs,
+            deadline, rootTimeout, slowRoots, disabledSources, crossMounts, includeRemote);
+    }
+
+    public DiscoveryOptions withSlowRoots(Set<Path> slowRoots) {
+        return new DiscoveryOptions(fileDescriptorBudget, useCache, includeGlobs, excludeGlobs,
+            deadline, rootTimeout, slowRoots, disabledSources, crossMounts, includeRemote);
+    }
+
+    /**
+     * Which mount points a full scan may enter besides the file system it starts on.
+     */
+    public DiscoveryOptions withMounts(boolean crossMounts, boolean includeRemote) {
+        return new DiscoveryOptions(fileDescriptorBudget, useCache, includeGlobs, excludeGlobs,
+            deadline, rootTimeout, slowRoots, disabledSources, crossMounts, includeRemote);
+    }
+}
@@ -0,0 +1,37 @@
+package com.jdx.discovery;
+
+import java.nio.file.Path;
+
+/**
+ * A location searched during discovery.
+ *
+ * @param path  directory to search
+ * @param depth how many directory levels below {@code path} may hold a JDK home;
+ *              0 means {@code path} itself is the candidate home
+ */
+public record DiscoveryRoot(Path path, int depth) {
+
+    /** Default recursion depth for deep scan locations. */
+    public static final int DEEP_SCAN_DEPTH = 3;
+
+    /**
+     * A directory that is itself a candidate JDK home (JAVA_HOME, PATH hits).
+     */
+    public static DiscoveryRoot home(Path path) {
+        return new DiscoveryRoot(path, 0);
+    }
+
+    /**
+     * A directory whose immediate subdirectories are candidate JDK homes (e.g. /usr/lib/jvm).
+     */
+    public static DiscoveryRoot children(Path path) {
+        return new DiscoveryRoot(path, 1);
+    }
+
+    /**
+     * A directory searched recursively, up to {@link #DEEP_SCAN_DEPTH} levels.
+     */
+    public static DiscoveryRoot deep(Path path) {
+        return new DiscoveryRoot(path, DEEP_SCAN_DEPTH);
+    }
+}
@@ -0,0 +1,46 @@
+package com.jdx.discovery;
+
+import java.util.List;
+
+/**
+ * A place where JDKs may be installed, such as a package manager's JVM directory or a
+ * version manager's candidates folder.
+ *
+ * <p>Sources are loaded with {@link java.util.ServiceLoader}: built-in sources live in
+ * {@code com.jdx.discovery.sources}, and additional ones (for example a corporate
+ * {@code /tools/java} tree) can be added by listing an implementation in
+ * {@code META-INF/services/com.jdx.discovery.DiscoverySource} on the class path.
+ * Implementations need a public no-argument constructor.
+ *
+ * <p>All sources of a scan run concurrently. Higher-priority sources are started first,
+ * get file-descriptor permits first, and their results come first in the scan output.
+ */
+public interface DiscoverySource {
+
+    /**
+     * Stable name, used in {@code jdx scan --timings} and by the
+     * {@code discovery.disabled_sources} configuration key.
+     */
+    String name();
+
+    /**
+     * Scheduling priority; higher runs first. Cheap, high-yield locations should rank
+     * above expensive recursive ones.
+     */
+    default int priority() {
+        return 0;
+    }
+
+    /**
+     * Whether this source applies to the given scan, e.g. on this platform or in a deep scan.
+     */
+    default boolean supports(DiscoveryContext context) {
+        return true;
+    }
+
+    /**
+     * Produce the roots to search. Runs on its own virtual thread, so it may block (for
+     * example on a helper process); a thrown exception means the source yields nothing.
+     */
+    List<DiscoveryRoot> roots(DiscoveryContext context) throws Exception;
+}
@@ -0,0 +1,214 @@
+package com.jdx.discovery;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+import com.jdx.model.JdkInfo;
+
+/**
+ * Foreground watcher that keeps discovery results current while it runs.
+ *
+ * <p>Every directory that may contain a JDK home (a root and its subdirectories above
+ * the root's depth) is registered with a {@link WatchService}, and so is every JDK home
+ * so that a rewritten {@code release} file is noticed. Directories created while
+ * watching are registered even at the root's depth, since they may still become a home
+ * once unpacking finishes.
+ *
+ * <p>Events are not acted upon one by one: they are collected per candidate directory
+ * until no event has arrived for the debounce period, so unpacking a JDK, which emits
+ * thousands of events, ends in a single rescan of the directory it was unpacked into.
+ * New directories are registered as soon as they appear, which lets the burst inside
+ * them keep extending the quiet period.
+ *
+ * <p>Roots that do not exist when watching starts are not watched.
+ */
+final class DiscoveryWatcher {
+
+    /** Quiet period after the last event before pending changes are rescanned. */
+    static final Duration DEFAULT_DEBOUNCE = Duration.ofSeconds(2);
+
+    /**
+     * A watched directory.
+     *
+     * @param dir   the directory
+     * @param level how many levels below its discovery root it lies
+     * @param depth depth of its discovery root
+     * @param leaf  whether any event inside it means re-examining the directory itself,
+     *              as for JDK homes and new directories that may become one
+     */
+    private record Watched(Path dir, int level, int depth, boolean leaf) {
+
+        int remainingDepth() {
+            return depth - level;
+        }
+    }
+
+    private final DiscoveryFilter filter;
+    private final Predicate<Path> isJdkHome;
+    private final BiFunction<Path, Integer, List<JdkInfo>> rescan;
+    private final Duration debounce;
+    private final Map<WatchKey, Watched> keys = new HashMap<>();
+
+    /**
+     * @param filter    include/exclude globs; excluded directories are not watched
+     * @param isJdkHome cheap check deciding whether a directory is a JDK home
+     * @param rescan    finds the JDKs at or below a directory, down to the given depth
+     * @param debounce  quiet period before pending changes are rescanned
+     */
+    DiscoveryWatcher(DiscoveryFilter filter, Predicate<Path> isJdkHome,
+                     BiFunction<Path, Integer, List<JdkInfo>> rescan, Duration debounce) {
+        this.filter = filter;
+        this.isJdkHome = isJdkHome;
+        this.rescan = rescan;
+        this.debounce = debounce;
+    }
+
+    /**
+     * Watch the given roots until the calling thread is interrupted.
+     *
+     * @param roots    discovery roots to watch; single-home roots are ignored
+     * @param onChange called with a changed directory and every JDK now found at or
+     *                 below it, which is empty when the directory was removed
+     * @throws InterruptedException when the watch is stopped
+     */
+    void watch(List<DiscoveryRoot> roots, BiConsumer<Path, List<JdkInfo>> onChange)
+            throws IOException, InterruptedException {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            for (DiscoveryRoot root : roots) {
+                if (root.depth() > 0) {
+                    registerTree(watchService, root.path(), 0, root.depth(), false);
+                }
+            }
+
+            Map<Path, Watched> pending = new HashMap<>();
+            while (true) {
+                WatchKey key = pending.isEmpty()
+                    ? watchService.take()
+                    : watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    // Quiet for a whole debounce period
+                    flush(watchService, pending, onChange);
+                    pending.clear();
+                    continue;
+                }
+
+                Watched watched = keys.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (watched == null) {
+                        continue;
+                    }
+                    if (watched.leaf() || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Re-examine the whole directory
+                        pending.merge(watched.dir(), watched, DiscoveryWatcher::shallower);
+                    } else {
+                        queue(watchService, watched, watched.dir().resolve((Path) event.context()), pending);
+                    }
+                }
+                if (!key.reset()) {
+                    // The directory is gone
+                    keys.remove(key);
+                }
+            }
+        } finally {
+            keys.clear();
+        }
+    }
+
+    private void queue(WatchService watchService, Watched parent, Path child, Map<Path, Watched> pending) {
+        if (filter.excludes(child)) {
+            return;
+        }
+        Watched candidate = new Watched(child, parent.level() + 1, parent.depth(), false);
+        if (Files.isDirectory(child)) {
+            // Watch a new directory right away so the burst inside it extends the debounce
+            registerTree(watchService, child, candidate.level(), candidate.depth(), true);
+            pending.merge(child, candidate, DiscoveryWatcher::shallower);
+        } else if (!Files.exists(child)) {
+            pending.merge(child, candidate, DiscoveryWatcher::shallower);
+        } else if (parent.level() > 0) {
+            // A file appeared next to other files; the parent may have just become a home
+            pending.merge(parent.dir(), parent, DiscoveryWatcher::shallower);
+        }
+    }
+
+    private void flush(WatchService watchService, Map<Path, Watched> pending,
+                       BiConsumer<Path, List<JdkInfo>> onChange) {
+        // Sorted so that a directory comes before everything below it
+        Map<Path, Watched> candidates = new TreeMap<>(pending);
+        List<Path> rescanned = new ArrayList<>();
+        for (Watched candidate : candidates.values()) {
+            Path dir = candidate.dir();
+            if (rescanned.stream().anyMatch(dir::startsWith)) {
+                // Already rescanned together with an ancestor
+                continue;
+            }
+            rescanned.add(dir);
+            if (Files.isDirectory(dir)) {
+                registerTree(watchService, dir, candidate.level(), candidate.depth(), true);
+                onChange.accept(dir, rescan.apply(dir, candidate.remainingDepth()));
+            } else {
+                onChange.accept(dir, List.of());
+            }
+        }
+    }
+
+    /**
+     * Register {@code dir} and the directories below it that may hold a JDK home.
+     *
+     * @param fresh whether {@code dir} appeared or changed while watching
+     */
+    private void registerTree(WatchService watchService, Path dir, int level, int depth, boolean fresh) {
+        if (level > 0 && (isJdkHome.test(dir) || (fresh && level >= depth))) {
+            register(watchService, new Watched(dir, level, depth, true));
+            return;
+        }
+        if (level >= depth) {
+            return;
+        }
+        register(watchService, new Watched(dir, level, depth, false));
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(dir, Files::isDirectory)) {
+            for (Path child : children) {
+                if (!filter.excludes(child)) {
+                    registerTree(watchService, child, level + 1, depth, fresh);
+                }
+            }
+        } catch (IOException e) {
+            // Unreadable directories are not watched below this point
+        }
+    }
+
+    private void register(WatchService watchService, Watched watched) {
+        try {
+            WatchKey key = watched.leaf()
+                ? watched.dir().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY)
+                : watched.dir().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            // Registering the same directory again returns the same key
+            keys.put(key, watched);
+        } catch (IOException e) {
+            // Missing or unreadable directories, or the platform's watch limit was reached
+        }
+    }
+
+    private static Watched shallower(Watched a, Watched b) {
+        return a.level() <= b.level() ? a : b;
+    }
+}
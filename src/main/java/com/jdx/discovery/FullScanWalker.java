@@ -0,0 +1,221 @@
+package com.jdx.discovery;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Walks a whole file system tree, such as {@code /}, on a work-stealing
+ * {@link ForkJoinPool}, for {@code jdx scan --deep=full}.
+ *
+ * <p>Every directory is a task that lists its subdirectories and forks one task per
+ * subdirectory, so idle workers steal whole subtrees from busy ones. A task holds its
+ * directory open only while listing it, which bounds open directories, and with them
+ * outstanding disk reads, by the pool's parallelism.
+ *
+ * <p>Symbolic links are not followed, nothing below a JDK home is visited, and subtrees
+ * matched by an exclude glob are skipped. Pseudo file systems ({@code proc},
+ * {@code sysfs}, {@code cgroup}, ...) are never entered. Other mount points are only
+ * entered when crossing mounts is allowed, and network file systems only when remote
+ * file systems are included too; a file system bind-mounted in several places is walked
+ * once.
+ *
+ * <p>Waiting for the pool cannot be interrupted, so a walk is stopped by its tasks: each
+ * checks the deadline and the caller's cancellation flag before listing its directory,
+ * and returns without forking once either is reached.
+ */
+final class FullScanWalker {
+
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * What a walk covered.
+     *
+     * @param directories directories read
+     * @param homes       JDK homes found
+     * @param elapsed     duration of the walk
+     * @param timedOut    whether the deadline cut the walk short
+     */
+    record Result(long directories, long homes, Duration elapsed, boolean timedOut) {}
+
+    private final MountTable mounts;
+    private final DiscoveryFilter filter;
+    private final Predicate<Path> isJdkHome;
+    private final boolean crossMounts;
+    private final boolean includeRemote;
+    private final int parallelism;
+
+    FullScanWalker(MountTable mounts, DiscoveryFilter filter, Predicate<Path> isJdkHome,
+                   boolean crossMounts, boolean includeRemote, int parallelism) {
+        this.mounts = mounts;
+        this.filter = filter;
+        this.isJdkHome = isJdkHome;
+        this.crossMounts = crossMounts;
+        this.includeRemote = includeRemote;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Walk everything below {@code root}, reporting each JDK home to {@code onHome} from
+     * the worker that found it.
+     *
+     * @param deadline   stop after this long, or {@code null} for no limit
+     * @param cancelled  stop as soon as this returns {@code true}
+     * @param onProgress receives the counters about once a second, and once at the end
+     */
+    Result walk(Path root, Duration deadline, BooleanSupplier cancelled, Consumer<Path> onHome,
+                Consumer<WalkProgress> onProgress) {
+        long start = System.nanoTime();
+        long stopAt = deadline == null ? Long.MAX_VALUE : start + deadline.toNanos();
+        Walk walk = new Walk(stopAt, cancelled, onHome);
+        MountTable.Mount rootMount = mounts.mountAt(root);
+        if (rootMount != null) {
+            walk.walkedFileSystems.add(rootMount.device() + ":" + rootMount.root());
+        }
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable ->
+            Thread.ofPlatform().daemon().name("jdx-walk-progress").unstarted(runnable));
+        reporter.scheduleAtFixedRate(() -> onProgress.accept(walk.progress(start)),
+            PROGRESS_INTERVAL.toMillis(), PROGRESS_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new DirectoryTask(walk, root));
+        } finally {
+            pool.shutdownNow();
+            reporter.shutdownNow();
+        }
+
+        WalkProgress last = walk.progress(start);
+        onProgress.accept(last);
+        return new Result(last.directories(), last.homes(), last.elapsed(), walk.timedOut());
+    }
+
+    /**
+     * State shared by the tasks of one walk.
+     */
+    private final class Walk {
+        private final long stopAt;
+        private final BooleanSupplier cancelled;
+        private final Consumer<Path> onHome;
+        private final AtomicLong directories = new AtomicLong();
+        private final AtomicLong homes = new AtomicLong();
+        private final Set<String> walkedFileSystems = ConcurrentHashMap.newKeySet();
+        private volatile boolean timedOut;
+
+        Walk(long stopAt, BooleanSupplier cancelled, Consumer<Path> onHome) {
+            this.stopAt = stopAt;
+            this.cancelled = cancelled;
+            this.onHome = onHome;
+        }
+
+        boolean expired() {
+            if (cancelled.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+                return true;
+            }
+            if (!timedOut && System.nanoTime() - stopAt > 0) {
+                timedOut = true;
+            }
+            return timedOut;
+        }
+
+        boolean timedOut() {
+            return timedOut;
+        }
+
+        WalkProgress progress(long start) {
+            return new WalkProgress(directories.get(), homes.get(), Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        /**
+         * Whether the walk may enter {@code directory}, judged by what is mounted there.
+         */
+        boolean mayEnter(Path directory) {
+            MountTable.Mount mount = mounts.mountAt(directory);
+            if (mount == null) {
+                return true;
+            }
+            if (mount.isPseudo() || !crossMounts || (mount.isRemote() && !includeRemote)) {
+                return false;
+            }
+            // Bind mounts expose the same files again
+            return walkedFileSystems.add(mount.device() + ":" + mount.root());
+        }
+    }
+
+    // Never serialized: tasks only live for one walk
+    @SuppressWarnings("serial")
+    private final class DirectoryTask extends RecursiveAction {
+        private final Walk walk;
+        private final Path directory;
+
+        DirectoryTask(Walk walk, Path directory) {
+            this.walk = walk;
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute() {
+            if (walk.expired()) {
+                return;
+            }
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            for (Path child : listDirectories(directory)) {
+                if (filter.excludes(child) || !walk.mayEnter(child)) {
+                    continue;
+                }
+                if (isJdkHome.test(child)) {
+                    // Nothing below a JDK home is another JDK worth reporting
+                    if (filter.includes(child)) {
+                        walk.homes.incrementAndGet();
+                        walk.onHome.accept(child);
+                    }
+                } else {
+                    subtasks.add(new DirectoryTask(walk, child));
+                }
+            }
+            invokeAll(subtasks);
+        }
+
+        /**
+         * Subdirectories of a directory, not following links; empty if it cannot be read.
+         */
+        private List<Path> listDirectories(Path dir) {
+            List<Path> children = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                walk.directories.incrementAndGet();
+                for (Path child : stream) {
+                    try {
+                        BasicFileAttributes attrs = Files.readAttributes(child, BasicFileAttributes.class,
+                            LinkOption.NOFOLLOW_LINKS);
+                        if (attrs.isDirectory()) {
+                            children.add(child);
+                        }
+                    } catch (IOException e) {
+                        // Vanished or unreadable entries are skipped
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Unreadable directories are skipped
+            }
+            return children;
+        }
+    }
+}
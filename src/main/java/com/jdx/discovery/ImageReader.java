@@ -0,0 +1,441 @@
+package com.jdx.discovery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Finds the JDKs inside local container images, without unpacking them, from either an
+ * OCI image layout (a directory, or a tarball of one) or the tarball written by
+ * {@code docker save}.
+ *
+ * <p>The layers of each image are streamed once, bottom to top, in manifest order. Only
+ * entry headers are decoded, except for {@code release} files, which are read in place.
+ * Whiteouts ({@code .wh.<name>}) and opaque directories ({@code .wh..wh..opq}) in a layer
+ * remove files of the layers below it, so a JDK deleted by a later layer is not reported.
+ * Besides release files, only the entries {@link CapabilityProber} looks at are kept, so
+ * memory stays bounded by the number of JDKs rather than the size of the image.
+ *
+ * <p>A {@code release} file counts as a JDK home marker when it is between one and
+ * {@link #MAX_HOME_DEPTH} directories deep, which covers {@code /opt/java/openjdk},
+ * {@code /usr/lib/jvm/*} and {@code /usr/local/openjdk-*}, and declares
+ * {@code JAVA_VERSION}.
+ */
+final class ImageReader {
+
+    private static final int MAX_HOME_DEPTH = 5;
+    private static final int MAX_RELEASE_SIZE = 64 * 1024;
+
+    /** Upper bound for manifests and indexes, which are read into memory. */
+    private static final int MAX_MANIFEST_SIZE = 4 * 1024 * 1024;
+
+    private static final String WHITEOUT = ".wh.";
+    private static final String OPAQUE = ".wh..wh..opq";
+
+    private static final Pattern DIGEST = Pattern.compile("([a-z0-9]+(?:[+._-][a-z0-9]+)*):([a-zA-Z0-9=_-]+)");
+
+    private static final Set<String> INDEX_TYPES = Set.of(
+        "application/vnd.oci.image.index.v1+json",
+        "application/vnd.docker.distribution.manifest.list.v2+json");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * An image and the JDKs found in its final file system.
+     *
+     * @param ref  image reference, such as {@code eclipse-temurin:21-jdk}, or the short
+     *             manifest digest when the image is untagged
+     * @param jdks the JDKs, in home path order; their {@code entries} are the probed files
+     */
+    record Image(String ref, List<ArchiveReader.Archived> jdks) {}
+
+    private ImageReader() {}
+
+    /**
+     * Whether a path looks like an image this reader understands: an OCI layout
+     * directory, or a {@code .tar} file, as written by {@code docker save}.
+     */
+    static boolean isImage(Path path) {
+        if (Files.isDirectory(path)) {
+            return Files.exists(path.resolve("index.json")) || Files.exists(path.resolve("manifest.json"));
+        }
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".tar");
+    }
+
+    /**
+     * The file whose size and modification time change whenever the image does.
+     */
+    static Path stamp(Path image) {
+        if (Files.isDirectory(image)) {
+            Path index = image.resolve("index.json");
+            return Files.exists(index) ? index : image.resolve("manifest.json");
+        }
+        return image;
+    }
+
+    /**
+     * Read the images stored at {@code path}.
+     *
+     * @throws IOException if the images cannot be read, are corrupt, or use a layer
+     *                     compression other than gzip
+     */
+    static List<Image> read(Path path) throws IOException {
+        try (Blobs blobs = Files.isDirectory(path) ? new DirectoryBlobs(path) : TarBlobs.index(path)) {
+            List<Image> images = new ArrayList<>();
+            if (blobs.exists("manifest.json")) {
+                // docker save: an array of images, each listing its layer files bottom to top
+                for (JsonNode manifest : json(blobs, "manifest.json")) {
+                    JsonNode tags = manifest.path("RepoTags");
+                    String ref = tags.isArray() && !tags.isEmpty()
+                        ? tags.get(0).asText() : shortDigest(manifest.path("Config").asText());
+                    List<String> layers = new ArrayList<>();
+                    manifest.path("Layers").forEach(layer -> layers.add(layer.asText()));
+                    images.add(new Image(ref, readLayers(blobs, layers)));
+                }
+            } else if (blobs.exists("index.json")) {
+                for (JsonNode descriptor : json(blobs, "index.json").path("manifests")) {
+                    String ref = refOf(descriptor);
+                    JsonNode manifest = manifestFor(blobs, descriptor);
+                    List<String> layers = new ArrayList<>();
+                    for (JsonNode layer : manifest.path("layers")) {
+                        layers.add(blobPath(layer.path("digest").asText()));
+                    }
+                    images.add(new Image(ref, readLayers(blobs, layers)));
+                }
+            } else {
+                throw new IOException("Not an OCI image layout or docker save archive");
+            }
+            return images;
+        }
+    }
+
+    /**
+     * Resolve an index descriptor to an image manifest, choosing the host platform from
+     * multi-platform indexes, or their first manifest when the host is not listed.
+     */
+    private static JsonNode manifestFor(Blobs blobs, JsonNode descriptor) throws IOException {
+        JsonNode node = json(blobs, blobPath(descriptor.path("digest").asText()));
+        for (int depth = 0; isIndex(descriptor, node); depth++) {
+            JsonNode manifests = node.path("manifests");
+            if (manifests.isEmpty() || depth > 4) {
+                throw new IOException("Image index has no usable manifest");
+            }
+            descriptor = manifests.get(0);
+            for (JsonNode candidate : manifests) {
+                JsonNode platform = candidate.path("platform");
+                if ("linux".equals(platform.path("os").asText()) && hostArch().equals(platform.path("architecture").asText())) {
+                    descriptor = candidate;
+                    break;
+                }
+            }
+            node = json(blobs, blobPath(descriptor.path("digest").asText()));
+        }
+        return node;
+    }
+
+    private static boolean isIndex(JsonNode descriptor, JsonNode node) {
+        return INDEX_TYPES.contains(descriptor.path("mediaType").asText())
+            || INDEX_TYPES.contains(node.path("mediaType").asText())
+            || (node.has("manifests") && !node.has("layers"));
+    }
+
+    private static String refOf(JsonNode descriptor) {
+        JsonNode annotations = descriptor.path("annotations");
+        String name = annotations.path("io.containerd.image.name").asText("");
+        if (name.isEmpty()) {
+            name = annotations.path("org.opencontainers.image.ref.name").asText("");
+        }
+        return name.isEmpty() ? shortDigest(descriptor.path("digest").asText()) : name;
+    }
+
+    private static String shortDigest(String digest) {
+        String hex = digest.substring(Math.max(digest.lastIndexOf(':'), digest.lastIndexOf('/')) + 1)
+            .replace(".json", "");
+        return hex.substring(0, Math.min(12, hex.length()));
+    }
+
+    private static String hostArch() {
+        return switch (System.getProperty("os.arch")) {
+            case "x86_64", "amd64" -> "amd64";
+            case "aarch64", "arm64" -> "arm64";
+            default -> System.getProperty("os.arch");
+        };
+    }
+
+    private static String blobPath(String digest) throws IOException {
+        var matcher = DIGEST.matcher(digest);
+        if (!matcher.matches()) {
+            throw new IOException("Invalid digest: " + digest);
+        }
+        return "blobs/" + matcher.group(1) + "/" + matcher.group(2);
+    }
+
+    private static JsonNode json(Blobs blobs, String name) throws IOException {
+        try (InputStream in = blobs.open(name)) {
+            byte[] content = in.readNBytes(MAX_MANIFEST_SIZE + 1);
+            if (content.length > MAX_MANIFEST_SIZE) {
+                throw new IOException("Oversized image manifest: " + name);
+            }
+            return MAPPER.readTree(content);
+        }
+    }
+
+    /**
+     * Stream the layers bottom to top and return the JDKs left in the final file system.
+     */
+    private static List<ArchiveReader.Archived> readLayers(Blobs blobs, List<String> layers) throws IOException {
+        NavigableMap<String, ReleaseFile> releases = new TreeMap<>();
+        NavigableSet<String> probed = new TreeSet<>();
+
+        for (String layer : layers) {
+            Map<String, ReleaseFile> addedReleases = new HashMap<>();
+            Set<String> addedProbed = new HashSet<>();
+            Set<String> removed = new HashSet<>();
+            Set<String> opaque = new HashSet<>();
+
+            try (InputStream in = decompress(blobs.open(layer))) {
+                TarInput tar = new TarInput(in);
+                for (TarInput.Entry entry = tar.next(); entry != null; entry = tar.next()) {
+                    String name = entry.name();
+                    int slash = name.lastIndexOf('/');
+                    String dir = slash < 0 ? "" : name.substring(0, slash);
+                    String base = name.substring(slash + 1);
+
+                    if (base.equals(OPAQUE)) {
+                        opaque.add(dir);
+                    } else if (base.startsWith(WHITEOUT)) {
+                        removed.add(dir.isEmpty() ? base.substring(WHITEOUT.length()) : dir + "/" + base.substring(WHITEOUT.length()));
+                    } else if (isRelease(name)) {
+                        // Whatever it is, it replaces a release file of a lower layer
+                        removed.add(name);
+                        if (entry.isFile() && entry.size() <= MAX_RELEASE_SIZE) {
+                            addedReleases.put(name, ReleaseFile.parse(tar.read(MAX_RELEASE_SIZE)));
+                        }
+                    } else if (CapabilityProber.isProbed(name)) {
+                        addedProbed.add(name);
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                throw new IOException("Missing image layer: " + layer);
+            }
+
+            // Whiteouts only hide files of lower layers, so they apply before this layer's additions
+            for (String path : removed) {
+                removeTree(releases.navigableKeySet(), path, true);
+                removeTree(probed, path, true);
+            }
+            for (String dir : opaque) {
+                removeTree(releases.navigableKeySet(), dir, false);
+                removeTree(probed, dir, false);
+            }
+            releases.putAll(addedReleases);
+            probed.addAll(addedProbed);
+        }
+
+        List<ArchiveReader.Archived> jdks = new ArrayList<>();
+        for (Map.Entry<String, ReleaseFile> release : releases.entrySet()) {
+            if (release.getValue().javaVersion() != null) {
+                String home = release.getKey().substring(0, release.getKey().lastIndexOf('/'));
+                NavigableSet<String> entries = new TreeSet<>(probed.subSet(home + "/", home + "/\uffff"));
+                jdks.add(new ArchiveReader.Archived(home, release.getValue(), entries));
+            }
+        }
+        return jdks;
+    }
+
+    /**
+     * Remove everything below {@code path}, and {@code path} itself unless only its
+     * contents go; the empty path is the root.
+     */
+    private static void removeTree(NavigableSet<String> names, String path, boolean inclusive) {
+        if (path.isEmpty()) {
+            names.clear();
+            return;
+        }
+        if (inclusive) {
+            names.remove(path);
+        }
+        names.subSet(path + "/", path + "/\uffff").clear();
+    }
+
+    private static boolean isRelease(String name) {
+        if (!name.endsWith("/release")) {
+            return false;
+        }
+        int depth = 0;
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) == '/') {
+                depth++;
+            }
+        }
+        return depth <= MAX_HOME_DEPTH;
+    }
+
+    /**
+     * Layers are plain or gzip-compressed tarballs; the format is told by magic bytes
+     * rather than trusted from the manifest.
+     */
+    private static InputStream decompress(InputStream raw) throws IOException {
+        InputStream in = new BufferedInputStream(raw, 64 * 1024);
+        in.mark(4);
+        byte[] magic = in.readNBytes(4);
+        in.reset();
+        if (magic.length >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B) {
+            return new GZIPInputStream(in, 64 * 1024);
+        }
+        if (magic.length == 4 && (magic[0] & 0xFF) == 0x28 && (magic[1] & 0xFF) == 0xB5
+                && (magic[2] & 0xFF) == 0x2F && (magic[3] & 0xFF) == 0xFD) {
+            in.close();
+            throw new IOException("zstd-compressed image layers are not supported");
+        }
+        return in;
+    }
+
+    /**
+     * Named files of an image store.
+     */
+    private interface Blobs extends Closeable {
+
+        boolean exists(String name);
+
+        InputStream open(String name) throws IOException;
+    }
+
+    private record DirectoryBlobs(Path root) implements Blobs {
+
+        @Override
+        public boolean exists(String name) {
+            return Files.isRegularFile(root.resolve(name));
+        }
+
+        @Override
+        public InputStream open(String name) throws IOException {
+            Path file = root.resolve(name).normalize();
+            if (!file.startsWith(root)) {
+                throw new IOException("Image file outside the layout: " + name);
+            }
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    /**
+     * Files of an uncompressed tarball, located by one pass over its headers and then
+     * read in place.
+     */
+    private static final class TarBlobs implements Blobs {
+
+        private final FileChannel channel;
+        private final Map<String, TarInput.Entry> entries;
+
+        private TarBlobs(FileChannel channel, Map<String, TarInput.Entry> entries) {
+            this.channel = channel;
+            this.entries = entries;
+        }
+
+        static TarBlobs index(Path tarball) throws IOException {
+            Map<String, TarInput.Entry> entries = new HashMap<>();
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(tarball), 64 * 1024)) {
+                TarInput tar = new TarInput(in);
+                for (TarInput.Entry entry = tar.next(); entry != null; entry = tar.next()) {
+                    if (entry.isFile()) {
+                        entries.put(entry.name(), entry);
+                    }
+                }
+            }
+            return new TarBlobs(FileChannel.open(tarball, StandardOpenOption.READ), entries);
+        }
+
+        @Override
+        public boolean exists(String name) {
+            return entries.containsKey(TarInput.normalize(name));
+        }
+
+        @Override
+        public InputStream open(String name) throws IOException {
+            TarInput.Entry entry = entries.get(TarInput.normalize(name));
+            if (entry == null) {
+                throw new NoSuchFileException(name);
+            }
+            return new RegionInputStream(channel, entry.offset(), entry.size());
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * A region of a file, read with positional reads so that regions of one channel can
+     * be open at the same time.
+     */
+    private static final class RegionInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        RegionInputStream(FileChannel channel, long offset, long size) {
+            this.channel = channel;
+            this.position = offset;
+            this.end = offset + size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (n < 0) {
+                return -1;
+            }
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, end - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.jdx.discovery;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Depth-limited directory walker for discovery roots that reports JDK homes and prunes
+ * the tree as it goes.
+ *
+ * <p>It never descends below a recognised JDK home and skips subtrees matched by an
+ * exclude glob. Each directory is stat-ed once, while its parent is listed; when the {@link DirectoryIndex} holds an
+ * unchanged entry for it, the recorded verdict and subdirectory names are used instead
+ * of probing for a {@code release} file and listing the directory again. Symbolic links
+ * are followed, and the depth limit bounds any link cycles.
+ */
+final class IndexedWalker {
+
+    private final DirectoryIndex index;
+    private final DiscoveryFilter filter;
+    private final Predicate<Path> isJdkHome;
+
+    IndexedWalker(DirectoryIndex index, DiscoveryFilter filter, Predicate<Path> isJdkHome) {
+        this.index = index;
+        this.filter = filter;
+        this.isJdkHome = isJdkHome;
+    }
+
+    /**
+     * Walk {@code root} down to its depth, reporting every included JDK home below it.
+     * Stops early when the calling thread is interrupted.
+     */
+    void walk(DiscoveryRoot root, Consumer<Path> onHome) {
+        walkUntil(root, home -> {
+            onHome.accept(home);
+            return false;
+        });
+    }
+
+    /**
+     * Walk {@code root} like {@link #walk}, but stop as soon as {@code onHome} returns
+     * {@code true}.
+     *
+     * @return whether the walk was stopped by {@code onHome}
+     */
+    boolean walkUntil(DiscoveryRoot root, Predicate<Path> onHome) {
+        return visit(root.path(), null, 0, root.depth(), onHome);
+    }
+
+    /**
+     * @param attrs attributes of {@code dir} read while listing its parent, or {@code null}
+     *              to read them now
+     */
+    private boolean visit(Path dir, BasicFileAttributes attrs, int level, int maxDepth, Predicate<Path> onHome) {
+        if (Thread.currentThread().isInterrupted()) {
+            // The scan was cancelled
+            return false;
+        }
+        if (attrs == null) {
+            try {
+                attrs = Files.readAttributes(dir, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // Missing or unreadable directories and symlink loops are skipped
+                return false;
+            }
+        }
+        if (!attrs.isDirectory()) {
+            return false;
+        }
+
+        // The root itself is never reported, only what lies below it
+        boolean isRoot = level == 0;
+        boolean descend = level < maxDepth;
+
+        boolean jdkHome;
+        List<String> children;
+        Map<String, BasicFileAttributes> listed = null;
+        Optional<DirectoryIndex.Entry> indexed = index.lookup(dir, attrs);
+        if (indexed.isPresent() && (!descend || indexed.get().children() != null
+                || (indexed.get().jdkHome() && !isRoot))) {
+            jdkHome = indexed.get().jdkHome();
+            children = indexed.get().children();
+        } else {
+            jdkHome = isJdkHome.test(dir);
+            // Nothing below a JDK home is another JDK worth reporting
+            boolean list = descend && (isRoot || !jdkHome);
+            listed = list ? listDirectories(dir) : null;
+            children = listed != null ? List.copyOf(listed.keySet()) : null;
+            if (!list || children != null) {
+                index.put(dir, attrs, jdkHome, children);
+            }
+        }
+
+        if (jdkHome && !isRoot) {
+            return filter.includes(dir) && onHome.test(dir);
+        }
+        if (!descend || children == null) {
+            return false;
+        }
+        for (String name : children) {
+            Path child = dir.resolve(name);
+            BasicFileAttributes childAttrs = listed != null ? listed.get(name) : null;
+            if (!filter.excludes(child) && visit(child, childAttrs, level + 1, maxDepth, onHome)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the subdirectories by name, sorted, with the attributes read to tell them
+     *         from files, or {@code null} if the directory could not be read (such
+     *         directories are not indexed)
+     */
+    private static Map<String, BasicFileAttributes> listDirectories(Path dir) {
+        Map<String, BasicFileAttributes> directories = new TreeMap<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path entry : entries) {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                    if (attrs.isDirectory()) {
+                        directories.put(entry.getFileName().toString(), attrs);
+                    }
+                } catch (IOException e) {
+                    // Dangling links and entries gone since the listing are not directories
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return directories;
+    }
+}
@@ -0,0 +1,139 @@
+package com.jdx.discovery;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Minimal reader for the jimage container ({@code lib/modules}) of a JDK 9+ home.
+ *
+ * <p>Only the index at the start of the file is memory-mapped: a 28-byte header, the
+ * redirect and offset tables, the location attributes and the string table. The module
+ * names are collected from the module attribute of every location, without reading any
+ * resource and without starting {@code java --list-modules}.
+ *
+ * <p>The header is written in the byte order of the platform that built the image, so
+ * the magic number is checked in both orders.
+ */
+final class JImage {
+
+    private static final int MAGIC = 0xCAFEDADA;
+    private static final int MAJOR_VERSION = 1;
+    private static final int HEADER_SIZE = 7 * Integer.BYTES;
+
+    // Location attribute kinds, see jdk.internal.jimage.ImageLocation
+    private static final int ATTRIBUTE_END = 0;
+    private static final int ATTRIBUTE_MODULE = 1;
+
+    private JImage() {}
+
+    /**
+     * List the modules contained in a jimage file.
+     *
+     * @return module names in alphabetical order
+     * @throws IOException if the file cannot be read or is not a supported jimage
+     */
+    static List<String> modules(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a jimage file: " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            ByteOrder order = byteOrder(header, file);
+            header.order(order);
+            
+            int major = header.getInt(4) >>> 16;
+            if (major != MAJOR_VERSION) {
+                throw new IOException("Unsupported jimage version " + major + ": " + file);
+            }
+            int tableLength = header.getInt(16);
+            int locationsSize = header.getInt(20);
+            int stringsSize = header.getInt(24);
+            long indexSize = HEADER_SIZE + 8L * tableLength + locationsSize + stringsSize;
+            if (tableLength < 0 || locationsSize < 0 || stringsSize < 0 || indexSize > channel.size()) {
+                throw new IOException("Corrupt jimage header: " + file);
+            }
+            
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, indexSize).order(order);
+            int offsets = HEADER_SIZE + 4 * tableLength;
+            int locations = offsets + 4 * tableLength;
+            int strings = locations + locationsSize;
+            try {
+                // Thousands of resources share a few dozen module names
+                BitSet moduleNames = new BitSet();
+                for (int i = 0; i < tableLength; i++) {
+                    long module = moduleAttribute(index, locations + index.getInt(offsets + 4 * i));
+                    if (module > 0) {
+                        moduleNames.set(Math.toIntExact(module));
+                    }
+                }
+                
+                Set<String> modules = new TreeSet<>();
+                for (int name = moduleNames.nextSetBit(0); name >= 0; name = moduleNames.nextSetBit(name + 1)) {
+                    String module = string(index, strings + name);
+                    if (!module.isEmpty() && !"modules".equals(module) && !"packages".equals(module)) {
+                        modules.add(module);
+                    }
+                }
+                return List.copyOf(modules);
+            } catch (IndexOutOfBoundsException | BufferUnderflowException | ArithmeticException e) {
+                throw new IOException("Corrupt jimage index: " + file, e);
+            }
+        }
+    }
+
+    private static ByteOrder byteOrder(ByteBuffer header, Path file) throws IOException {
+        for (ByteOrder order : List.of(ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN)) {
+            if (header.order(order).getInt(0) == MAGIC) {
+                return order;
+            }
+        }
+        throw new IOException("Not a jimage file: " + file);
+    }
+
+    /**
+     * Decode the attributes of one location and return its module string offset, or -1.
+     * Each attribute is a byte holding the kind (upper five bits) and value length minus
+     * one (lower three bits), followed by the big-endian value.
+     */
+    private static long moduleAttribute(ByteBuffer index, int position) {
+        while (true) {
+            int data = index.get(position++) & 0xFF;
+            int kind = data >>> 3;
+            if (kind == ATTRIBUTE_END) {
+                return -1;
+            }
+            int length = (data & 0x7) + 1;
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                value = (value << 8) | (index.get(position++) & 0xFF);
+            }
+            if (kind == ATTRIBUTE_MODULE) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Read a NUL-terminated string; module names are plain ASCII, which modified UTF-8
+     * encodes exactly as UTF-8.
+     */
+    private static String string(ByteBuffer index, int position) {
+        int end = position;
+        while (index.get(end) != 0) {
+            end++;
+        }
+        byte[] bytes = new byte[end - position];
+        index.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,187 @@
+package com.jdx.discovery;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Fallback for JDK homes without a {@code release} file (JDK 8 JREs, some vendor builds,
+ * exploded images): runs {@code bin/java -XshowSettings:properties -version} and reads the
+ * system properties it prints.
+ *
+ * <p>Launching a JVM costs tens of milliseconds, so callers cache the result against the
+ * home's {@code libjvm} (see {@link JdkHomeCache.Fingerprint}) and the probe runs once per
+ * install. Launches are limited to one per core, and a JVM that does not finish within
+ * {@link #TIMEOUT} is killed.
+ *
+ * <p>Scans reach directories anyone may have written to, so a launcher is only run if it
+ * and its directory belong to root or the current user and neither is writable by group
+ * or others; anything else could be a planted program rather than a JDK. Platforms
+ * without POSIX permissions are not checked.
+ */
+final class JavaProbe {
+
+    static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /** Where the server (or client) VM library sits, relative to the home, across JDK layouts. */
+    private static final List<String> LIBJVM_PATHS = List.of(
+        "lib/server/libjvm.so",
+        "lib/server/libjvm.dylib",
+        "bin/server/jvm.dll",
+        "lib/amd64/server/libjvm.so",
+        "lib/aarch64/server/libjvm.so",
+        "lib/i386/client/libjvm.so",
+        "jre/lib/server/libjvm.dylib",
+        "jre/lib/amd64/server/libjvm.so",
+        "jre/lib/aarch64/server/libjvm.so",
+        "jre/bin/server/jvm.dll",
+        "bin/client/jvm.dll");
+
+    /** Upper bound for the probe's output, which is a few kilobytes of properties. */
+    private static final int MAX_OUTPUT = 256 * 1024;
+
+    private static final Semaphore LAUNCHES = new Semaphore(Runtime.getRuntime().availableProcessors());
+
+    private JavaProbe() {}
+
+    /**
+     * The VM library of a home, if it has one.
+     */
+    static Optional<Path> libjvm(Path home) {
+        for (String path : LIBJVM_PATHS) {
+            Path libjvm = home.resolve(path);
+            if (Files.isRegularFile(libjvm)) {
+                return Optional.of(libjvm);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The launcher of a home, if it has one.
+     */
+    static Optional<Path> launcher(Path home) {
+        for (String name : List.of("bin/java", "bin/java.exe")) {
+            Path java = home.resolve(name);
+            if (Files.isExecutable(java)) {
+                return Optional.of(java);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Run the home's launcher and describe it the way its {@code release} file would.
+     *
+     * @return empty if the home has no launcher, or it failed or timed out
+     */
+    static Optional<ReleaseFile> probe(Path home) {
+        Optional<Path> java = launcher(home);
+        if (java.isEmpty() || !isTrusted(java.get())) {
+            return Optional.empty();
+        }
+        try {
+            LAUNCHES.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+        try {
+            // The output is small, so it is read in full before waiting; a hung JVM is killed
+            ProcessRunner.Result<byte[]> result = ProcessRunner.run(
+                new ProcessBuilder(java.get().toString(), "-XshowSettings:properties", "-version")
+                    .redirectErrorStream(true),
+                TIMEOUT, in -> in.readNBytes(MAX_OUTPUT));
+            if (result.exitStatus() != 0) {
+                return Optional.empty();
+            }
+            return parse(new String(result.output(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return Optional.empty();
+        } finally {
+            LAUNCHES.release();
+        }
+    }
+
+    /**
+     * Whether a launcher, after following links, and its directory are owned by root or
+     * the current user and writable by nobody else.
+     */
+    static boolean isTrusted(Path java) {
+        try {
+            Path real = java.toRealPath();
+            return isTrustedFile(real) && (real.getParent() == null || isTrustedFile(real.getParent()));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isTrustedFile(Path file) throws IOException {
+        PosixFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file, PosixFileAttributes.class);
+        } catch (UnsupportedOperationException e) {
+            return true;
+        }
+        String owner = attrs.owner().getName();
+        Set<PosixFilePermission> permissions = attrs.permissions();
+        return (owner.equals("root") || owner.equals(System.getProperty("user.name")))
+            && !permissions.contains(PosixFilePermission.GROUP_WRITE)
+            && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+    }
+
+    /**
+     * Translate an {@code os.arch} property to the name a {@code release} file's
+     * {@code OS_ARCH} uses for the same architecture, so that probed and parsed homes
+     * compare alike.
+     */
+    static String releaseArch(String osArch) {
+        if (osArch == null) {
+            return null;
+        }
+        return switch (osArch) {
+            case "amd64", "x86-64" -> "x86_64";
+            case "i386", "i486", "i586", "i686" -> "x86";
+            case "arm64" -> "aarch64";
+            default -> osArch;
+        };
+    }
+
+    /**
+     * Parse the {@code Property settings:} block, made of {@code "    key = value"} lines
+     * with multi-valued properties continued on further, more indented lines.
+     */
+    static Optional<ReleaseFile> parse(String output) {
+        Map<String, String> properties = new HashMap<>();
+        for (String line : output.split("\\R")) {
+            int equals = line.indexOf(" = ");
+            if (line.startsWith("    ") && !line.startsWith("        ") && equals > 0) {
+                properties.put(line.substring(0, equals).trim(), line.substring(equals + 3).trim());
+            }
+        }
+        String version = properties.get("java.version");
+        if (version == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ReleaseFile(
+            version,
+            properties.get("java.runtime.version"),
+            properties.get("java.vendor"),
+            properties.get("java.vendor.version"),
+            releaseArch(properties.get("os.arch")),
+            null,
+            null,
+            List.of()
+        ));
+    }
+}
@@ -1,6 +1,14 @@
 package com.jdx.discovery;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import com.jdx.model.JdkInfo;
 
@@ -23,4 +31,96 @@ public interface JdkDiscovery {
      * @return List of discovered JDKs
      */
     List<JdkInfo> deepScan();
+    
+    /**
+     * Scan lazily, emitting each JDK as soon as it has been parsed.
+     * Each physical JDK is emitted at most once, in the order it was found.
+     * 
+     * <p>The scan runs in the background while the stream is consumed. Closing the
+     * stream (e.g. with try-with-resources after a short-circuiting operation such as
+     * {@code findFirst()}) cancels whatever work is still outstanding.
+     * 
+     * @param deep whether to include deep scan locations
+     * @return stream of discovered JDKs
+     */
+    Stream<JdkInfo> stream(boolean deep);
+    
+    /**
+     * Deep scan that additionally walks the whole file system from {@code /}, in
+     * parallel, to find JDKs unpacked anywhere. Mount points are entered only as allowed
+     * by {@link DiscoveryOptions#crossMounts()} and {@link DiscoveryOptions#includeRemote()},
+     * and pseudo file systems never. The walk honours the scan deadline.
+     * 
+     * @param onProgress receives the walk's throughput about once a second
+     * @return stream of discovered JDKs, as for {@link #stream(boolean)}
+     */
+    Stream<JdkInfo> fullScan(Consumer<WalkProgress> onProgress);
+    
+    /**
+     * Look for one JDK, stopping at the first match, for when a requested version is not
+     * in the catalog. Roots are searched one at a time, most promising first: the
+     * directories holding {@code knownHomes}, then every deep scan root in order of how
+     * many known homes it holds, then source priority; roots that timed out in earlier
+     * scans come last.
+     *
+     * <p>A miss walks every root, as a deep scan does but one root at a time, so the
+     * search is bounded by the options' deadline, or 30 seconds when there is none, and
+     * each root by the root timeout, or for slow roots the slow root budget. Roots abandoned on a timeout are reported in
+     * {@link #lastScanStats()}.
+     * 
+     * @param matches    which JDK is wanted
+     * @param knownHomes homes of JDKs found before, typically those in the catalog
+     * @return the first matching JDK, or empty if none was found in time
+     */
+    Optional<JdkInfo> findFirst(Predicate<JdkInfo> matches, Collection<Path> knownHomes);
+    
+    /**
+     * Statistics for the most recent {@link #scan()} or {@link #deepScan()}.
+     * 
+     * @return counters of the last scan, or empty counters if no scan has run
+     */
+    ScanStats lastScanStats();
+    
+    /**
+     * Index the JDK archives ({@code .zip}, {@code .tar.gz}, {@code .tgz}, {@code .tar}) in a
+     * directory and its subdirectories without extracting them. Archives are read in
+     * parallel, and archives whose size and modification time are unchanged since they
+     * were last read are not opened again.
+     * 
+     * <p>Afterwards, {@link #lastScanStats()} counts unchanged archives as cache hits and
+     * archives that had to be read as cache misses.
+     * 
+     * @param directory directory holding the archives
+     * @return the archived JDKs, in archive path order; each has {@link JdkInfo#archive()} set
+     * @throws IOException if the directory cannot be listed
+     */
+    List<JdkInfo> scanArchives(Path directory) throws IOException;
+    
+    /**
+     * Find the JDKs inside a local container image without unpacking it. {@code image}
+     * is an OCI image layout directory, or a tarball written by {@code docker save} or
+     * holding an OCI layout; its layers are streamed in order, honouring whiteouts. The
+     * result is reused while the image's size and modification time are unchanged.
+     * 
+     * @param image the image layout directory or tarball
+     * @return the JDKs in the image; each has {@link JdkInfo#archive()} set to the image
+     * @throws IOException if the image cannot be read or is not in a supported format
+     */
+    List<JdkInfo> scanImage(Path image) throws IOException;
+    
+    /**
+     * Watch the discovery locations in the foreground and report changes until the
+     * calling thread is interrupted. Bursts of file system events are debounced, and
+     * only the directories they touched are scanned again.
+     * 
+     * <p>Locations that are a single JDK home, such as JAVA_HOME and the homes of
+     * {@code java} executables on PATH, are not watched.
+     * 
+     * @param deep     whether to include deep scan locations
+     * @param onChange called with a changed directory and every JDK now found at or below
+     *                 it; the list is empty when the directory no longer holds a JDK
+     * @throws IOException          if the file system cannot be watched
+     * @throws InterruptedException when watching is stopped
+     */
+    void watch(boolean deep, BiConsumer<Path, List<JdkInfo>> onChange) throws IOException, InterruptedException;
 }
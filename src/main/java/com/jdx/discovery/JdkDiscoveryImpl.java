@@ -1,31 +1,100 @@
 package com.jdx.discovery;
 
-import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.Properties;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.jdx.model.Capability;
+import com.jdx.model.JavaVersion;
 import com.jdx.model.JdkInfo;
 
 /**
  * Implementation of JDK discovery across different operating systems.
+ * 
+ * <p>Locations come from the {@link DiscoverySource}s found by {@link ServiceLoader}; the
+ * roots of every source that applies to the scan are walked concurrently by
+ * {@link ParallelScanner}, and the merged result is deduplicated in discovery order.
  */
 public class JdkDiscoveryImpl implements JdkDiscovery {
     
-    private static final String OS = System.getProperty("os.name").toLowerCase();
-    private static final boolean IS_WINDOWS = OS.contains("win");
-    private static final boolean IS_MAC = OS.contains("mac");
-    private static final boolean IS_LINUX = OS.contains("nux");
+    private static final boolean IS_MAC = System.getProperty("os.name").toLowerCase().contains("mac");
+
+    /** Time {@link #findFirst} may take when the options set no deadline. */
+    static final Duration DEFAULT_FIND_DEADLINE = Duration.ofSeconds(30);
+
+    /** Time a root {@link #findFirst} gave up on has to notice before the next root is searched. */
+    static final Duration CANCEL_WAIT = Duration.ofMillis(500);
+
+    private final DiscoveryOptions options;
+    private final List<DiscoverySource> sources;
+    private final DiscoveryFilter filter;
+    private final IndexedWalker walker;
+    private final ParallelScanner scanner;
+    private final JdkHomeCache cache = new JdkHomeCache();
+    private final DirectoryIndex index = new DirectoryIndex();
+    private final ArchiveIndex archives = new ArchiveIndex();
+    private volatile CanonicalHomes homes = new CanonicalHomes();
+    private volatile ScanStats lastScanStats = ScanStats.empty();
+
+    public JdkDiscoveryImpl() {
+        this(DiscoveryOptions.defaults());
+    }
+
+    public JdkDiscoveryImpl(DiscoveryOptions options) {
+        this(options, loadSources());
+    }
+
+    /**
+     * @param sources discovery sources to use instead of the ones registered with {@link ServiceLoader}
+     */
+    public JdkDiscoveryImpl(DiscoveryOptions options, List<DiscoverySource> sources) {
+        this.options = options;
+        this.sources = List.copyOf(sources);
+        this.filter = DiscoveryFilter.of(options.includeGlobs(), options.excludeGlobs());
+        this.walker = new IndexedWalker(index, filter, this::isJdkHome);
+        this.scanner = new ParallelScanner(options, walker, this::probe);
+    }
 
     @Override
     public List<JdkInfo> scan() {
@@ -37,277 +106,548 @@ public class JdkDiscoveryImpl implements JdkDiscovery {
         return scan(true);
     }
     
-    private List<JdkInfo> scan(boolean deep) {
-        Set<JdkInfo> jdks = new LinkedHashSet<>();
+    @Override
+    public ScanStats lastScanStats() {
+        return lastScanStats;
+    }
+    
+    @Override
+    public Stream<JdkInfo> stream(boolean deep) {
+        return stream((onFound, closed) -> scan(deep, onFound));
+    }
+    
+    @Override
+    public Stream<JdkInfo> fullScan(Consumer<WalkProgress> onProgress) {
+        return stream((onFound, closed) -> scan(true, onFound, onProgress, closed::get));
+    }
+    
+    /**
+     * Run {@code scan} on a background thread and stream the JDKs it reports. Closing the
+     * stream interrupts the thread and sets the flag passed to {@code scan}, for work that
+     * does not notice interrupts.
+     */
+    private Stream<JdkInfo> stream(BiConsumer<Consumer<JdkInfo>, AtomicBoolean> scan) {
+        AtomicBoolean closed = new AtomicBoolean();
+        BlockingQueue<Optional<JdkInfo>> queue = new LinkedBlockingQueue<>();
+        Set<JdkInfo> emitted = ConcurrentHashMap.newKeySet();
+        Thread worker = Thread.ofVirtual().name("jdx-discovery").start(() -> {
+            try {
+                scan.accept(jdk -> {
+                    if (emitted.add(jdk)) {
+                        queue.add(Optional.of(jdk));
+                    }
+                }, closed);
+            } finally {
+                // Empty marks the end of the scan
+                queue.add(Optional.empty());
+            }
+        });
         
-        if (IS_MAC) {
-            jdks.addAll(scanMacOS(deep));
-        } else if (IS_WINDOWS) {
-            jdks.addAll(scanWindows(deep));
-        } else if (IS_LINUX) {
-            jdks.addAll(scanLinux(deep));
+        Iterator<JdkInfo> iterator = new Iterator<>() {
+            private Optional<JdkInfo> next;
+            
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = queue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        next = Optional.empty();
+                    }
+                }
+                return next.isPresent();
+            }
+            
+            @Override
+            public JdkInfo next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                JdkInfo jdk = next.get();
+                next = null;
+                return jdk;
+            }
+        };
+        
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(() -> {
+                closed.set(true);
+                worker.interrupt();
+            });
+    }
+    
+    @Override
+    public Optional<JdkInfo> findFirst(Predicate<JdkInfo> matches, Collection<Path> knownHomes) {
+        if (options.useCache()) {
+            cache.load();
+            index.load();
         }
+        cache.resetCounters();
+        index.resetCounters();
         
-        // Also check JAVA_HOME
-        String javaHome = System.getenv("JAVA_HOME");
-        if (javaHome != null && !javaHome.isEmpty()) {
-            Path javaHomePath = Paths.get(javaHome);
-            if (Files.exists(javaHomePath)) {
-                parseJdkInfo(javaHomePath).ifPresent(jdks::add);
+        // New JDKs tend to land next to old ones
+        Map<Path, DiscoveryRoot> roots = new LinkedHashMap<>();
+        for (Path home : knownHomes) {
+            Path parent = installDirectory(home).getParent();
+            if (parent != null) {
+                roots.putIfAbsent(parent, DiscoveryRoot.children(parent));
             }
         }
+        DiscoveryContext context = DiscoveryContext.current(true);
+        List<DiscoverySource> bySourcePriority = sources(context).stream()
+            .sorted(Comparator.comparingInt(DiscoverySource::priority).reversed())
+            .toList();
+        for (DiscoverySource source : bySourcePriority) {
+            try {
+                for (DiscoveryRoot root : source.roots(context)) {
+                    roots.putIfAbsent(root.path(), root);
+                }
+            } catch (Exception e) {
+                // A failing source has nothing to search
+            }
+        }
+        // Roots that timed out before go last, so a hung mount only delays a search that
+        // found nothing anywhere else
+        List<DiscoveryRoot> ordered = roots.values().stream()
+            .sorted(Comparator.comparing((DiscoveryRoot root) -> options.slowRoots().contains(root.path()))
+                .thenComparing(Comparator.comparingLong((DiscoveryRoot root) -> knownHomesUnder(root, knownHomes))
+                    .reversed()))
+            .toList();
         
-        return new ArrayList<>(jdks);
-    }
-
-    private List<JdkInfo> scanMacOS(boolean deep) {
-        List<JdkInfo> jdks = new ArrayList<>();
-        
-        // Use /usr/libexec/java_home -V
+        // Each root is walked on its own thread so that one stuck in a directory read can be abandoned
+        Duration deadline = options.deadline() != null ? options.deadline() : DEFAULT_FIND_DEADLINE;
+        long start = System.nanoTime();
+        List<Path> timedOut = new ArrayList<>();
+        List<Path> recovered = new ArrayList<>();
+        Optional<JdkInfo> found = Optional.empty();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
         try {
-            Process process = new ProcessBuilder("/usr/libexec/java_home", "-V")
-                .redirectErrorStream(true)
-                .start();
-            
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    // Parse lines like: "    21.0.5 (arm64) "OpenJDK 21.0.5" - "OpenJDK 21.0.5" /Library/Java/JavaVirtualMachines/openjdk-21.jdk/Contents/Home"
-                    if (line.trim().isEmpty() || line.contains("Matching")) continue;
-                    
-                    String[] parts = line.split("\"");
-                    if (parts.length >= 2) {
-                        String pathPart = line.substring(line.lastIndexOf("\"") + 1).trim();
-                        if (Files.exists(Paths.get(pathPart))) {
-                            parseJdkInfo(Paths.get(pathPart)).ifPresent(jdks::add);
-                        }
+            for (DiscoveryRoot root : ordered) {
+                long left = deadline.toNanos() - (System.nanoTime() - start);
+                if (left <= 0) {
+                    break;
+                }
+                boolean slow = options.slowRoots().contains(root.path());
+                Duration budget = slow && options.rootTimeout() == null
+                    ? ParallelScanner.DEFAULT_SLOW_ROOT_TIMEOUT : options.rootTimeout();
+                
+                // Each root claims homes of its own: one given up on while it had claimed a
+                // home, or goes on claiming after being cancelled, must not hide that home from
+                // the roots after it
+                CanonicalHomes claimed = new CanonicalHomes();
+                AtomicBoolean abandoned = new AtomicBoolean();
+                CountDownLatch finished = new CountDownLatch(1);
+                JdkInfo[] match = new JdkInfo[1];
+                Predicate<Path> check = home -> {
+                    if (abandoned.get()) {
+                        return false;
+                    }
+                    match[0] = probe(home, claimed).filter(matches).orElse(null);
+                    return match[0] != null;
+                };
+                Future<Boolean> task = executor.submit(() -> {
+                    try {
+                        return root.depth() == 0
+                            ? isJdkHome(root.path()) && check.test(root.path())
+                            : walker.walkUntil(root, check);
+                    } finally {
+                        finished.countDown();
                     }
+                });
+                try {
+                    if (task.get(budget == null ? left : Math.min(left, budget.toNanos()), TimeUnit.NANOSECONDS)) {
+                        found = Optional.of(match[0]);
+                        break;
+                    }
+                    if (slow) {
+                        recovered.add(root.path());
+                    }
+                } catch (TimeoutException e) {
+                    abandoned.set(true);
+                    task.cancel(true);
+                    timedOut.add(root.path());
+                    // A walker blocked in a directory read only sees the interrupt once the read
+                    // returns; one still running after the wait probes nothing more
+                    finished.await(CANCEL_WAIT.toNanos(), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    // A failing root has nothing to offer
                 }
             }
-            process.waitFor();
-        } catch (IOException | InterruptedException e) {
-            // Fall back to standard locations
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
         }
         
-        // Also check standard locations
-        Path jvmPath = Paths.get("/Library/Java/JavaVirtualMachines");
-        if (Files.exists(jvmPath)) {
-            try (Stream<Path> paths = Files.list(jvmPath)) {
-                paths.filter(Files::isDirectory)
-                    .forEach(jdkDir -> {
-                        Path homePath = jdkDir.resolve("Contents/Home");
-                        if (Files.exists(homePath)) {
-                            parseJdkInfo(homePath).ifPresent(jdks::add);
-                        }
-                    });
-            } catch (IOException e) {
-                // Ignore
-            }
+        if (options.useCache()) {
+            cache.save();
+            index.save();
         }
-        
-        // Deep scan: check additional locations
-        if (deep) {
-            // Check user home directories
-            String home = System.getProperty("user.home");
-            scanDirectory(Paths.get(home, ".sdkman", "candidates", "java"), jdks);
-            scanDirectory(Paths.get(home, ".jenv", "versions"), jdks);
-            scanDirectory(Paths.get(home, "Library", "Java", "JavaVirtualMachines"), jdks);
-            scanDirectory(Paths.get(home, "jdks"), jdks);
-            
-            // Check /opt
-            scanDirectory(Paths.get("/opt"), jdks);
-            
-            // Check /usr/local
-            scanDirectory(Paths.get("/usr/local"), jdks);
+        lastScanStats = new ScanStats(cache.hits(), cache.misses(), cache.reparsed(), index.reused(), index.listed(),
+            timedOut, recovered, Map.of(), List.of());
+        return found;
+    }
+    
+    private static long knownHomesUnder(DiscoveryRoot root, Collection<Path> knownHomes) {
+        return knownHomes.stream()
+            .map(JdkDiscoveryImpl::installDirectory)
+            .filter(home -> home.startsWith(root.path()))
+            .filter(home -> home.getNameCount() - root.path().getNameCount() <= root.depth())
+            .count();
+    }
+    
+    /**
+     * The directory a JDK was installed as: the {@code .jdk} bundle of a macOS home
+     * ({@code .../JavaVirtualMachines/x.jdk/Contents/Home}), the home itself otherwise.
+     */
+    private static Path installDirectory(Path home) {
+        if (home.getNameCount() > 2 && home.endsWith(Paths.get("Contents", "Home"))) {
+            return home.getParent().getParent();
         }
-        
-        return jdks;
+        return home;
     }
-
-    private List<JdkInfo> scanWindows(boolean deep) {
-        List<JdkInfo> jdks = new ArrayList<>();
-        
-        // Check common install directories
-        String[] programFilesDirs = {
-            System.getenv("ProgramFiles"),
-            System.getenv("ProgramFiles(x86)"),
-            "C:\\Program Files",
-            "C:\\Program Files (x86)"
-        };
+    
+    @Override
+    public void watch(boolean deep, BiConsumer<Path, List<JdkInfo>> onChange) throws IOException, InterruptedException {
+        DiscoveryContext context = DiscoveryContext.current(deep);
+        List<DiscoveryRoot> roots = new ArrayList<>();
+        for (DiscoverySource source : sources(context)) {
+            try {
+                roots.addAll(source.roots(context));
+            } catch (Exception e) {
+                // A failing source has nothing to watch
+            }
+        }
+        new DiscoveryWatcher(filter, this::isJdkHome, this::rescan, DiscoveryWatcher.DEFAULT_DEBOUNCE)
+            .watch(roots, onChange);
+    }
+    
+    @Override
+    public List<JdkInfo> scanArchives(Path directory) throws IOException {
+        if (options.useCache()) {
+            archives.load();
+        }
+        archives.resetCounters();
         
-        for (String programFiles : programFilesDirs) {
-            if (programFiles == null) continue;
-            
-            // Check Java subdirectory
-            Path javaPath = Paths.get(programFiles, "Java");
-            if (Files.exists(javaPath)) {
-                try (Stream<Path> paths = Files.list(javaPath)) {
-                    paths.filter(Files::isDirectory)
-                        .forEach(jdkDir -> parseJdkInfo(jdkDir).ifPresent(jdks::add));
-                } catch (IOException e) {
-                    // Ignore
+        List<Path> files = new ArrayList<>();
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && ArchiveReader.isArchive(file)) {
+                    files.add(file);
                 }
+                return FileVisitResult.CONTINUE;
             }
             
-            // Check Microsoft JDK
-            Path msJdkPath = Paths.get(programFiles, "Microsoft", "jdk");
-            if (Files.exists(msJdkPath)) {
-                try (Stream<Path> paths = Files.list(msJdkPath)) {
-                    paths.filter(Files::isDirectory)
-                        .forEach(jdkDir -> parseJdkInfo(jdkDir).ifPresent(jdks::add));
-                } catch (IOException e) {
-                    // Ignore
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                if (file.equals(directory)) {
+                    throw e;
                 }
+                // Unreadable subdirectories are skipped, like the walker does
+                return FileVisitResult.CONTINUE;
             }
-        }
+        });
+        files.sort(null);
         
-        // Check PATH for java.exe
-        try {
-            Process process = new ProcessBuilder("where", "java").start();
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    Path javaExe = Paths.get(line.trim());
-                    if (Files.exists(javaExe)) {
-                        // Go up two directories: bin -> jdk_home
-                        Path jdkHome = javaExe.getParent().getParent();
-                        parseJdkInfo(jdkHome).ifPresent(jdks::add);
+        // Each archive is read on its own virtual thread, within the file-descriptor budget
+        Map<Path, List<JdkInfo>> found = new ConcurrentSkipListMap<>();
+        Semaphore permits = new Semaphore(options.fileDescriptorBudget());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path file : files) {
+                executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        found.put(file, readArchive(directory, file));
+                    } finally {
+                        permits.release();
                     }
-                }
+                    return null;
+                });
             }
-            process.waitFor();
-        } catch (IOException | InterruptedException e) {
-            // Ignore
         }
         
-        // Deep scan: check additional locations
-        if (deep) {
-            String home = System.getProperty("user.home");
-            scanDirectory(Paths.get(home, ".sdkman", "candidates", "java"), jdks);
-            scanDirectory(Paths.get(home, ".jenv", "versions"), jdks);
-            scanDirectory(Paths.get(home, "jdks"), jdks);
-            
-            // Check other drives
-            for (char drive = 'C'; drive <= 'Z'; drive++) {
-                Path drivePath = Paths.get(drive + ":\\");
-                if (Files.exists(drivePath)) {
-                    scanDirectory(drivePath.resolve("jdk"), jdks);
-                    scanDirectory(drivePath.resolve("Java"), jdks);
+        archives.retain(directory, Set.copyOf(files));
+        if (options.useCache()) {
+            archives.save();
+        }
+        lastScanStats = new ScanStats(archives.reused(), archives.read(), 0, 0, 0, List.of(), List.of(), Map.of(),
+            List.of());
+        return found.values().stream().flatMap(List::stream).toList();
+    }
+    
+    @Override
+    public List<JdkInfo> scanImage(Path image) throws IOException {
+        if (options.useCache()) {
+            archives.load();
+        }
+        archives.resetCounters();
+        
+        BasicFileAttributes attrs = Files.readAttributes(ImageReader.stamp(image), BasicFileAttributes.class);
+        Optional<ArchiveIndex.Entry> indexed = archives.lookup(image, attrs);
+        List<JdkInfo> jdks;
+        if (indexed.isPresent()) {
+            jdks = indexed.get().jdks();
+        } else {
+            jdks = new ArrayList<>();
+            // The image's file name tells two images of one tag apart, like an archive's path does
+            String name = image.getFileName().toString().replaceFirst("(?i)\\.tar$", "");
+            for (ImageReader.Image read : ImageReader.read(image)) {
+                for (ArchiveReader.Archived archived : read.jdks()) {
+                    // Several JDKs in one image are told apart by their home directory
+                    String id = name + "/" + (read.jdks().size() == 1
+                        ? read.ref() : read.ref() + "/" + archived.home().substring(archived.home().lastIndexOf('/') + 1));
+                    jdks.add(archivedJdkInfo(image, id, archived));
                 }
             }
+            archives.put(image, attrs, jdks);
         }
         
+        if (options.useCache()) {
+            archives.save();
+        }
+        lastScanStats = new ScanStats(archives.reused(), archives.read(), 0, 0, 0, List.of(), List.of(), Map.of(),
+            List.of());
         return jdks;
     }
-
-    private List<JdkInfo> scanLinux(boolean deep) {
-        List<JdkInfo> jdks = new ArrayList<>();
+    
+    private List<JdkInfo> scan(boolean deep) {
+        return scan(deep, jdk -> {});
+    }
+    
+    private List<JdkInfo> scan(boolean deep, Consumer<JdkInfo> onFound) {
+        return scan(deep, onFound, null, () -> false);
+    }
+    
+    /**
+     * @param onProgress if not {@code null}, the whole file system is walked after the
+     *                   sources, and this receives the walk's progress
+     * @param cancelled  stops the walk once it returns {@code true}
+     */
+    private List<JdkInfo> scan(boolean deep, Consumer<JdkInfo> onFound, Consumer<WalkProgress> onProgress,
+                               BooleanSupplier cancelled) {
+        if (options.useCache()) {
+            cache.load();
+            index.load();
+        }
+        cache.resetCounters();
+        index.resetCounters();
+        CanonicalHomes scanHomes = new CanonicalHomes();
+        homes = scanHomes;
         
-        // Check /usr/lib/jvm
-        Path jvmPath = Paths.get("/usr/lib/jvm");
-        if (Files.exists(jvmPath)) {
-            try (Stream<Path> paths = Files.list(jvmPath)) {
-                paths.filter(Files::isDirectory)
-                    .forEach(jdkDir -> parseJdkInfo(jdkDir).ifPresent(jdks::add));
-            } catch (IOException e) {
-                // Ignore
+        DiscoveryContext context = DiscoveryContext.current(deep);
+        long start = System.nanoTime();
+        ParallelScanner.Result result = scanner.scan(sources(context), context, onFound);
+        List<JdkInfo> found = new ArrayList<>(scanHomes.inRootOrder(result.jdks(), result.roots()));
+        List<SourceTiming> timings = new ArrayList<>(result.sources());
+        long walked = 0;
+        boolean walkCut = false;
+        
+        if (onProgress != null) {
+            // Whatever the sources left of the deadline goes to the walk
+            Duration remaining = options.deadline() == null
+                ? null : options.deadline().minusNanos(System.nanoTime() - start);
+            List<JdkInfo> walkFound = Collections.synchronizedList(new ArrayList<>());
+            FullScanWalker walker = new FullScanWalker(MountTable.current(), filter, this::isJdkHomeWithLauncher,
+                options.crossMounts(), options.includeRemote(),
+                Math.min(Runtime.getRuntime().availableProcessors(), options.fileDescriptorBudget()));
+            FullScanWalker.Result walk = walker.walk(Paths.get("/"), remaining, cancelled, home -> probe(home).ifPresent(jdk -> {
+                walkFound.add(jdk);
+                onFound.accept(jdk);
+            }), onProgress);
+            found.addAll(walkFound);
+            walked = walk.directories();
+            walkCut = walk.timedOut() || cancelled.getAsBoolean();
+            timings.add(new SourceTiming("filesystem", 0, walk.elapsed(), 1, walkFound.size(), walk.timedOut()));
+        }
+        
+        // Attach the other paths at which each JDK was reached
+        List<JdkInfo> jdks = new ArrayList<>();
+        Map<String, List<String>> aliases = new LinkedHashMap<>();
+        for (JdkInfo jdk : new LinkedHashSet<>(found)) {
+            List<String> jdkAliases = scanHomes.aliasesOf(Paths.get(jdk.path()));
+            if (!jdkAliases.isEmpty()) {
+                aliases.put(jdk.path(), jdkAliases);
             }
+            jdks.add(jdk.withAliases(jdkAliases));
         }
         
-        // Check ~/jdks
-        String home = System.getProperty("user.home");
-        Path userJdksPath = Paths.get(home, "jdks");
-        if (Files.exists(userJdksPath)) {
-            try (Stream<Path> paths = Files.list(userJdksPath)) {
-                paths.filter(Files::isDirectory)
-                    .forEach(jdkDir -> parseJdkInfo(jdkDir).ifPresent(jdks::add));
-            } catch (IOException e) {
-                // Ignore
+        if (options.useCache()) {
+            // A deep scan that finished visited every home still there; a quick or partial one did not
+            if (deep && result.timedOut().isEmpty() && !walkCut) {
+                cache.retainSeen();
             }
+            cache.save();
+            index.save();
+        }
+        lastScanStats = new ScanStats(cache.hits(), cache.misses(), cache.reparsed(), index.reused(),
+            index.listed() + (int) walked, result.timedOut(), result.recovered(), aliases, timings);
+        return jdks;
+    }
+    
+    /**
+     * Find the JDKs at or below a single directory, for the watcher.
+     */
+    private List<JdkInfo> rescan(Path directory, int depth) {
+        CanonicalHomes rescanHomes = new CanonicalHomes();
+        homes = rescanHomes;
+        Set<JdkInfo> jdks = new LinkedHashSet<>();
+        if (isJdkHome(directory)) {
+            probe(directory).ifPresent(jdks::add);
+        } else if (depth > 0) {
+            DiscoverySource changed = new DiscoverySource() {
+                @Override
+                public String name() {
+                    return "watch";
+                }
+                
+                @Override
+                public List<DiscoveryRoot> roots(DiscoveryContext context) {
+                    return List.of(new DiscoveryRoot(directory, depth));
+                }
+            };
+            ParallelScanner.Result result = scanner.scan(List.of(changed), DiscoveryContext.current(true), jdk -> {});
+            jdks.addAll(rescanHomes.inRootOrder(result.jdks(), result.roots()));
         }
         
-        // Check PATH for java
-        try {
-            Process process = new ProcessBuilder("which", "-a", "java").start();
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    Path javaExe = Paths.get(line.trim());
-                    if (Files.exists(javaExe)) {
-                        // Resolve symlinks
-                        try {
-                            javaExe = javaExe.toRealPath();
-                            // Go up two directories: bin -> jdk_home
-                            Path jdkHome = javaExe.getParent().getParent();
-                            parseJdkInfo(jdkHome).ifPresent(jdks::add);
-                        } catch (IOException e) {
-                            // Ignore
-                        }
-                    }
+        if (options.useCache()) {
+            cache.save();
+            index.save();
+        }
+        return new ArrayList<>(jdks);
+    }
+    
+    /**
+     * Sources that apply to the given scan and are not disabled in the configuration.
+     */
+    private List<DiscoverySource> sources(DiscoveryContext context) {
+        return sources.stream()
+            .filter(source -> !options.disabledSources().contains(source.name()))
+            .filter(source -> source.supports(context))
+            .toList();
+    }
+    
+    /**
+     * Load every discovery source on the class path. A source that cannot be instantiated
+     * is reported and skipped rather than failing the scan.
+     */
+    private static List<DiscoverySource> loadSources() {
+        List<DiscoverySource> sources = new ArrayList<>();
+        Iterator<DiscoverySource> iterator = ServiceLoader.load(DiscoverySource.class).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
                 }
+                sources.add(iterator.next());
+            } catch (ServiceConfigurationError e) {
+                System.err.println("Warning: Could not load discovery source: " + e.getMessage());
             }
-            process.waitFor();
-        } catch (IOException | InterruptedException e) {
-            // Ignore
         }
-        
-        // Deep scan: check additional locations
-        if (deep) {
-            scanDirectory(Paths.get(home, ".sdkman", "candidates", "java"), jdks);
-            scanDirectory(Paths.get(home, ".jenv", "versions"), jdks);
-            
-            // Check /opt
-            scanDirectory(Paths.get("/opt"), jdks);
-            
-            // Check /usr/local
-            scanDirectory(Paths.get("/usr/local"), jdks);
-            
-            // Check /usr/java
-            scanDirectory(Paths.get("/usr/java"), jdks);
+        return sources;
+    }
+
+    /**
+     * Cheap check used while walking: a directory with a release file (or a macOS bundle
+     * wrapping one) is a JDK home, and nothing below it needs to be visited. So is a
+     * directory with a launcher and a VM library but no release file, such as a JDK 8
+     * JRE, which is then probed by running it.
+     */
+    private boolean isJdkHome(Path directory) {
+        if (Files.exists(directory.resolve("release"))) {
+            return true;
+        }
+        if (IS_MAC && Files.exists(directory.resolve("Contents/Home/release"))) {
+            return true;
+        }
+        return JavaProbe.launcher(directory).isPresent() && JavaProbe.libjvm(directory).isPresent();
+    }
+
+    /**
+     * Stricter check for the full file system walk, which meets plenty of unrelated
+     * {@code release} files.
+     */
+    private boolean isJdkHomeWithLauncher(Path directory) {
+        if (!isJdkHome(directory)) {
+            return false;
+        }
+        return Files.exists(directory.resolve("bin/java")) || Files.exists(directory.resolve("bin/java.exe"))
+            || (IS_MAC && Files.exists(directory.resolve("Contents/Home/bin/java")));
+    }
+
+    private Optional<JdkInfo> probe(Path candidate) {
+        return probe(candidate, homes);
+    }
+
+    /**
+     * @param claimed homes already parsed; {@code candidate} is skipped if its real path is one
+     */
+    private Optional<JdkInfo> probe(Path candidate, CanonicalHomes claimed) {
+        Path home = candidate;
+        // macOS bundles keep the actual home under Contents/Home
+        if (IS_MAC) {
+            Path bundleHome = candidate.resolve("Contents/Home");
+            if (Files.isDirectory(bundleHome)) {
+                home = bundleHome;
+            }
         }
         
-        return jdks;
+        // Parse each physical JDK once per scan, under its real path, however many paths lead to it
+        try {
+            return claimed.claim(home).flatMap(this::probeHome);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
     }
 
-    private Optional<JdkInfo> parseJdkInfo(Path jdkPath) {
-        if (!Files.exists(jdkPath)) {
+    /**
+     * Parse a candidate home, reusing the cached result when its fingerprint is unchanged.
+     */
+    private Optional<JdkInfo> probeHome(Path home) {
+        Optional<JdkHomeCache.Fingerprint> fingerprint = JdkHomeCache.Fingerprint.of(home);
+        if (fingerprint.isEmpty()) {
+            // Neither a release file nor a VM: not a JDK (any more)
+            cache.remove(home);
             return Optional.empty();
         }
         
-        // Check for release file
-        Path releasePath = jdkPath.resolve("release");
-        if (!Files.exists(releasePath)) {
+        Optional<JdkInfo> cached = cache.lookup(home, fingerprint.get());
+        if (cached.isPresent()) {
+            return cached;
+        }
+        
+        Optional<JdkInfo> parsed = parseJdkInfo(home);
+        if (parsed.isPresent()) {
+            cache.put(home, fingerprint.get(), parsed.get());
+        } else {
+            cache.remove(home);
+        }
+        return parsed;
+    }
+
+    private Optional<JdkInfo> parseJdkInfo(Path jdkPath) {
+        if (!Files.exists(jdkPath)) {
             return Optional.empty();
         }
         
         try {
-            Properties props = new Properties();
-            List<String> lines = Files.readAllLines(releasePath);
-            for (String line : lines) {
-                if (line.contains("=")) {
-                    String[] parts = line.split("=", 2);
-                    String key = parts[0].trim();
-                    String value = parts[1].trim().replaceAll("^\"|\"$", "");
-                    props.setProperty(key, value);
-                }
+            // Homes without a release file are asked by running their launcher once
+            Path releasePath = jdkPath.resolve("release");
+            Optional<ReleaseFile> read = Files.exists(releasePath)
+                ? Optional.of(ReleaseFile.read(releasePath)) : JavaProbe.probe(jdkPath);
+            if (read.isEmpty()) {
+                return Optional.empty();
             }
+            ReleaseFile release = read.get();
             
-            String version = props.getProperty("JAVA_VERSION", "unknown");
-            String vendor = props.getProperty("IMPLEMENTOR", "Unknown");
-            String arch = props.getProperty("OS_ARCH", System.getProperty("os.arch"));
-            
-            // Check for jlink and jpackage capabilities
-            boolean hasJlink = Files.exists(jdkPath.resolve("bin/jlink")) || 
-                             Files.exists(jdkPath.resolve("bin/jlink.exe"));
-            boolean hasJpackage = Files.exists(jdkPath.resolve("bin/jpackage")) || 
-                                Files.exists(jdkPath.resolve("bin/jpackage.exe"));
+            String version = release.javaVersion() != null ? release.javaVersion() : "unknown";
+            String vendor = release.implementor() != null ? release.implementor() : "Unknown";
+            String arch = release.osArch() != null ? release.osArch() : JavaProbe.releaseArch(System.getProperty("os.arch"));
             
-            Set<String> capabilities = new HashSet<>();
-            if (hasJlink) capabilities.add("jlink");
-            if (hasJpackage) capabilities.add("jpackage");
+            // Modules and capabilities from the module image, without running the JDK
+            CapabilityProber.Result probed = CapabilityProber.probe(jdkPath, release.modules());
             
             // Generate ID from path - create a meaningful unique identifier
             String id = generateId(jdkPath, version, vendor);
@@ -318,14 +658,69 @@ public class JdkDiscoveryImpl implements JdkDiscovery {
                 vendor,
                 arch,
                 jdkPath.toString(),
-                capabilities,
-                true
+                Capability.ids(probed.capabilities()),
+                true,
+                release.runtimeVersion(),
+                release.implementorVersion(),
+                release.libc(),
+                release.buildType(),
+                probed.modules(),
+                List.of(),
+                null
             ));
         } catch (IOException e) {
             return Optional.empty();
         }
     }
     
+    /**
+     * Read the JDK in an archive, reusing the indexed result when the archive is unchanged.
+     */
+    private List<JdkInfo> readArchive(Path directory, Path file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            Optional<ArchiveIndex.Entry> indexed = archives.lookup(file, attrs);
+            if (indexed.isPresent()) {
+                return indexed.get().jdks();
+            }
+            
+            // The archive's path is the only thing telling two archives of one version apart
+            String relative = directory.relativize(file).toString().replace(File.separatorChar, '/');
+            String id = relative.replaceFirst("(?i)\\.(zip|tar\\.gz|tgz|tar)$", "");
+            List<JdkInfo> jdks = ArchiveReader.read(file)
+                .map(archived -> List.of(archivedJdkInfo(file, id, archived)))
+                .orElse(List.of());
+            archives.put(file, attrs, jdks);
+            return jdks;
+        } catch (IOException e) {
+            // Not indexed, so the archive is tried again next time
+            System.err.println("Warning: Could not read archive " + file + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+    
+    private JdkInfo archivedJdkInfo(Path file, String id, ArchiveReader.Archived archived) {
+        ReleaseFile release = archived.release();
+        CapabilityProber.Result probed = CapabilityProber.probe(release.modules(), archived::contains);
+        
+        return new JdkInfo(
+            id,
+            release.javaVersion() != null ? release.javaVersion() : "unknown",
+            release.implementor() != null ? release.implementor() : "Unknown",
+            release.osArch() != null ? release.osArch() : "unknown",
+            file + "!/" + archived.home(),
+            Capability.ids(probed.capabilities()),
+            true,
+            release.runtimeVersion(),
+            release.implementorVersion(),
+            release.libc(),
+            release.buildType(),
+            probed.modules(),
+            List.of(),
+            file.toString()
+        );
+    }
+    
     /**
      * Generate a unique, meaningful ID for a JDK.
      * Examples:
@@ -335,7 +730,7 @@ public class JdkDiscoveryImpl implements JdkDiscovery {
      */
     private String generateId(Path jdkPath, String version, String vendor) {
         // Extract major version for cleaner IDs
-        String majorVersion = extractMajorVersion(version);
+        String majorVersion = JavaVersion.featureOf(version);
         
         // Check for common patterns in path that indicate a unique identifier
         String pathStr = jdkPath.toString();
@@ -371,57 +766,4 @@ public class JdkDiscoveryImpl implements JdkDiscovery {
         // Create ID: vendor-majorVersion (e.g., microsoft-21, temurin-17)
         return shortVendor + "-" + majorVersion;
     }
-    
-    /**
-     * Extract major version from full version string.
-     * Examples: "21.0.1" -> "21", "17.0.9" -> "17", "1.8.0_392" -> "8"
-     */
-    private String extractMajorVersion(String version) {
-        // Remove quotes if present
-        version = version.replaceAll("^\"|\"$", "");
-        
-        // Handle 1.8 format
-        if (version.startsWith("1.8")) {
-            return "8";
-        }
-        
-        // Extract first number
-        int dotIndex = version.indexOf('.');
-        if (dotIndex > 0) {
-            return version.substring(0, dotIndex);
-        }
-        
-        // If no dot, return as-is (handle cases like "21")
-        return version.split("[^0-9]")[0];
-    }
-    
-    /**
-     * Helper method to scan a directory recursively for JDK installations.
-     * Scans up to 3 levels deep to avoid excessive searching.
-     */
-    private void scanDirectory(Path directory, List<JdkInfo> jdks) {
-        scanDirectory(directory, jdks, 0, 3);
-    }
-    
-    private void scanDirectory(Path directory, List<JdkInfo> jdks, int currentDepth, int maxDepth) {
-        if (!Files.exists(directory) || !Files.isDirectory(directory) || currentDepth >= maxDepth) {
-            return;
-        }
-        
-        try (Stream<Path> paths = Files.list(directory)) {
-            paths.filter(Files::isDirectory)
-                .forEach(subDir -> {
-                    // First, try to parse this directory as a JDK
-                    parseJdkInfo(subDir).ifPresent(jdks::add);
-                    
-                    // Then recursively scan subdirectories
-                    if (currentDepth < maxDepth - 1) {
-                        scanDirectory(subDir, jdks, currentDepth + 1, maxDepth);
-                    }
-                });
-        } catch (IOException e) {
-            // Ignore directories we can't read
-        }
-    }
 }
-
@@ -0,0 +1,206 @@
+package com.jdx.discovery;
+
+import com.jdx.model.JdkInfo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent cache of parsed JDK homes, keyed by home path and validated by a cheap
+ * fingerprint so unchanged homes are not re-read on every scan.
+ */
+final class JdkHomeCache {
+
+    private static final String JDX_DIR = System.getProperty("user.home") + "/.jdx";
+    private static final String CACHE_FILE = JDX_DIR + "/discovery-cache.json";
+
+    /** Bumped whenever the cached JdkInfo shape changes, which discards older caches. */
+    private static final int FORMAT_VERSION = 5;
+
+    /**
+     * Identity and modification state of a JDK home.
+     *
+     * <p>Homes without a {@code release} file are described by their {@code libjvm}
+     * instead, since their metadata comes from running the JVM ({@link JavaProbe}); the
+     * release fields are then -1, and the libjvm fields are -1 otherwise.
+     *
+     * @param fileKey         file key (inode) of the home directory, if the platform has one
+     * @param releaseModified last-modified time of the {@code release} file, in millis
+     * @param releaseSize     size of the {@code release} file in bytes
+     * @param binModified     last-modified time of the {@code bin} directory, in millis
+     * @param modulesModified last-modified time of the {@code lib/modules} image, in millis
+     * @param modulesSize     size of the {@code lib/modules} image in bytes
+     * @param libjvmModified  last-modified time of {@code libjvm}, in millis
+     * @param libjvmSize      size of {@code libjvm} in bytes
+     */
+    record Fingerprint(String fileKey, long releaseModified, long releaseSize, long binModified,
+                       long modulesModified, long modulesSize, long libjvmModified, long libjvmSize) {
+
+        /**
+         * Compute the fingerprint of a JDK home.
+         *
+         * @return empty when the directory has neither a {@code release} file nor a {@code libjvm}
+         */
+        static Optional<Fingerprint> of(Path home) {
+            try {
+                BasicFileAttributes homeAttrs = Files.readAttributes(home, BasicFileAttributes.class);
+                BasicFileAttributes releaseAttrs = null;
+                BasicFileAttributes libjvmAttrs = null;
+                try {
+                    releaseAttrs = Files.readAttributes(home.resolve("release"), BasicFileAttributes.class);
+                } catch (IOException e) {
+                    Optional<Path> libjvm = JavaProbe.libjvm(home);
+                    if (libjvm.isEmpty()) {
+                        return Optional.empty();
+                    }
+                    libjvmAttrs = Files.readAttributes(libjvm.get(), BasicFileAttributes.class);
+                }
+                long binModified = -1;
+                try {
+                    binModified = Files.getLastModifiedTime(home.resolve("bin")).toMillis();
+                } catch (IOException e) {
+                    // No bin directory; parsing decides whether this is still a JDK
+                }
+                long modulesModified = -1;
+                long modulesSize = -1;
+                try {
+                    BasicFileAttributes modulesAttrs = Files.readAttributes(home.resolve("lib/modules"),
+                        BasicFileAttributes.class);
+                    modulesModified = modulesAttrs.lastModifiedTime().toMillis();
+                    modulesSize = modulesAttrs.size();
+                } catch (IOException e) {
+                    // No module image (JDK 8); capabilities come from the release file and jars
+                }
+                Object fileKey = homeAttrs.fileKey();
+                return Optional.of(new Fingerprint(
+                    fileKey != null ? fileKey.toString() : null,
+                    releaseAttrs != null ? releaseAttrs.lastModifiedTime().toMillis() : -1,
+                    releaseAttrs != null ? releaseAttrs.size() : -1,
+                    binModified,
+                    modulesModified,
+                    modulesSize,
+                    libjvmAttrs != null ? libjvmAttrs.lastModifiedTime().toMillis() : -1,
+                    libjvmAttrs != null ? libjvmAttrs.size() : -1
+                ));
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    record Entry(Fingerprint fingerprint, JdkInfo jdk) {}
+
+    private final JsonStore<Entry> store;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** Homes looked up since the counters were last reset. */
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private volatile boolean dirty;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger reparsed = new AtomicInteger();
+
+    JdkHomeCache() {
+        this(Paths.get(CACHE_FILE));
+    }
+
+    JdkHomeCache(Path cacheFile) {
+        this.store = new JsonStore<>(cacheFile, FORMAT_VERSION, Entry.class);
+    }
+
+    /**
+     * Return the cached JDK for {@code home} if its fingerprint is unchanged.
+     * Counts a hit, a miss (never seen) or a reparse (seen, but changed).
+     */
+    Optional<JdkInfo> lookup(Path home, Fingerprint fingerprint) {
+        seen.add(home.toString());
+        Entry entry = entries.get(home.toString());
+        if (entry == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        if (!entry.fingerprint().equals(fingerprint)) {
+            reparsed.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(entry.jdk());
+    }
+
+    void put(Path home, Fingerprint fingerprint, JdkInfo jdk) {
+        entries.put(home.toString(), new Entry(fingerprint, jdk));
+        dirty = true;
+    }
+
+    /**
+     * Forget a home that no longer looks like a JDK.
+     */
+    void remove(Path home) {
+        if (entries.remove(home.toString()) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Forget homes not looked up since the counters were reset, after a scan that visited
+     * every root, so that homes deleted since are not kept forever.
+     */
+    void retainSeen() {
+        if (entries.keySet().removeIf(home -> !seen.contains(home))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Start counting a new scan.
+     */
+    void resetCounters() {
+        seen.clear();
+        hits.set(0);
+        misses.set(0);
+        reparsed.set(0);
+    }
+
+    int hits() {
+        return hits.get();
+    }
+
+    int misses() {
+        return misses.get();
+    }
+
+    int reparsed() {
+        return reparsed.get();
+    }
+
+    void load() {
+        store.load().ifPresent(loaded -> {
+            entries.clear();
+            entries.putAll(loaded);
+            dirty = false;
+        });
+    }
+
+    /**
+     * Write the cache back, unless nothing changed since it was loaded.
+     */
+    void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            store.save(Map.copyOf(entries));
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("Warning: Could not save discovery cache: " + e.getMessage());
+        }
+    }
+}
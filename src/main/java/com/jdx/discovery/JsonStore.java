@@ -0,0 +1,84 @@
+package com.jdx.discovery;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdx.util.AtomicFiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A map of entries persisted as versioned JSON, shared by the discovery caches and
+ * indexes.
+ *
+ * <p>Files are replaced through {@link AtomicFiles}, so another jdx process loading
+ * the file while this one saves it sees either the old or the new content, never a
+ * truncated file. A file of another format version, or one that cannot be parsed,
+ * loads as empty and is rebuilt by the next scan.
+ *
+ * @param <E> the entry type
+ */
+final class JsonStore<E> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Path file;
+    private final int version;
+    private final JavaType dataType;
+
+    /**
+     * @param version bumped by the owner whenever the entry shape or meaning changes,
+     *                which discards files written with an older version
+     */
+    JsonStore(Path file, int version, Class<E> entryType) {
+        this.file = file;
+        this.version = version;
+        this.dataType = MAPPER.getTypeFactory().constructParametricType(Data.class, entryType);
+    }
+
+    /**
+     * Read the entries.
+     *
+     * @return empty when there is no file yet; an empty map when the file is corrupt or of
+     *         another format version
+     */
+    Optional<Map<String, E>> load() {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            Data<E> data = MAPPER.readValue(file.toFile(), dataType);
+            return Optional.of(data.version == version && data.entries != null ? data.entries : Map.of());
+        } catch (IOException e) {
+            return Optional.of(Map.of());
+        }
+    }
+
+    /**
+     * Replace the file with {@code entries}.
+     */
+    void save(Map<String, E> entries) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        AtomicFiles.write(file, MAPPER.writeValueAsBytes(new Data<>(version, entries)));
+    }
+
+    // Helper class for JSON serialization
+    private static class Data<E> {
+        public int version;
+        public Map<String, E> entries;
+
+        // This constructor is used through reflection
+        @SuppressWarnings("unused")
+        public Data() {}
+
+        public Data(int version, Map<String, E> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.jdx.discovery;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The mounted file systems, from {@code /proc/self/mountinfo}, so that a whole-machine
+ * walk can tell where a mount boundary is and what is on the other side.
+ *
+ * <p>Each line describes one mount:
+ * {@code <id> <parent> <major:minor> <root> <mount point> <options> [<optional>...] - <type> <source> <super options>}.
+ * When several file systems are stacked on one mount point, the last one listed is the
+ * visible one.
+ */
+final class MountTable {
+
+    private static final Path MOUNTINFO = Paths.get("/proc/self/mountinfo");
+
+    /** Kernel and virtual file systems that never hold a JDK. */
+    private static final Set<String> PSEUDO = Set.of(
+        "proc", "sysfs", "cgroup", "cgroup2", "devtmpfs", "devpts", "mqueue", "debugfs", "tracefs",
+        "securityfs", "pstore", "bpf", "configfs", "fusectl", "hugetlbfs", "binfmt_misc", "autofs",
+        "efivarfs", "selinuxfs", "nsfs", "rpc_pipefs", "ramfs");
+
+    /** Network file systems, which are slow to walk and usually shared between machines. */
+    private static final Set<String> REMOTE = Set.of(
+        "nfs", "nfs4", "cifs", "smb3", "smbfs", "9p", "afs", "ceph", "glusterfs", "lustre", "gpfs",
+        "davfs", "fuse.sshfs", "fuse.rclone", "fuse.s3fs", "fuse.gcsfuse");
+
+    /**
+     * A mounted file system.
+     *
+     * @param device major:minor device number
+     * @param root   directory of the file system mounted here, {@code /} unless a bind mount
+     * @param point  where it is mounted
+     * @param type   file system type, such as {@code ext4} or {@code nfs4}
+     */
+    record Mount(String device, String root, Path point, String type) {
+
+        boolean isPseudo() {
+            return PSEUDO.contains(type);
+        }
+
+        boolean isRemote() {
+            return REMOTE.contains(type) || type.startsWith("nfs");
+        }
+    }
+
+    private final Map<Path, Mount> mounts;
+
+    private MountTable(Map<Path, Mount> mounts) {
+        this.mounts = mounts;
+    }
+
+    /**
+     * The mounts of the current process; empty where {@code /proc} is not available, in
+     * which case nothing is treated as a boundary.
+     */
+    static MountTable current() {
+        try {
+            return parse(Files.readAllLines(MOUNTINFO, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return new MountTable(Map.of());
+        }
+    }
+
+    static MountTable parse(List<String> lines) {
+        Map<Path, Mount> mounts = new HashMap<>();
+        for (String line : lines) {
+            String[] fields = line.split(" ");
+            int separator = List.of(fields).indexOf("-");
+            if (fields.length < 6 || separator < 6 || separator + 1 >= fields.length) {
+                continue;
+            }
+            Path point = Paths.get(unescape(fields[4]));
+            mounts.put(point, new Mount(fields[2], unescape(fields[3]), point, fields[separator + 1]));
+        }
+        return new MountTable(mounts);
+    }
+
+    /**
+     * The file system mounted exactly at {@code directory}, or {@code null} if the
+     * directory is not a mount point.
+     */
+    Mount mountAt(Path directory) {
+        return mounts.get(directory);
+    }
+
+    int size() {
+        return mounts.size();
+    }
+
+    /**
+     * Undo the octal escapes ({@code \040} for a space) used for paths in mountinfo.
+     */
+    private static String unescape(String field) {
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+        StringBuilder result = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 3 < field.length() && isOctal(field, i + 1)) {
+                result.append((char) Integer.parseInt(field.substring(i + 1, i + 4), 8));
+                i += 3;
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static boolean isOctal(String field, int start) {
+        for (int i = start; i < start + 3; i++) {
+            if (field.charAt(i) < '0' || field.charAt(i) > '7') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
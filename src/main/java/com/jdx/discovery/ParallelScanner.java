@@ -0,0 +1,297 @@
+package com.jdx.discovery;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.jdx.model.JdkInfo;
+
+/**
+ * Walks discovery roots concurrently on virtual threads.
+ *
+ * <p>Every source and every root runs as its own task, so a slow mount only delays the
+ * JDKs found beneath it. Roots are traversed with {@link IndexedWalker}, and each JDK
+ * home it recognises is parsed as a separate task while the walk continues.
+ * Concurrency is bounded by a file-descriptor budget: each permit covers one directory
+ * walk or one {@code release} file being parsed. Sources are started in priority order
+ * and permits are handed out fairly, so higher-priority sources get to the disk first.
+ * Results are merged in source, root and path order, so the output does not depend on
+ * thread scheduling; a JDK reached from several roots is placed by the caller (see
+ * {@link CanonicalHomes#inRootOrder}).
+ *
+ * <p>Each root can be given its own time budget, and the whole scan an overall deadline.
+ * A root that runs out of time is abandoned rather than waited for: whatever it found so
+ * far is kept and the root is reported as timed out. Roots that timed out in earlier
+ * scans are deprioritised: they walk one at a time on a lane of their own, so a hung
+ * mount cannot hold permits that healthy roots need, and they always run under a
+ * budget.
+ */
+final class ParallelScanner {
+
+    /** Default number of directories or files that may be open at the same time. */
+    static final int DEFAULT_FILE_DESCRIPTOR_BUDGET =
+        Math.min(64, Math.max(8, Runtime.getRuntime().availableProcessors() * 4));
+
+    /** Budget for roots that timed out before, when no root timeout is configured. */
+    static final Duration DEFAULT_SLOW_ROOT_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Outcome of a scan.
+     *
+     * @param jdks      discovered JDKs in deterministic order, possibly containing duplicates
+     * @param timedOut  roots abandoned because their budget or the deadline ran out;
+     *                  their results are partial
+     * @param recovered previously slow roots that completed within their budget this time
+     * @param sources   how each source performed, in the order the sources were started
+     * @param roots     the roots whose results were merged, in merge order
+     */
+    record Result(List<JdkInfo> jdks, List<Path> timedOut, List<Path> recovered, List<SourceTiming> sources,
+                  List<DiscoveryRoot> roots) {}
+
+    /**
+     * A root being scanned.
+     *
+     * @param found    JDKs parsed so far, by home path; read even if the root is abandoned
+     * @param deadline nanos after the start of the scan by which the root must complete
+     * @param finished nanos after the start of the scan at which the root completed
+     */
+    private record RootScan(DiscoveryRoot root, boolean slow, Map<Path, JdkInfo> found, long deadline,
+                            AtomicLong finished, Future<?> task) {}
+
+    private final Semaphore fileDescriptors;
+    private final Semaphore slowLane = new Semaphore(1);
+    private final IndexedWalker walker;
+    private final Function<Path, Optional<JdkInfo>> probe;
+    private final Duration deadline;
+    private final Duration rootTimeout;
+    private final Set<Path> slowRoots;
+
+    /**
+     * @param options discovery options supplying the file-descriptor budget, the
+     *                deadline, the root timeout and the roots known to be slow
+     * @param walker  walks roots deeper than a single home
+     * @param probe   parses a candidate home
+     */
+    ParallelScanner(DiscoveryOptions options, IndexedWalker walker, Function<Path, Optional<JdkInfo>> probe) {
+        if (options.fileDescriptorBudget() < 1) {
+            throw new IllegalArgumentException("File descriptor budget must be at least 1");
+        }
+        this.fileDescriptors = new Semaphore(options.fileDescriptorBudget(), true);
+        this.walker = walker;
+        this.probe = probe;
+        this.deadline = options.deadline();
+        this.rootTimeout = options.rootTimeout();
+        this.slowRoots = options.slowRoots();
+    }
+
+    /**
+     * Scan all roots produced by the given sources.
+     *
+     * <p>Interrupting the calling thread cancels the scan: outstanding tasks are
+     * interrupted and whatever was found so far is returned.
+     *
+     * @param sources discovery sources; each runs on its own virtual thread, which lets slow
+     *                sources (such as a {@code java_home} query) overlap with the walk
+     * @param context the scan the sources take part in
+     * @param onFound called from scanner threads as soon as each JDK has been parsed
+     */
+    Result scan(List<DiscoverySource> sources, DiscoveryContext context, Consumer<JdkInfo> onFound) {
+        long origin = System.nanoTime();
+        long scanDeadline = deadlineAfter(0, deadline);
+        List<JdkInfo> jdks = new ArrayList<>();
+        List<Path> timedOut = new ArrayList<>();
+        List<Path> recovered = new ArrayList<>();
+        List<SourceTiming> timings = new ArrayList<>();
+        List<DiscoveryRoot> merged = new ArrayList<>();
+        List<DiscoverySource> ordered = sources.stream()
+            .sorted(Comparator.comparingInt(DiscoverySource::priority).reversed())
+            .toList();
+        
+        // Tasks left running at the end are interrupted, never waited for
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<List<RootScan>>> futures = new ArrayList<>();
+            List<AtomicLong> produced = new ArrayList<>();
+            for (DiscoverySource source : ordered) {
+                AtomicLong rootsProduced = new AtomicLong();
+                produced.add(rootsProduced);
+                futures.add(executor.submit(() -> {
+                    try {
+                        return startSource(executor, source, context, origin, onFound);
+                    } finally {
+                        rootsProduced.set(System.nanoTime() - origin);
+                    }
+                }));
+            }
+            
+            for (int i = 0; i < ordered.size(); i++) {
+                DiscoverySource source = ordered.get(i);
+                List<RootScan> roots;
+                try {
+                    roots = futures.get(i).get(remaining(origin, scanDeadline), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    // A failing source (missing tool, unreadable directory) yields nothing
+                    timings.add(timing(source, produced.get(i).get(), 0, 0, false));
+                    continue;
+                } catch (TimeoutException e) {
+                    timings.add(timing(source, System.nanoTime() - origin, 0, 0, true));
+                    continue;
+                }
+                
+                int sourceJdks = 0;
+                boolean sourceTimedOut = false;
+                long finished = produced.get(i).get();
+                for (RootScan root : roots) {
+                    if (!await(root.task(), origin, Math.min(scanDeadline, root.deadline()))) {
+                        root.task().cancel(true);
+                        timedOut.add(root.root().path());
+                        root.finished().compareAndSet(0, System.nanoTime() - origin);
+                        sourceTimedOut = true;
+                    } else if (root.slow()) {
+                        recovered.add(root.root().path());
+                    }
+                    jdks.addAll(root.found().values());
+                    merged.add(root.root());
+                    sourceJdks += root.found().size();
+                    finished = Math.max(finished, root.finished().get());
+                }
+                timings.add(timing(source, finished, roots.size(), sourceJdks, sourceTimedOut));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Result(jdks, timedOut, recovered, timings, merged);
+    }
+
+    private List<RootScan> startSource(ExecutorService executor, DiscoverySource source, DiscoveryContext context,
+                                       long origin, Consumer<JdkInfo> onFound) throws Exception {
+        List<RootScan> scans = new ArrayList<>();
+        for (DiscoveryRoot root : source.roots(context)) {
+            boolean slow = slowRoots.contains(root.path());
+            Duration budget = slow && rootTimeout == null ? DEFAULT_SLOW_ROOT_TIMEOUT : rootTimeout;
+            Map<Path, JdkInfo> found = new ConcurrentSkipListMap<>();
+            AtomicLong finished = new AtomicLong();
+            long rootDeadline = deadlineAfter(System.nanoTime() - origin, budget);
+            Future<?> task = executor.submit(() -> {
+                try {
+                    scanRoot(executor, root, slow, found, onFound);
+                } finally {
+                    finished.compareAndSet(0, System.nanoTime() - origin);
+                }
+            });
+            scans.add(new RootScan(root, slow, found, rootDeadline, finished, task));
+        }
+        return scans;
+    }
+
+    private static SourceTiming timing(DiscoverySource source, long elapsed, int roots, int jdks, boolean timedOut) {
+        return new SourceTiming(source.name(), source.priority(), Duration.ofNanos(elapsed), roots, jdks, timedOut);
+    }
+
+    private void scanRoot(ExecutorService executor, DiscoveryRoot root, boolean slow, Map<Path, JdkInfo> found,
+                          Consumer<JdkInfo> onFound) {
+        if (root.depth() == 0) {
+            probe(root.path(), onFound).ifPresent(jdk -> found.put(root.path(), jdk));
+            return;
+        }
+        
+        // Parse each home on its own task while the walk carries on
+        Map<Path, Future<?>> homes = new TreeMap<>();
+        Semaphore lane = slow ? slowLane : fileDescriptors;
+        if (acquire(lane)) {
+            try {
+                walker.walk(root, home -> homes.computeIfAbsent(home, h -> executor.submit(
+                    () -> probe(h, onFound).ifPresent(jdk -> found.put(h, jdk)))));
+            } finally {
+                lane.release();
+            }
+        }
+        
+        for (Future<?> home : homes.values()) {
+            try {
+                home.get();
+            } catch (ExecutionException e) {
+                // A home that fails to parse is skipped
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private Optional<JdkInfo> probe(Path candidate, Consumer<JdkInfo> onFound) {
+        if (!acquire(fileDescriptors)) {
+            return Optional.empty();
+        }
+        Optional<JdkInfo> jdk;
+        try {
+            jdk = probe.apply(candidate);
+        } finally {
+            fileDescriptors.release();
+        }
+        jdk.ifPresent(onFound);
+        return jdk;
+    }
+
+    private static boolean acquire(Semaphore semaphore) {
+        try {
+            semaphore.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Wait for a root task until {@code deadline} nanos after {@code origin}.
+     *
+     * @return false if the task was still running at the deadline
+     */
+    private static boolean await(Future<?> task, long origin, long deadline) throws InterruptedException {
+        try {
+            task.get(remaining(origin, deadline), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException | CancellationException e) {
+            // A failed root contributes what it found before failing
+            return true;
+        }
+    }
+
+    /**
+     * Deadlines are kept as nanos since the start of the scan, with no budget meaning never.
+     */
+    private static long deadlineAfter(long elapsed, Duration budget) {
+        if (budget == null) {
+            return Long.MAX_VALUE;
+        }
+        long nanos = budget.toNanos();
+        return nanos > Long.MAX_VALUE - elapsed ? Long.MAX_VALUE : elapsed + nanos;
+    }
+
+    private static long remaining(long origin, long deadline) {
+        return Math.max(0, deadline - (System.nanoTime() - origin));
+    }
+}
@@ -0,0 +1,147 @@
+package com.jdx.discovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * In-process equivalent of {@code which -a} / {@code where}: resolves executables
+ * against PATH without spawning a child process.
+ */
+public final class PathResolver {
+
+    private static final boolean IS_WINDOWS = System.getProperty("os.name").toLowerCase().contains("win");
+
+    private final List<Path> directories;
+    private final List<String> extensions;
+
+    /**
+     * @param path    PATH value, entries separated by {@link File#pathSeparator}
+     * @param pathExt Windows PATHEXT value, entries separated by {@code ;}, or {@code null}
+     *                on other platforms
+     */
+    PathResolver(String path, String pathExt) {
+        this.directories = splitPath(path);
+        this.extensions = splitExtensions(pathExt);
+    }
+
+    /**
+     * Resolver for the PATH of the current process.
+     */
+    public static PathResolver fromEnvironment() {
+        String pathExt = null;
+        if (IS_WINDOWS) {
+            pathExt = System.getenv("PATHEXT");
+            if (pathExt == null) {
+                pathExt = ".COM;.EXE;.BAT;.CMD";
+            }
+        }
+        return new PathResolver(System.getenv("PATH"), pathExt);
+    }
+
+    /**
+     * Find every executable with the given name on PATH, in PATH order.
+     *
+     * @param name command name without extension, e.g. {@code java}
+     * @return matching executables as found on PATH (symlinks not resolved)
+     */
+    public List<Path> findAll(String name) {
+        List<Path> matches = new ArrayList<>();
+        for (Path directory : directories) {
+            for (String extension : extensions) {
+                Path candidate = directory.resolve(name + extension);
+                if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+                    matches.add(candidate);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Find the first executable with the given name on PATH.
+     */
+    public Optional<Path> find(String name) {
+        return findAll(name).stream().findFirst();
+    }
+
+    /**
+     * Resolve every {@code java} on PATH back to its JDK home, following symlinks
+     * (e.g. /usr/bin/java -> /etc/alternatives/java -> /usr/lib/jvm/.../bin/java).
+     *
+     * @return distinct JDK homes in PATH order
+     */
+    public List<Path> javaHomes() {
+        Set<Path> homes = new LinkedHashSet<>();
+        for (Path java : findAll("java")) {
+            homeOf(java).ifPresent(homes::add);
+        }
+        return new ArrayList<>(homes);
+    }
+
+    /**
+     * Map a {@code bin/java} executable to its JDK home.
+     */
+    static Optional<Path> homeOf(Path javaExecutable) {
+        try {
+            Path realJava = javaExecutable.toRealPath();
+            Path bin = realJava.getParent();
+            if (bin == null || bin.getParent() == null) {
+                return Optional.empty();
+            }
+            // Go up two directories: bin -> jdk_home
+            return Optional.of(bin.getParent());
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static List<Path> splitPath(String path) {
+        List<Path> directories = new ArrayList<>();
+        if (path == null) {
+            return directories;
+        }
+        for (String entry : path.split(File.pathSeparator)) {
+            // Empty entries mean the current directory; never resolve java from there
+            if (entry.isBlank()) {
+                continue;
+            }
+            try {
+                directories.add(Paths.get(stripQuotes(entry.trim())));
+            } catch (InvalidPathException e) {
+                // Skip malformed PATH entries
+            }
+        }
+        return directories;
+    }
+
+    private static List<String> splitExtensions(String pathExt) {
+        if (pathExt == null) {
+            return List.of("");
+        }
+        List<String> extensions = new ArrayList<>();
+        // PATHEXT is a Windows variable, so always separated by ';'
+        for (String extension : pathExt.split(";")) {
+            if (!extension.isBlank()) {
+                extensions.add(extension.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return extensions.isEmpty() ? List.of(".exe") : extensions;
+    }
+
+    private static String stripQuotes(String entry) {
+        if (entry.length() >= 2 && entry.startsWith("\"") && entry.endsWith("\"")) {
+            return entry.substring(1, entry.length() - 1);
+        }
+        return entry;
+    }
+}
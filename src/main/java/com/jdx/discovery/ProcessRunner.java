@@ -0,0 +1,98 @@
+package com.jdx.discovery;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs the helper commands discovery relies on ({@code java -XshowSettings}, {@code locate},
+ * {@code rpm}) with a time limit: a command still running when the limit passes is
+ * killed, which also ends the read of its output. The command is waited for, or killed
+ * when its output cannot be read, so none is left running.
+ */
+public final class ProcessRunner {
+
+    /**
+     * Reads a command's standard output.
+     */
+    @FunctionalInterface
+    public interface OutputReader<T> {
+        T read(InputStream output) throws IOException;
+    }
+
+    /**
+     * A command that ran to completion.
+     *
+     * @param exitStatus the command's exit status
+     * @param output     what the reader made of its output
+     */
+    public record Result<T>(int exitStatus, T output) {}
+
+    private ProcessRunner() {}
+
+    /**
+     * A reader handing each line of UTF-8 output to {@code onLine}.
+     */
+    public static OutputReader<Void> lines(Consumer<String> onLine) {
+        return output -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(output, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                onLine.accept(line);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Start {@code builder}'s command with its standard input closed, read its output with
+     * {@code reader}, and wait for it to exit.
+     *
+     * @throws IOException if the command cannot be started, its output cannot be read, or
+     *                     it was killed after {@code timeout}; an
+     *                     {@link InterruptedIOException} if the caller is interrupted
+     */
+    public static <T> Result<T> run(ProcessBuilder builder, Duration timeout, OutputReader<T> reader)
+            throws IOException {
+        Process process = builder.start();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        Thread watchdog = Thread.ofVirtual().name("jdx-process-watchdog").start(() -> {
+            try {
+                if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    timedOut.set(true);
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+            }
+        });
+        try {
+            process.getOutputStream().close();
+            T output;
+            try (InputStream in = process.getInputStream()) {
+                output = reader.read(in);
+            }
+            int status = process.waitFor();
+            watchdog.join();
+            if (timedOut.get()) {
+                throw new IOException(builder.command().get(0) + " did not finish within " + timeout.toSeconds() + "s");
+            }
+            return new Result<>(status, output);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while running " + builder.command().get(0));
+        } finally {
+            if (process.isAlive()) {
+                // The reader failed or the caller was interrupted; the watchdog ends with the process
+                process.destroyForcibly();
+            }
+        }
+    }
+}
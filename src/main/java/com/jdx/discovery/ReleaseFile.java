@@ -0,0 +1,169 @@
+package com.jdx.discovery;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Metadata from a JDK {@code release} file.
+ *
+ * <p>The file is a list of {@code KEY="value"} lines. It is parsed in a single pass over
+ * its bytes: keys are compared in place against the handful we care about, quotes are
+ * stripped by index arithmetic, and strings are only created for the values we keep.
+ * When a key repeats, the last occurrence wins.
+ */
+record ReleaseFile(
+    String javaVersion,
+    String runtimeVersion,
+    String implementor,
+    String implementorVersion,
+    String osArch,
+    String libc,
+    String buildType,
+    List<String> modules
+) {
+
+    private static final byte[][] KEYS = {
+        bytes("JAVA_VERSION"),
+        bytes("JAVA_RUNTIME_VERSION"),
+        bytes("IMPLEMENTOR"),
+        bytes("IMPLEMENTOR_VERSION"),
+        bytes("OS_ARCH"),
+        bytes("LIBC"),
+        bytes("BUILD_TYPE"),
+        bytes("MODULES")
+    };
+
+    private static final int JAVA_VERSION = 0;
+    private static final int JAVA_RUNTIME_VERSION = 1;
+    private static final int IMPLEMENTOR = 2;
+    private static final int IMPLEMENTOR_VERSION = 3;
+    private static final int OS_ARCH = 4;
+    private static final int LIBC = 5;
+    private static final int BUILD_TYPE = 6;
+    private static final int MODULES = 7;
+
+    /**
+     * Read and parse the release file at {@code path}.
+     */
+    static ReleaseFile read(Path path) throws IOException {
+        return parse(Files.readAllBytes(path));
+    }
+
+    /**
+     * Parse the contents of a release file.
+     */
+    static ReleaseFile parse(byte[] content) {
+        return parse(content, 0, content.length);
+    }
+
+    /**
+     * Parse release file contents held in {@code content[offset, offset + length)}.
+     */
+    static ReleaseFile parse(byte[] content, int offset, int length) {
+        String[] values = new String[KEYS.length];
+        int end = offset + length;
+        int lineStart = offset;
+
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            int equals = -1;
+            while (lineEnd < end && content[lineEnd] != '\n') {
+                if (equals < 0 && content[lineEnd] == '=') {
+                    equals = lineEnd;
+                }
+                lineEnd++;
+            }
+
+            if (equals > 0) {
+                int keyStart = skipWhitespace(content, lineStart, equals);
+                int keyEnd = trimWhitespace(content, keyStart, equals);
+                int key = keyIndex(content, keyStart, keyEnd);
+                if (key >= 0) {
+                    values[key] = value(content, equals + 1, lineEnd);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        return new ReleaseFile(
+            values[JAVA_VERSION],
+            values[JAVA_RUNTIME_VERSION],
+            values[IMPLEMENTOR],
+            values[IMPLEMENTOR_VERSION],
+            values[OS_ARCH],
+            values[LIBC],
+            values[BUILD_TYPE],
+            splitModules(values[MODULES])
+        );
+    }
+
+    private static int keyIndex(byte[] content, int from, int to) {
+        for (int i = 0; i < KEYS.length; i++) {
+            byte[] key = KEYS[i];
+            if (key.length == to - from && Arrays.equals(key, 0, key.length, content, from, to)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decode the value between {@code from} and {@code to}, dropping surrounding
+     * whitespace, a trailing CR and one pair of double quotes.
+     */
+    private static String value(byte[] content, int from, int to) {
+        int start = skipWhitespace(content, from, to);
+        int end = trimWhitespace(content, start, to);
+        if (start < end && content[start] == '"') {
+            start++;
+            if (end > start && content[end - 1] == '"') {
+                end--;
+            }
+        }
+        return new String(content, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private static int skipWhitespace(byte[] content, int from, int to) {
+        while (from < to && isWhitespace(content[from])) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimWhitespace(byte[] content, int from, int to) {
+        while (to > from && isWhitespace(content[to - 1])) {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static List<String> splitModules(String modules) {
+        if (modules == null || modules.isEmpty()) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= modules.length(); i++) {
+            if (i == modules.length() || modules.charAt(i) == ' ') {
+                if (i > start) {
+                    result.add(modules.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,260 @@
+package com.jdx.discovery;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The Java processes running on this machine, read from {@code /proc} in a single pass
+ * without attaching to any of them (no {@code jps} or {@code jcmd}).
+ *
+ * <p>For every process the {@code exe} link is read; only processes whose executable is a
+ * {@code java} launcher, or lies anywhere under a known JDK home (so {@code jshell},
+ * {@code javac} and the launchers of jlinked or jpackaged runtimes count too), have their
+ * {@code status} (for the resident set size) and {@code stat} (for the start time) read
+ * as well. Processes of other users whose
+ * {@code exe} link cannot be read are counted but not described.
+ */
+public final class RunningJvms {
+
+    private static final Path PROC = Paths.get("/proc");
+
+    /**
+     * Clock ticks per second ({@code USER_HZ}) in {@code /proc/<pid>/stat} when the
+     * auxiliary vector does not give them: 100 on every architecture Java runs on.
+     */
+    private static final long DEFAULT_CLOCK_TICKS = 100;
+
+    /** {@code AT_CLKTCK} in {@code /proc/self/auxv}: the clock ticks per second. */
+    private static final long AT_CLKTCK = 17;
+
+    /** Suffix the kernel appends to {@code exe} when the executable was removed or replaced. */
+    private static final String DELETED = " (deleted)";
+
+    /**
+     * A running JVM.
+     *
+     * @param pid        process id
+     * @param executable the launcher it was started from
+     * @param deleted    whether the launcher has been removed or replaced since it started
+     * @param rssBytes   resident set size, or -1 if it could not be read
+     * @param started    when the process started, or {@code null} if unknown
+     */
+    public record JvmProcess(long pid, Path executable, boolean deleted, long rssBytes, Instant started) {
+
+        public Duration uptime(Instant now) {
+            return started == null ? Duration.ZERO : Duration.between(started, now);
+        }
+    }
+
+    /**
+     * What one pass over {@code /proc} found.
+     *
+     * @param processes    the Java processes
+     * @param inaccessible processes whose executable could not be read, usually other users'
+     */
+    public record Snapshot(List<JvmProcess> processes, int inaccessible) {}
+
+    /**
+     * Reads the target of a {@code /proc/<pid>/exe} link.
+     */
+    interface LinkReader {
+        Path read(Path link) throws IOException;
+    }
+
+    private RunningJvms() {}
+
+    public static boolean isSupported() {
+        return Files.isDirectory(PROC.resolve("self"));
+    }
+
+    /**
+     * Whether this process runs as root, and so can read every process's {@code exe} link.
+     */
+    public static boolean isRoot() {
+        try (BufferedReader reader = Files.newBufferedReader(PROC.resolve("self/status"), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("Uid:")) {
+                    // Real, effective, saved and file system uid; access checks use the effective one
+                    return line.substring("Uid:".length()).trim().split("\\s+")[1].equals("0");
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Unknown: assume not
+        }
+        return false;
+    }
+
+    /**
+     * @param homes JDK homes whose executables are JVMs whatever they are called
+     */
+    public static Snapshot scan(Collection<Path> homes) {
+        return scan(PROC, Set.copyOf(homes));
+    }
+
+    static Snapshot scan(Path proc, Set<Path> homes) {
+        return scan(proc, homes, Files::readSymbolicLink);
+    }
+
+    /**
+     * @param links reads {@code exe} links; tests pass one that can deny access, which a
+     *              fake {@code /proc} cannot do for root
+     */
+    static Snapshot scan(Path proc, Set<Path> homes, LinkReader links) {
+        Instant bootTime = bootTime(proc);
+        long clockTicks = clockTicks(proc);
+        List<JvmProcess> processes = new ArrayList<>();
+        int inaccessible = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(proc)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (!isPid(name)) {
+                    continue;
+                }
+                String exe;
+                try {
+                    exe = links.read(entry.resolve("exe")).toString();
+                } catch (AccessDeniedException e) {
+                    // Another user's process
+                    inaccessible++;
+                    continue;
+                } catch (IOException e) {
+                    // Kernel threads have no executable, and processes may exit while listed
+                    continue;
+                }
+                boolean deleted = exe.endsWith(DELETED);
+                if (deleted) {
+                    exe = exe.substring(0, exe.length() - DELETED.length());
+                }
+                Path executable = Paths.get(exe);
+                if (!isJavaLauncher(executable) && !isUnder(executable, homes)) {
+                    continue;
+                }
+                processes.add(new JvmProcess(Long.parseLong(name), executable, deleted,
+                    residentSetSize(entry), startTime(entry, bootTime, clockTicks)));
+            }
+        } catch (IOException e) {
+            // No /proc: nothing is known to be running
+        }
+        return new Snapshot(processes, inaccessible);
+    }
+
+    private static boolean isPid(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isJavaLauncher(Path executable) {
+        Path fileName = executable.getFileName();
+        return fileName != null && (fileName.toString().equals("java") || fileName.toString().equals("javaw"));
+    }
+
+    private static boolean isUnder(Path executable, Set<Path> homes) {
+        for (Path dir = executable.getParent(); dir != null; dir = dir.getParent()) {
+            if (homes.contains(dir)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code VmRSS} from {@code /proc/<pid>/status}, in bytes.
+     */
+    private static long residentSetSize(Path process) {
+        try (BufferedReader reader = Files.newBufferedReader(process.resolve("status"), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("VmRSS:")) {
+                    String[] fields = line.substring("VmRSS:".length()).trim().split("\\s+");
+                    return Long.parseLong(fields[0]) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The process exited while being read
+        }
+        return -1;
+    }
+
+    /**
+     * Field 22 of {@code /proc/<pid>/stat}, the start time in clock ticks after boot. The
+     * command name in field 2 may contain spaces and parentheses, so fields are counted
+     * from the last closing parenthesis.
+     */
+    private static Instant startTime(Path process, Instant bootTime, long clockTicks) {
+        if (bootTime == null) {
+            return null;
+        }
+        try {
+            String stat = Files.readString(process.resolve("stat"), StandardCharsets.UTF_8);
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).trim().split(" ");
+            long ticks = Long.parseLong(fields[19]);
+            return bootTime.plusMillis(ticks * 1000 / clockTicks);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@code AT_CLKTCK} from this process's auxiliary vector, pairs of native words of type
+     * and value ending with type 0.
+     */
+    private static long clockTicks(Path proc) {
+        try {
+            ByteBuffer auxv = ByteBuffer.wrap(Files.readAllBytes(proc.resolve("self/auxv"))).order(ByteOrder.nativeOrder());
+            boolean wide = !"32".equals(System.getProperty("sun.arch.data.model"));
+            int pair = wide ? 2 * Long.BYTES : 2 * Integer.BYTES;
+            while (auxv.remaining() >= pair) {
+                long type = wide ? auxv.getLong() : Integer.toUnsignedLong(auxv.getInt());
+                long value = wide ? auxv.getLong() : Integer.toUnsignedLong(auxv.getInt());
+                if (type == 0) {
+                    break;
+                }
+                if (type == AT_CLKTCK && value > 0) {
+                    return value;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Fall back to the value every Linux architecture Java runs on uses
+        }
+        return DEFAULT_CLOCK_TICKS;
+    }
+
+    /**
+     * The {@code btime} line of {@code /proc/stat}, in seconds since the epoch.
+     */
+    private static Instant bootTime(Path proc) {
+        try (BufferedReader reader = Files.newBufferedReader(proc.resolve("stat"), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("btime ")) {
+                    return Instant.ofEpochSecond(Long.parseLong(line.substring("btime ".length()).trim()));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Start times stay unknown
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.jdx.discovery;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counters describing the most recent discovery scan.
+ *
+ * @param cacheHits          JDK homes served from the fingerprint cache
+ * @param cacheMisses        JDK homes seen for the first time and parsed
+ * @param reparsed           cached JDK homes whose fingerprint changed and were parsed again
+ * @param directoriesReused  directories whose indexed listing was still valid
+ * @param directoriesListed  directories that were read from disk
+ * @param timedOutRoots      roots abandoned when their time budget ran out; results under
+ *                           them are partial
+ * @param recoveredRoots     roots that timed out before but completed in time this scan
+ * @param aliases            other paths at which a JDK was reached, keyed by its canonical
+ *                           path; JDKs emitted by {@link JdkDiscovery#stream} do not carry
+ *                           these yet, since they are only complete once the scan ends
+ * @param sourceTimings      time spent and JDKs found per discovery source, highest priority first
+ */
+public record ScanStats(int cacheHits, int cacheMisses, int reparsed, int directoriesReused, int directoriesListed,
+                        List<Path> timedOutRoots, List<Path> recoveredRoots, Map<String, List<String>> aliases,
+                        List<SourceTiming> sourceTimings) {
+
+    public static ScanStats empty() {
+        return new ScanStats(0, 0, 0, 0, 0, List.of(), List.of(), Map.of(), List.of());
+    }
+}
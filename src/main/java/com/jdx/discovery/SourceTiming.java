@@ -0,0 +1,16 @@
+package com.jdx.discovery;
+
+import java.time.Duration;
+
+/**
+ * How one discovery source performed during a scan.
+ *
+ * @param name     source name
+ * @param priority source priority
+ * @param elapsed  time from the start of the scan until the source's last root finished
+ * @param roots    number of roots the source produced
+ * @param jdks     number of JDKs parsed under those roots; aliases of a JDK already
+ *                 claimed by another source do not count
+ * @param timedOut whether any of its roots ran out of time
+ */
+public record SourceTiming(String name, int priority, Duration elapsed, int roots, int jdks, boolean timedOut) {}
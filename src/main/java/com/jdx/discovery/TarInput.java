@@ -0,0 +1,211 @@
+package com.jdx.discovery;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Forward-only reader of the entries of a tar stream (ustar, GNU and pax).
+ *
+ * <p>Only headers are decoded; entry contents are skipped unless read with
+ * {@link #read(int)}. GNU long names and pax {@code path} records are applied to the
+ * entry that follows them, so callers only ever see complete names. Positions are
+ * tracked so that callers holding a seekable file can open an entry's data later.
+ */
+final class TarInput {
+
+    private static final int BLOCK = 512;
+
+    /** Upper bound for pax headers and long names, which are read into memory. */
+    private static final int MAX_HEADER_DATA = 1024 * 1024;
+
+    /**
+     * A tar entry.
+     *
+     * @param name   entry path, without leading {@code ./} or trailing slash
+     * @param type   tar type flag ({@code '0'} regular file, {@code '5'} directory, ...)
+     * @param size   size of the entry data in bytes
+     * @param offset position of the entry data from the start of the stream
+     */
+    record Entry(String name, byte type, long size, long offset) {
+
+        boolean isFile() {
+            return type == '0' || type == 0;
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] header = new byte[BLOCK];
+    private long position;
+    private long remaining;
+    private long padding;
+
+    TarInput(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Advance to the next entry, skipping whatever is left of the current one.
+     *
+     * @return the entry, or {@code null} at the end of the archive
+     */
+    Entry next() throws IOException {
+        skip(remaining + padding);
+        remaining = 0;
+        padding = 0;
+
+        String longName = null;
+        while (true) {
+            int read = in.readNBytes(header, 0, BLOCK);
+            position += read;
+            if (read < BLOCK || header[0] == 0) {
+                // End of archive: a zero block, or a truncated file
+                return null;
+            }
+            long size = number(header, 124, 12);
+            long padded = (size + BLOCK - 1) / BLOCK * BLOCK;
+            byte type = header[156];
+
+            if (type == 'L' || type == 'x' || type == 'g') {
+                // GNU long name, or a pax header that may carry the path of the next entry
+                byte[] data = readData(size, padded);
+                if (type == 'L') {
+                    longName = cString(data, 0, data.length);
+                } else if (type == 'x') {
+                    String path = paxPath(data);
+                    if (path != null) {
+                        longName = path;
+                    }
+                }
+                continue;
+            }
+
+            String name = longName;
+            if (name == null) {
+                name = cString(header, 0, 100);
+                String prefix = isUstar(header) ? cString(header, 345, 155) : "";
+                if (!prefix.isEmpty()) {
+                    name = prefix + "/" + name;
+                }
+            }
+            remaining = size;
+            padding = padded - size;
+            return new Entry(normalize(name), type, size, position);
+        }
+    }
+
+    /**
+     * Read the data of the current entry.
+     *
+     * @throws IOException if the entry is larger than {@code max} bytes or truncated
+     */
+    byte[] read(int max) throws IOException {
+        if (remaining > max) {
+            throw new IOException("Tar entry too large to read: " + remaining + " bytes");
+        }
+        byte[] data = in.readNBytes((int) remaining);
+        position += data.length;
+        if (data.length < remaining) {
+            throw new EOFException("Truncated tar entry");
+        }
+        remaining = 0;
+        return data;
+    }
+
+    private byte[] readData(long size, long padded) throws IOException {
+        if (size > MAX_HEADER_DATA) {
+            throw new IOException("Oversized tar header entry");
+        }
+        remaining = size;
+        byte[] data = read(MAX_HEADER_DATA);
+        skip(padded - size);
+        return data;
+    }
+
+    private void skip(long n) throws IOException {
+        in.skipNBytes(n);
+        position += n;
+    }
+
+    /**
+     * Extract the {@code path} record from pax extended header data, made of
+     * {@code "<length> <key>=<value>\n"} records.
+     */
+    private static String paxPath(byte[] data) throws IOException {
+        int position = 0;
+        while (position < data.length) {
+            int space = position;
+            while (space < data.length && data[space] != ' ') {
+                space++;
+            }
+            int length;
+            try {
+                length = Integer.parseInt(new String(data, position, space - position, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw new IOException("Corrupt pax header");
+            }
+            if (length <= space - position || position + length > data.length) {
+                throw new IOException("Corrupt pax header");
+            }
+            String record = new String(data, space + 1, position + length - space - 2, StandardCharsets.UTF_8);
+            if (record.startsWith("path=")) {
+                return record.substring("path=".length());
+            }
+            position += length;
+        }
+        return null;
+    }
+
+    /**
+     * Tar numbers are NUL- or space-terminated octal, or big-endian binary when the high
+     * bit of the first byte is set (GNU extension for sizes over 8 GiB).
+     */
+    private static long number(byte[] header, int offset, int length) throws IOException {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7F;
+            for (int i = 1; i < length; i++) {
+                value = (value << 8) | (header[offset + i] & 0xFF);
+            }
+            return value;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header[i];
+            if (b == 0 || b == ' ') {
+                if (value > 0) {
+                    break;
+                }
+                continue;
+            }
+            if (b < '0' || b > '7') {
+                throw new IOException("Corrupt tar header");
+            }
+            value = (value << 3) + (b - '0');
+        }
+        return value;
+    }
+
+    private static boolean isUstar(byte[] header) {
+        return header[257] == 'u' && header[258] == 's' && header[259] == 't'
+            && header[260] == 'a' && header[261] == 'r';
+    }
+
+    private static String cString(byte[] bytes, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && bytes[end] != 0) {
+            end++;
+        }
+        return new String(bytes, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    static String normalize(String name) {
+        while (name.startsWith("./")) {
+            name = name.substring(2);
+        }
+        while (name.startsWith("/")) {
+            name = name.substring(1);
+        }
+        return name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+    }
+}
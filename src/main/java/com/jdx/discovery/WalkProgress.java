@@ -0,0 +1,21 @@
+package com.jdx.discovery;
+
+import java.time.Duration;
+
+/**
+ * Progress of a whole-machine walk, reported about once a second and when it ends.
+ *
+ * @param directories directories read so far
+ * @param homes       JDK homes found so far
+ * @param elapsed     time since the walk started
+ */
+public record WalkProgress(long directories, long homes, Duration elapsed) {
+
+    /**
+     * Average throughput since the walk started.
+     */
+    public double directoriesPerSecond() {
+        long millis = elapsed.toMillis();
+        return millis == 0 ? 0 : directories * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,29 @@
+package com.jdx.discovery.sources;
+
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * Toolchains provisioned by Gradle into {@code ~/.gradle/jdks}. Depending on the Gradle
+ * version the home is either the provisioned directory itself or one level below it.
+ */
+public final class GradleSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "gradle";
+    }
+
+    @Override
+    public int priority() {
+        return 50;
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        return List.of(new DiscoveryRoot(context.userHome().resolve(".gradle/jdks"), 2));
+    }
+}
@@ -0,0 +1,28 @@
+package com.jdx.discovery.sources;
+
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * JDKs downloaded by IntelliJ IDEA into {@code ~/.jdks}.
+ */
+public final class IntelliJSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "intellij";
+    }
+
+    @Override
+    public int priority() {
+        return 50;
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        return List.of(DiscoveryRoot.children(context.userHome().resolve(".jdks")));
+    }
+}
@@ -0,0 +1,33 @@
+package com.jdx.discovery.sources;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * The JDK named by the {@code JAVA_HOME} environment variable.
+ */
+public final class JavaHomeSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "java-home";
+    }
+
+    @Override
+    public int priority() {
+        return 90;
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        String javaHome = System.getenv("JAVA_HOME");
+        if (javaHome == null || javaHome.isEmpty()) {
+            return List.of();
+        }
+        return List.of(DiscoveryRoot.home(Paths.get(javaHome)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.jdx.discovery.sources;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * JDKs installed by the Linux package manager under {@code /usr/lib/jvm}.
+ */
+public final class LinuxJvmSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "linux-jvm";
+    }
+
+    @Override
+    public int priority() {
+        return 100;
+    }
+
+    @Override
+    public boolean supports(DiscoveryContext context) {
+        return context.isLinux();
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        return List.of(DiscoveryRoot.children(Paths.get("/usr/lib/jvm")));
+    }
+}
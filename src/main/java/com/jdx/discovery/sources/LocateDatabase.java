@@ -0,0 +1,223 @@
+package com.jdx.discovery.sources;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.jdx.discovery.PathResolver;
+import com.jdx.discovery.ProcessRunner;
+
+/**
+ * The system locate database, used to find candidate JDK homes without walking the
+ * file system.
+ *
+ * <p>An {@code mlocate.db} the user can read is parsed directly: it lists every directory
+ * with the names of its entries, so a home is any directory holding both a
+ * {@code release} file and a {@code bin} directory. Otherwise, and for {@code plocate},
+ * whose index cannot be read without zstd, {@code plocate -b '\release'} or
+ * {@code locate -b '\release'} is run, and every directory holding a {@code release}
+ * file is a candidate.
+ *
+ * <p>The database is only as recent as the last {@code updatedb} run, so it is trusted
+ * for a directory only if it was updated after every directory that could hold a home,
+ * from the directory itself down to one level above the deepest home, last changed:
+ * unpacking or installing a JDK changes the directory it lands in.
+ */
+final class LocateDatabase {
+
+    private static final List<Path> DATABASES = List.of(
+        Paths.get("/var/lib/plocate/plocate.db"),
+        Paths.get("/var/lib/mlocate/mlocate.db"),
+        Paths.get("/var/cache/locate/locatedb"));
+
+    private static final byte[] MLOCATE_MAGIC = "\0mlocate".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Duration QUERY_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Path database;
+    private final FileTime updated;
+
+    LocateDatabase(Path database, FileTime updated) {
+        this.database = database;
+        this.updated = updated;
+    }
+
+    /**
+     * The first locate database present on this machine.
+     */
+    static Optional<LocateDatabase> find() {
+        for (Path database : DATABASES) {
+            try {
+                return Optional.of(new LocateDatabase(database, Files.getLastModifiedTime(database)));
+            } catch (IOException e) {
+                // Not installed, try the next one
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether the database was updated after {@code root} and every directory below it,
+     * down to {@code maxDepth - 1} levels, last changed; homes at most {@code maxDepth}
+     * levels down are then all in the database. Stops at the first changed directory.
+     */
+    boolean isFreshFor(Path root, int maxDepth) {
+        boolean[] fresh = {true};
+        try {
+            Files.walkFileTree(root, Set.of(), Math.max(maxDepth - 1, 0), new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return check(attrs);
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    // Entries at the depth limit are visited as files, directories included
+                    return attrs.isDirectory() ? check(attrs) : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    fresh[0] = false;
+                    return FileVisitResult.TERMINATE;
+                }
+
+                private FileVisitResult check(BasicFileAttributes attrs) {
+                    if (attrs.lastModifiedTime().compareTo(updated) > 0) {
+                        fresh[0] = false;
+                        return FileVisitResult.TERMINATE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            return false;
+        }
+        return fresh[0];
+    }
+
+    /**
+     * Candidate JDK homes below {@code roots}, at most {@code maxDepth} levels down.
+     *
+     * @throws IOException if the database cannot be read and no locate command works
+     */
+    List<Path> homes(List<Path> roots, int maxDepth) throws IOException {
+        List<Path> homes = new ArrayList<>();
+        if (database.getFileName().toString().equals("mlocate.db") && Files.isReadable(database)) {
+            readMlocate(roots, maxDepth, homes);
+        } else {
+            query(roots, maxDepth, homes);
+        }
+        return homes;
+    }
+
+    /**
+     * Parse {@code mlocate.db}: a header, then one record per directory made of its path
+     * and its entries, each a type byte (0 file, 1 directory, 2 end) and a name. See
+     * mlocate.db(5).
+     */
+    private void readMlocate(List<Path> roots, int maxDepth, List<Path> homes) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(database), 256 * 1024))) {
+            byte[] magic = new byte[MLOCATE_MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MLOCATE_MAGIC)) {
+                throw new IOException("Not an mlocate database: " + database);
+            }
+            int configSize = in.readInt();
+            in.skipNBytes(4);
+            readString(in);
+            in.skipNBytes(configSize);
+
+            while (true) {
+                // Directory time (seconds and nanoseconds) and padding; skip() may stop
+                // short at the end of the buffer, so only a missing first byte is the end
+                if (in.read() < 0) {
+                    return;
+                }
+                in.skipNBytes(15);
+                Path dir = Paths.get(readString(in));
+                boolean wanted = isBelow(dir, roots, maxDepth);
+                boolean release = false;
+                boolean bin = false;
+                for (int type = in.readUnsignedByte(); type != 2; type = in.readUnsignedByte()) {
+                    String name = readString(in);
+                    if (wanted) {
+                        release |= type == 0 && name.equals("release");
+                        bin |= type == 1 && name.equals("bin");
+                    }
+                }
+                if (release && bin) {
+                    homes.add(dir);
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated mlocate database: " + database);
+        }
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        byte[] buffer = new byte[256];
+        int length = 0;
+        for (int b = in.read(); b != 0; b = in.read()) {
+            if (b < 0) {
+                throw new EOFException();
+            }
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, length * 2);
+            }
+            buffer[length++] = (byte) b;
+        }
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Ask the locate command for every file named exactly {@code release}.
+     */
+    private void query(List<Path> roots, int maxDepth, List<Path> homes) throws IOException {
+        PathResolver path = PathResolver.fromEnvironment();
+        Path command = path.find("plocate").or(() -> path.find("locate"))
+            .orElseThrow(() -> new IOException("No locate command found"));
+        // locate answers from its index, so anything slower is stuck, e.g. on a lock
+        ProcessRunner.Result<Void> result = ProcessRunner.run(
+            new ProcessBuilder(command.toString(), "-b", "\\release").redirectError(ProcessBuilder.Redirect.DISCARD),
+            QUERY_TIMEOUT,
+            ProcessRunner.lines(line -> {
+                Path home = Paths.get(line).getParent();
+                if (home != null && isBelow(home, roots, maxDepth)) {
+                    homes.add(home);
+                }
+            }));
+        // Exit status 1 only means nothing matched
+        if (result.exitStatus() != 0 && result.exitStatus() != 1) {
+            throw new IOException(command + " failed with exit status " + result.exitStatus());
+        }
+    }
+
+    private static boolean isBelow(Path dir, List<Path> roots, int maxDepth) {
+        for (Path root : roots) {
+            if (dir.startsWith(root)) {
+                int depth = dir.getNameCount() - root.getNameCount();
+                return depth >= 1 && depth <= maxDepth;
+            }
+        }
+        return false;
+    }
+
+}
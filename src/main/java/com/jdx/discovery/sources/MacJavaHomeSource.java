@@ -0,0 +1,57 @@
+package com.jdx.discovery.sources;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * JDKs registered with macOS, as listed by {@code /usr/libexec/java_home -V}.
+ */
+public final class MacJavaHomeSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "macos-java-home";
+    }
+
+    @Override
+    public int priority() {
+        return 100;
+    }
+
+    @Override
+    public boolean supports(DiscoveryContext context) {
+        return context.isMac();
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) throws Exception {
+        List<DiscoveryRoot> roots = new ArrayList<>();
+        Process process = new ProcessBuilder("/usr/libexec/java_home", "-V")
+            .redirectErrorStream(true)
+            .start();
+        
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Parse lines like: "    21.0.5 (arm64) "OpenJDK 21.0.5" - "OpenJDK 21.0.5" /Library/Java/JavaVirtualMachines/openjdk-21.jdk/Contents/Home"
+                if (line.trim().isEmpty() || line.contains("Matching")) continue;
+                
+                String[] parts = line.split("\"");
+                if (parts.length >= 2) {
+                    String pathPart = line.substring(line.lastIndexOf("\"") + 1).trim();
+                    roots.add(DiscoveryRoot.home(Paths.get(pathPart)));
+                }
+            }
+        }
+        process.waitFor();
+        return roots;
+    }
+}
@@ -0,0 +1,41 @@
+package com.jdx.discovery.sources;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * macOS JDK bundles in {@code /Library/Java/JavaVirtualMachines}, and on deep scans the
+ * per-user {@code ~/Library/Java/JavaVirtualMachines}.
+ */
+public final class MacJvmDirectorySource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "macos-jvm-dir";
+    }
+
+    @Override
+    public int priority() {
+        return 100;
+    }
+
+    @Override
+    public boolean supports(DiscoveryContext context) {
+        return context.isMac();
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        List<DiscoveryRoot> roots = new ArrayList<>();
+        roots.add(DiscoveryRoot.children(Paths.get("/Library/Java/JavaVirtualMachines")));
+        if (context.deep()) {
+            roots.add(DiscoveryRoot.deep(context.userHome().resolve("Library/Java/JavaVirtualMachines")));
+        }
+        return roots;
+    }
+}
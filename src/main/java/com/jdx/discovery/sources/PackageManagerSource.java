@@ -0,0 +1,239 @@
+package com.jdx.discovery.sources;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+import com.jdx.discovery.ProcessRunner;
+
+/**
+ * JDKs the Linux package databases know about, listed directly instead of found by
+ * walking directories:
+ * <ul>
+ *   <li>dpkg: installed packages in {@code /var/lib/dpkg/status} that provide a Java
+ *       runtime or SDK, and the {@code bin/java} in each one's {@code info/*.list};</li>
+ *   <li>alternatives: the {@code /etc/alternatives/java} link and every {@code java} and
+ *       {@code javac} alternative registered in the Debian or Red Hat admin directory;</li>
+ *   <li>rpm: the files of packages providing {@code java} or {@code java-headless}, from
+ *       a local {@code rpm} query, when rpm is installed.</li>
+ * </ul>
+ * The dpkg status file can be tens of megabytes, so it is streamed a line at a time and
+ * only the fields of the current package are kept. The rpm query is killed after ten
+ * seconds.
+ */
+public final class PackageManagerSource implements DiscoverySource {
+
+    private static final Path DPKG_STATUS = Paths.get("/var/lib/dpkg/status");
+    private static final Path DPKG_INFO = Paths.get("/var/lib/dpkg/info");
+    private static final Path ALTERNATIVES_LINK = Paths.get("/etc/alternatives/java");
+    private static final List<Path> ALTERNATIVES_ADMIN_DIRS = List.of(
+        Paths.get("/var/lib/dpkg/alternatives"),
+        Paths.get("/var/lib/alternatives"));
+    private static final Path RPM_DATABASE = Paths.get("/var/lib/rpm");
+
+    private static final Duration RPM_TIMEOUT = Duration.ofSeconds(10);
+
+    @Override
+    public String name() {
+        return "packages";
+    }
+
+    @Override
+    public int priority() {
+        return 100;
+    }
+
+    @Override
+    public boolean supports(DiscoveryContext context) {
+        return context.isLinux();
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        Set<Path> homes = new LinkedHashSet<>();
+        try {
+            readDpkg(homes);
+        } catch (IOException e) {
+            // No dpkg, or an unreadable database; the other inventories may still answer
+        }
+        readAlternatives(homes);
+        try {
+            queryRpm(homes);
+        } catch (IOException e) {
+            // No rpm
+        }
+        return homes.stream().filter(Files::isDirectory).map(DiscoveryRoot::home).toList();
+    }
+
+    /**
+     * Stream the status file and read the file list of every installed Java package.
+     */
+    private static void readDpkg(Set<Path> homes) throws IOException {
+        if (!Files.isReadable(DPKG_STATUS)) {
+            return;
+        }
+        List<String> packages;
+        try (BufferedReader reader = Files.newBufferedReader(DPKG_STATUS, StandardCharsets.UTF_8)) {
+            packages = readDpkgStatus(reader);
+        }
+        readDpkgLists(packages, DPKG_INFO, homes);
+    }
+
+    /**
+     * Parse a dpkg status file, one {@code Field: value} stanza per package. A field may
+     * be folded onto continuation lines, which start with a space or tab.
+     *
+     * @return installed packages that provide a Java runtime or SDK, as {@code name:arch}
+     *         or just {@code name} when the stanza has no architecture
+     */
+    static List<String> readDpkgStatus(BufferedReader reader) throws IOException {
+        List<String> packages = new ArrayList<>();
+        String name = null;
+        String architecture = null;
+        boolean installed = false;
+        StringBuilder provides = null;
+        boolean inProvides = false;
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null || line.isEmpty()) {
+                if (name != null && installed && (isJavaPackageName(name) || (provides != null && providesJava(provides)))) {
+                    packages.add(architecture == null ? name : name + ":" + architecture);
+                }
+                name = null;
+                architecture = null;
+                installed = false;
+                provides = null;
+                inProvides = false;
+            } else if (line.charAt(0) == ' ' || line.charAt(0) == '\t') {
+                if (inProvides) {
+                    provides.append(' ').append(line.trim());
+                }
+            } else {
+                inProvides = line.startsWith("Provides:");
+                if (inProvides) {
+                    provides = new StringBuilder(line.substring("Provides:".length()).trim());
+                } else if (line.startsWith("Package:")) {
+                    name = line.substring("Package:".length()).trim();
+                } else if (line.startsWith("Status:")) {
+                    installed = line.endsWith(" installed");
+                } else if (line.startsWith("Architecture:")) {
+                    architecture = line.substring("Architecture:".length()).trim();
+                }
+            }
+        } while (line != null);
+        return packages;
+    }
+
+    /**
+     * Read the file list of each package in {@code info}. Multi-arch packages keep their
+     * list under {@code <name>:<arch>.list}, others under {@code <name>.list}.
+     */
+    static void readDpkgLists(List<String> packages, Path info, Set<Path> homes) {
+        for (String pkg : packages) {
+            Path list = info.resolve(pkg + ".list");
+            int colon = pkg.indexOf(':');
+            if (!Files.exists(list) && colon > 0) {
+                list = info.resolve(pkg.substring(0, colon) + ".list");
+            }
+            try (Stream<String> files = Files.lines(list, StandardCharsets.UTF_8)) {
+                files.forEach(file -> addLauncher(homes, file));
+            } catch (IOException | RuntimeException e) {
+                // Missing or unreadable list: nothing known about this package
+            }
+        }
+    }
+
+    private static boolean isJavaPackageName(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.contains("jdk") || lower.contains("jre") || lower.contains("corretto")
+            || lower.startsWith("zulu") || lower.startsWith("temurin") || lower.startsWith("sapmachine");
+    }
+
+    private static boolean providesJava(CharSequence provides) {
+        for (String entry : provides.toString().split(",")) {
+            String virtual = entry.trim().split("[ (]")[0];
+            if (virtual.matches("java\\d*-(runtime|runtime-headless|sdk|sdk-headless)|default-jdk|default-jre")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Follow the current {@code java} alternative, and list every registered {@code java}
+     * and {@code javac} alternative.
+     */
+    private static void readAlternatives(Set<Path> homes) {
+        try {
+            addLauncher(homes, ALTERNATIVES_LINK.toRealPath().toString());
+        } catch (IOException e) {
+            // No alternatives link
+        }
+        for (Path adminDir : ALTERNATIVES_ADMIN_DIRS) {
+            for (String name : List.of("java", "javac")) {
+                Path admin = adminDir.resolve(name);
+                if (!Files.isReadable(admin)) {
+                    continue;
+                }
+                // Alternative paths sit on lines of their own, between the priorities and slave links
+                try (Stream<String> lines = Files.lines(admin, StandardCharsets.UTF_8)) {
+                    lines.forEach(line -> addLauncher(homes, line.trim()));
+                } catch (IOException | RuntimeException e) {
+                    // Unreadable admin file
+                }
+            }
+        }
+    }
+
+    private static void queryRpm(Set<Path> homes) throws IOException {
+        if (!Files.isDirectory(RPM_DATABASE)) {
+            return;
+        }
+        // A local query takes well under a second; a stuck one is usually waiting on a lock.
+        // The exit status is not checked: rpm fails when only one of the two is provided.
+        ProcessRunner.run(
+            new ProcessBuilder("rpm", "-q", "--whatprovides", "java", "java-headless",
+                    "--queryformat", "[%{FILENAMES}\\n]")
+                .redirectError(ProcessBuilder.Redirect.DISCARD),
+            RPM_TIMEOUT,
+            ProcessRunner.lines(line -> addLauncher(homes, line.trim())));
+    }
+
+    /**
+     * Record the home of a {@code bin/java} or {@code bin/javac} path; the JRE of a JDK 8
+     * ({@code <home>/jre/bin/java}) counts as its JDK. Links such as {@code /usr/bin/java}
+     * are the alternatives' public names, not launchers in a home, and are ignored.
+     */
+    private static void addLauncher(Set<Path> homes, String file) {
+        if (!file.startsWith("/") || !(file.endsWith("/bin/java") || file.endsWith("/bin/javac"))) {
+            return;
+        }
+        Path launcher = Paths.get(file);
+        if (Files.isSymbolicLink(launcher)) {
+            return;
+        }
+        Path home = launcher.getParent().getParent();
+        if (home == null) {
+            return;
+        }
+        if (home.getFileName() != null && home.getFileName().toString().equals("jre")
+                && home.getParent() != null && Files.exists(home.getParent().resolve("bin/javac"))) {
+            home = home.getParent();
+        }
+        homes.add(home);
+    }
+}
@@ -0,0 +1,38 @@
+package com.jdx.discovery.sources;
+
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+import com.jdx.discovery.PathResolver;
+
+/**
+ * Homes of every {@code java} on PATH, resolved in-process instead of via
+ * {@code which -a} or {@code where}.
+ */
+public final class PathSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "path";
+    }
+
+    @Override
+    public int priority() {
+        return 80;
+    }
+
+    @Override
+    public boolean supports(DiscoveryContext context) {
+        // java_home already covers what PATH would find on macOS
+        return !context.isMac();
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        return PathResolver.fromEnvironment().javaHomes().stream()
+            .map(DiscoveryRoot::home)
+            .toList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.jdx.discovery.sources;
+
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * Java candidates installed by SDKMAN! in {@code ~/.sdkman/candidates/java} (deep scans).
+ */
+public final class SdkmanSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "sdkman";
+    }
+
+    @Override
+    public int priority() {
+        return 40;
+    }
+
+    @Override
+    public boolean supports(DiscoveryContext context) {
+        return context.deep();
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        return List.of(DiscoveryRoot.deep(context.userHome().resolve(".sdkman/candidates/java")));
+    }
+}
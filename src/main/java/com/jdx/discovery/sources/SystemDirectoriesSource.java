@@ -0,0 +1,74 @@
+package com.jdx.discovery.sources;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * Recursive search of {@code /opt}, {@code /usr/local} and, on Linux, {@code /usr/java}
+ * (deep scans). The most expensive built-in source on most machines.
+ *
+ * <p>On Linux, directories the system locate database is fresh for are not walked: the
+ * database is asked for the {@code release} files below them instead, and only those
+ * homes are checked. Directories changed since the last {@code updatedb}, and every
+ * directory when there is no usable database, are walked as before.
+ */
+public final class SystemDirectoriesSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "system-dirs";
+    }
+
+    @Override
+    public int priority() {
+        return 10;
+    }
+
+    @Override
+    public boolean supports(DiscoveryContext context) {
+        return context.deep() && (context.isLinux() || context.isMac());
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        List<Path> directories = new ArrayList<>();
+        directories.add(Paths.get("/opt"));
+        directories.add(Paths.get("/usr/local"));
+        if (context.isLinux()) {
+            directories.add(Paths.get("/usr/java"));
+        }
+        
+        Optional<LocateDatabase> database = context.isLinux() ? LocateDatabase.find() : Optional.empty();
+        List<Path> indexed = database
+            .map(db -> directories.stream().filter(Files::isDirectory).filter(dir -> db.isFreshFor(dir, DiscoveryRoot.DEEP_SCAN_DEPTH)).toList())
+            .orElse(List.of());
+        
+        List<DiscoveryRoot> roots = new ArrayList<>();
+        if (!indexed.isEmpty()) {
+            try {
+                for (Path home : database.get().homes(indexed, DiscoveryRoot.DEEP_SCAN_DEPTH)) {
+                    roots.add(DiscoveryRoot.home(home));
+                }
+            } catch (IOException e) {
+                // Unusable database, walk everything
+                indexed = List.of();
+                roots.clear();
+            }
+        }
+        for (Path directory : directories) {
+            if (!indexed.contains(directory)) {
+                roots.add(DiscoveryRoot.deep(directory));
+            }
+        }
+        return roots;
+    }
+}
@@ -0,0 +1,37 @@
+package com.jdx.discovery.sources;
+
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * JDKs unpacked by hand into {@code ~/jdks}: checked on every scan on Linux, and
+ * recursively on deep scans elsewhere.
+ */
+public final class UserJdksSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "user-jdks";
+    }
+
+    @Override
+    public int priority() {
+        return 50;
+    }
+
+    @Override
+    public boolean supports(DiscoveryContext context) {
+        return context.isLinux() || context.deep();
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        if (context.isLinux()) {
+            return List.of(DiscoveryRoot.children(context.userHome().resolve("jdks")));
+        }
+        return List.of(DiscoveryRoot.deep(context.userHome().resolve("jdks")));
+    }
+}
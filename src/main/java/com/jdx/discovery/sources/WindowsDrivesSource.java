@@ -0,0 +1,43 @@
+package com.jdx.discovery.sources;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * Recursive search of {@code \jdk} and {@code \Java} on drives C: to Z: (deep scans).
+ */
+public final class WindowsDrivesSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "windows-drives";
+    }
+
+    @Override
+    public int priority() {
+        return 10;
+    }
+
+    @Override
+    public boolean supports(DiscoveryContext context) {
+        return context.deep() && context.isWindows();
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        List<DiscoveryRoot> roots = new ArrayList<>();
+        // Missing drives are skipped by the scanner
+        for (char drive = 'C'; drive <= 'Z'; drive++) {
+            Path drivePath = Paths.get(drive + ":\\");
+            roots.add(DiscoveryRoot.deep(drivePath.resolve("jdk")));
+            roots.add(DiscoveryRoot.deep(drivePath.resolve("Java")));
+        }
+        return roots;
+    }
+}
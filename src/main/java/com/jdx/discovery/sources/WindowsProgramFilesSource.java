@@ -0,0 +1,54 @@
+package com.jdx.discovery.sources;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jdx.discovery.DiscoveryContext;
+import com.jdx.discovery.DiscoveryRoot;
+import com.jdx.discovery.DiscoverySource;
+
+/**
+ * JDKs installed under {@code Program Files\Java} and {@code Program Files\Microsoft\jdk}.
+ */
+public final class WindowsProgramFilesSource implements DiscoverySource {
+
+    @Override
+    public String name() {
+        return "windows-program-files";
+    }
+
+    @Override
+    public int priority() {
+        return 100;
+    }
+
+    @Override
+    public boolean supports(DiscoveryContext context) {
+        return context.isWindows();
+    }
+
+    @Override
+    public List<DiscoveryRoot> roots(DiscoveryContext context) {
+        List<DiscoveryRoot> roots = new ArrayList<>();
+        
+        // Check common install directories
+        String[] programFilesDirs = {
+            System.getenv("ProgramFiles"),
+            System.getenv("ProgramFiles(x86)"),
+            "C:\\Program Files",
+            "C:\\Program Files (x86)"
+        };
+        
+        for (String programFiles : programFilesDirs) {
+            if (programFiles == null) continue;
+            
+            // Check Java subdirectory
+            roots.add(DiscoveryRoot.children(Paths.get(programFiles, "Java")));
+            
+            // Check Microsoft JDK
+            roots.add(DiscoveryRoot.children(Paths.get(programFiles, "Microsoft", "jdk")));
+        }
+        return roots;
+    }
+}
@@ -0,0 +1,61 @@
+package com.jdx.model;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Features a JDK may provide beyond the Java runtime itself.
+ *
+ * <p>Capabilities are held as an {@link EnumSet}, i.e. a bit vector, while probing and
+ * are stored in {@link JdkInfo#capabilities()} by their {@link #id()}, which keeps the
+ * catalog readable and compatible with entries written before a capability existed.
+ */
+public enum Capability {
+    JLINK("jlink"),
+    JPACKAGE("jpackage"),
+    JMODS("jmods"),
+    CDS("cds"),
+    DEBUG_SYMBOLS("debug-symbols"),
+    JFR("jfr"),
+    JAVAFX("javafx"),
+    VECTOR("vector"),
+    CRAC("crac");
+
+    private final String id;
+
+    Capability(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Name used in the catalog and on the command line.
+     */
+    public String id() {
+        return id;
+    }
+
+    public static Optional<Capability> fromId(String id) {
+        for (Capability capability : values()) {
+            if (capability.id.equals(id)) {
+                return Optional.of(capability);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Ids of the given capabilities, in declaration order.
+     */
+    public static Set<String> ids(Collection<Capability> capabilities) {
+        EnumSet<Capability> ordered = EnumSet.noneOf(Capability.class);
+        ordered.addAll(capabilities);
+        Set<String> ids = new LinkedHashSet<>();
+        for (Capability capability : ordered) {
+            ids.add(capability.id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,248 @@
+package com.jdx.model;
+
+import java.util.Optional;
+
+/**
+ * A Java version, parsed once and packed into a {@code long} so that versions compare with
+ * a single integer comparison.
+ *
+ * <p>Accepts the JEP 223 form ({@code 17}, {@code 17.0.11}, {@code 17.0.9.1},
+ * {@code 21.0.1+12}, {@code 25-ea}, {@code 25-ea+3}) and the forms used before it
+ * ({@code 1.8}, {@code 1.8.0_392}, {@code 1.8.0_392-b08}, {@code 8u372}, {@code 8u372-b07}),
+ * with or without surrounding quotes. Legacy versions are mapped onto JEP 223 components:
+ * {@code 1.8.0_392} is feature 8, interim 0, update 392.
+ *
+ * <p>From the most to the least significant bits, {@code packed} holds the feature (12
+ * bits), interim (10), update (12) and patch (10) numbers, a general-availability bit, which
+ * orders a pre-release such as {@code 25-ea} below the release, and the build number (12).
+ * Larger numbers are clamped to their field.
+ *
+ * @param packed    the components, as above
+ * @param precision how many components the text gave: 1 to 4 numbers, or 5 when it also
+ *                  named a build; a version used as a requirement matches every version
+ *                  that agrees with it up to this precision
+ */
+public record JavaVersion(long packed, int precision) implements Comparable<JavaVersion> {
+
+    private static final int BUILD_SHIFT = 0;
+    private static final int GA_SHIFT = 12;
+    private static final int PATCH_SHIFT = 13;
+    private static final int UPDATE_SHIFT = 23;
+    private static final int INTERIM_SHIFT = 35;
+    private static final int FEATURE_SHIFT = 45;
+
+    private static final int[] SHIFTS = {FEATURE_SHIFT, INTERIM_SHIFT, UPDATE_SHIFT, PATCH_SHIFT};
+    private static final int[] WIDTHS = {12, 10, 12, 10};
+
+    /** The components compared for each precision, indexed by precision. */
+    private static final long[] PREFIX_MASKS = {
+        0L,
+        0xFFFL << FEATURE_SHIFT,
+        (0xFFFL << FEATURE_SHIFT) | (0x3FFL << INTERIM_SHIFT),
+        (0xFFFL << FEATURE_SHIFT) | (0x3FFL << INTERIM_SHIFT) | (0xFFFL << UPDATE_SHIFT),
+        (0xFFFL << FEATURE_SHIFT) | (0x3FFL << INTERIM_SHIFT) | (0xFFFL << UPDATE_SHIFT) | (0x3FFL << PATCH_SHIFT),
+        -1L
+    };
+
+    static final int MAX_PRECISION = 5;
+
+    /**
+     * Parse a version or version requirement.
+     *
+     * @return empty if {@code text} does not start with a version number
+     */
+    public static Optional<JavaVersion> parse(String text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        String s = text.strip();
+        if (s.length() >= 2 && s.charAt(0) == '"' && s.charAt(s.length() - 1) == '"') {
+            s = s.substring(1, s.length() - 1);
+        }
+
+        int[] numbers = new int[4];
+        int count = 0;
+        int i = 0;
+        boolean legacy = false;
+
+        // Dotted numbers: 17.0.11, or 1.8.0 before JEP 223
+        while (count < 4) {
+            int start = i;
+            long value = 0;
+            while (i < s.length() && Character.isDigit(s.charAt(i))) {
+                value = Math.min(value * 10 + (s.charAt(i) - '0'), Integer.MAX_VALUE);
+                i++;
+            }
+            if (i == start) {
+                break;
+            }
+            numbers[count++] = (int) value;
+            if (i + 1 < s.length() && s.charAt(i) == '.' && Character.isDigit(s.charAt(i + 1))) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        if (count == 0) {
+            return Optional.empty();
+        }
+        if (numbers[0] == 1 && count >= 2) {
+            // 1.8.0_392: the second number is the feature, and the third is always 0
+            legacy = true;
+            numbers[0] = numbers[1];
+            numbers[1] = count >= 3 ? numbers[2] : 0;
+            numbers[2] = 0;
+            numbers[3] = 0;
+            count = count >= 3 ? 2 : 1;
+        }
+
+        // Legacy update: 1.8.0_392 or 8u372
+        if (i < s.length() && (s.charAt(i) == '_' || ((s.charAt(i) == 'u' || s.charAt(i) == 'U') && count == 1))) {
+            int start = ++i;
+            long value = 0;
+            while (i < s.length() && Character.isDigit(s.charAt(i))) {
+                value = Math.min(value * 10 + (s.charAt(i) - '0'), Integer.MAX_VALUE);
+                i++;
+            }
+            if (i > start) {
+                legacy = true;
+                numbers[1] = count >= 2 ? numbers[1] : 0;
+                numbers[2] = (int) value;
+                count = 3;
+            }
+        }
+
+        boolean ga = true;
+        int build = -1;
+        if (i < s.length() && s.charAt(i) == '-') {
+            int start = ++i;
+            while (i < s.length() && s.charAt(i) != '+' && s.charAt(i) != '-') {
+                i++;
+            }
+            String pre = s.substring(start, i);
+            if (legacy && pre.length() > 1 && (pre.charAt(0) == 'b' || pre.charAt(0) == 'B') && isDigits(pre, 1)) {
+                // 1.8.0_392-b08 names a build, not a pre-release
+                build = parseClamped(pre, 1);
+            } else if (!pre.isEmpty()) {
+                ga = false;
+            }
+        }
+        if (i < s.length() && s.charAt(i) == '+') {
+            int start = ++i;
+            while (i < s.length() && Character.isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                build = parseClamped(s.substring(start, i), 0);
+            }
+        }
+
+        long packed = 0;
+        for (int component = 0; component < 4; component++) {
+            packed |= (long) Math.min(numbers[component], (1 << WIDTHS[component]) - 1) << SHIFTS[component];
+        }
+        packed |= (ga ? 1L : 0L) << GA_SHIFT;
+        packed |= (long) Math.min(Math.max(build, 0), 0xFFF) << BUILD_SHIFT;
+        return Optional.of(new JavaVersion(packed, build >= 0 ? MAX_PRECISION : count));
+    }
+
+    /**
+     * The feature release of {@code version} as text, such as {@code "8"} for
+     * {@code 1.8.0_392}, or {@code version} itself if it is not a version.
+     */
+    public static String featureOf(String version) {
+        return parse(version).map(parsed -> String.valueOf(parsed.feature())).orElse(version);
+    }
+
+    private static boolean isDigits(String s, int from) {
+        for (int i = from; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return from < s.length();
+    }
+
+    private static int parseClamped(String s, int from) {
+        long value = 0;
+        for (int i = from; i < s.length(); i++) {
+            value = Math.min(value * 10 + (s.charAt(i) - '0'), Integer.MAX_VALUE);
+        }
+        return (int) value;
+    }
+
+    public int feature() {
+        return (int) (packed >>> FEATURE_SHIFT) & 0xFFF;
+    }
+
+    public int interim() {
+        return (int) (packed >>> INTERIM_SHIFT) & 0x3FF;
+    }
+
+    public int update() {
+        return (int) (packed >>> UPDATE_SHIFT) & 0xFFF;
+    }
+
+    public int patch() {
+        return (int) (packed >>> PATCH_SHIFT) & 0x3FF;
+    }
+
+    public int build() {
+        return (int) (packed >>> BUILD_SHIFT) & 0xFFF;
+    }
+
+    public boolean isEarlyAccess() {
+        return (packed & (1L << GA_SHIFT)) == 0;
+    }
+
+    /**
+     * Whether this version, read as a requirement, is met by {@code version}: the numbers
+     * it names agree, and if it is a pre-release such as {@code 25-ea}, so is {@code version}.
+     * {@code 17} is met by every 17 release and pre-release; {@code 17.0.11} by 17.0.11 and its
+     * builds, but not by 17.0.1.
+     */
+    public boolean isMetBy(JavaVersion version) {
+        long mask = PREFIX_MASKS[precision];
+        return (version.packed & mask) == (packed & mask) && (!isEarlyAccess() || version.isEarlyAccess());
+    }
+
+    /**
+     * Compare {@code version} with this one on the components this one names only, so that
+     * {@code 21.0.3} compared with {@code 21} is 0.
+     */
+    int compareAtPrecision(JavaVersion version) {
+        long mask = PREFIX_MASKS[precision];
+        return Long.compare(version.packed & mask, packed & mask);
+    }
+
+    @Override
+    public int compareTo(JavaVersion other) {
+        return Long.compare(packed, other.packed);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder().append(feature());
+        int numbers = precision;
+        if (precision == MAX_PRECISION) {
+            // The build hides how many numbers were given; print up to the last non-zero one
+            numbers = patch() != 0 ? 4 : update() != 0 ? 3 : interim() != 0 ? 2 : 1;
+        }
+        if (numbers >= 2) {
+            text.append('.').append(interim());
+        }
+        if (numbers >= 3) {
+            text.append('.').append(update());
+        }
+        if (numbers >= 4) {
+            text.append('.').append(patch());
+        }
+        if (isEarlyAccess()) {
+            text.append("-ea");
+        }
+        if (precision == MAX_PRECISION) {
+            text.append('+').append(build());
+        }
+        return text.toString();
+    }
+}
@@ -1,9 +1,24 @@
 package com.jdx.model;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
  * Represents information about a discovered JDK installation.
+ * 
+ * <p>{@code path} is the canonical (real) path of the JDK home; other paths at which the
+ * same JDK was found, such as symlinks, are listed in {@code aliases}. The fields from
+ * {@code runtimeVersion} to {@code modules} come from the JDK's {@code release} file and
+ * are {@code null}, or empty for {@code modules}, when the file does not declare them.
+ * Collections are never {@code null}, so an entry is equal to itself read back from
+ * either catalog file.
+ * 
+ * <p>A JDK indexed inside an archive without being extracted has {@code archive} set to
+ * the archive file, and {@code path} names its home inside the archive
+ * ({@code <archive>!/<home>}); such a JDK cannot be activated. JDKs found inside a
+ * container image are recorded the same way, with the image layout directory or tarball
+ * as {@code archive}. {@code archive} is {@code null} for installed JDKs.
  */
 public record JdkInfo(
     String id,
@@ -12,9 +27,50 @@ public record JdkInfo(
     String arch,
     String path,
     Set<String> capabilities,
-    boolean valid
+    boolean valid,
+    String runtimeVersion,
+    String implementorVersion,
+    String libc,
+    String buildType,
+    List<String> modules,
+    List<String> aliases,
+    String archive
 ) {
+    public JdkInfo {
+        capabilities = capabilities == null ? Set.of() : capabilities;
+        modules = modules == null ? List.of() : modules;
+        aliases = aliases == null ? List.of() : List.copyOf(aliases);
+    }
+
+    public JdkInfo(String id, String version, String vendor, String arch, String path,
+                   Set<String> capabilities, boolean valid) {
+        this(id, version, vendor, arch, path, capabilities, valid, null, null, null, null, List.of(), List.of(), null);
+    }
+
+    /**
+     * Copy of this JDK with the given alias paths.
+     */
+    public JdkInfo withAliases(List<String> aliases) {
+        return new JdkInfo(id, version, vendor, arch, path, capabilities, valid, runtimeVersion,
+            implementorVersion, libc, buildType, modules, aliases, archive);
+    }
+
+    /**
+     * Copy of this JDK also listing the aliases {@code previous} was recorded with, which
+     * a scan that did not search where they lie cannot see again.
+     */
+    public JdkInfo withAliasesOf(JdkInfo previous) {
+        Set<String> merged = new LinkedHashSet<>(previous.aliases());
+        merged.addAll(aliases);
+        merged.remove(path);
+        return merged.size() == aliases.size() ? this : withAliases(List.copyOf(merged));
+    }
+
     public boolean hasCapability(String capability) {
         return capabilities != null && capabilities.contains(capability);
     }
+
+    public boolean hasCapability(Capability capability) {
+        return hasCapability(capability.id());
+    }
 }
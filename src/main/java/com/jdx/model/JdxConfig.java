@@ -1,16 +1,42 @@
 package com.jdx.model;
 
+import java.util.List;
+
 /**
  * Represents the global jdx configuration stored in ~/.jdx/config.yaml
  */
 public record JdxConfig(
     CatalogConfig catalog,
+    DiscoveryConfig discovery,
     DefaultsConfig defaults,
     SafetyConfig safety,
     TelemetryConfig telemetry
 ) {
     public record CatalogConfig(int autorefresh_days) {}
     
+    /**
+     * Deep scan traversal rules. Globs are matched against absolute directory paths, and
+     * globs not starting with {@code /} or {@code **} match at any depth; excluded
+     * directories are never descended into unless an include glob matches them too, and
+     * when include globs are set only JDK homes matching one of them are recorded. Sources
+     * named in disabled_sources are skipped entirely. A section that leaves out
+     * {@code exclude} keeps the default excludes; an empty list turns them off.
+     */
+    public record DiscoveryConfig(List<String> include, List<String> exclude, List<String> disabled_sources) {
+        private static final List<String> DEFAULT_EXCLUDE =
+            List.of("**/node_modules", "**/.git", "**/.svn", "**/.hg", "**/__pycache__");
+
+        public DiscoveryConfig {
+            include = include != null ? include : List.of();
+            exclude = exclude != null ? exclude : DEFAULT_EXCLUDE;
+            disabled_sources = disabled_sources != null ? disabled_sources : List.of();
+        }
+        
+        public static DiscoveryConfig defaults() {
+            return new DiscoveryConfig(List.of(), DEFAULT_EXCLUDE, List.of());
+        }
+    }
+    
     public record DefaultsConfig(String runtime, String[] vendor_preference) {}
     
     public record SafetyConfig(boolean require_confirmation_on_persist) {}
@@ -0,0 +1,113 @@
+package com.jdx.model;
+
+import java.util.Optional;
+
+/**
+ * A version requirement, as given to {@code jdx use} or in {@code .jdxrc}'s
+ * {@code runtime.require}: either a version, met by every version agreeing with it on the
+ * components it names (see {@link JavaVersion#isMetBy}), or a range in Maven's notation.
+ *
+ * <p>Ranges have a lower and an upper bound, either of which may be left out, each
+ * inclusive ({@code [}, {@code ]}) or exclusive ({@code (}, {@code )}), and compared on the
+ * components the bound names: {@code [17,21)} is met by every 17 to 20 release, and
+ * {@code [17,21]} by 21.0.3 too. {@code [17,)} means 17 or later, and {@code (,11]} 11 or
+ * earlier.
+ *
+ * @param lower          lowest version, or {@code null} for no lower bound; for a plain
+ *                       version requirement, the version itself
+ * @param lowerInclusive whether {@code lower} itself meets the requirement
+ * @param upper          highest version, or {@code null} for no upper bound
+ * @param upperInclusive whether {@code upper} itself meets the requirement
+ * @param range          whether this is a range rather than a plain version
+ */
+public record VersionSpec(JavaVersion lower, boolean lowerInclusive, JavaVersion upper, boolean upperInclusive,
+                          boolean range) {
+
+    /**
+     * Parse a version or a range.
+     *
+     * @return empty if {@code text} is neither
+     */
+    public static Optional<VersionSpec> parse(String text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        String s = text.strip();
+        if (s.isEmpty()) {
+            return Optional.empty();
+        }
+        char open = s.charAt(0);
+        if (open != '[' && open != '(') {
+            return JavaVersion.parse(s).map(version -> new VersionSpec(version, true, null, false, false));
+        }
+
+        char close = s.charAt(s.length() - 1);
+        int comma = s.indexOf(',');
+        if (s.length() < 3 || (close != ']' && close != ')') || comma < 0) {
+            return Optional.empty();
+        }
+        String lowerText = s.substring(1, comma).strip();
+        String upperText = s.substring(comma + 1, s.length() - 1).strip();
+        Optional<JavaVersion> lower = lowerText.isEmpty() ? Optional.empty() : JavaVersion.parse(lowerText);
+        Optional<JavaVersion> upper = upperText.isEmpty() ? Optional.empty() : JavaVersion.parse(upperText);
+        if ((!lowerText.isEmpty() && lower.isEmpty()) || (!upperText.isEmpty() && upper.isEmpty())
+                || (lower.isEmpty() && upper.isEmpty())) {
+            return Optional.empty();
+        }
+        return Optional.of(new VersionSpec(lower.orElse(null), open == '[', upper.orElse(null), close == ']', true));
+    }
+
+    /**
+     * Whether {@code version} meets this requirement.
+     */
+    public boolean test(JavaVersion version) {
+        if (!range) {
+            return lower.isMetBy(version);
+        }
+        if (lower != null) {
+            int compared = lower.compareAtPrecision(version);
+            if (compared < 0 || (compared == 0 && !lowerInclusive)) {
+                return false;
+            }
+        }
+        if (upper != null) {
+            int compared = upper.compareAtPrecision(version);
+            if (compared > 0 || (compared == 0 && !upperInclusive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether {@code version}, parsed, meets this requirement; unparseable versions never do.
+     */
+    public boolean test(String version) {
+        return JavaVersion.parse(version).map(this::test).orElse(false);
+    }
+
+    /**
+     * Lowest feature release that can meet this requirement.
+     */
+    public int minFeature() {
+        if (lower == null) {
+            return 0;
+        }
+        boolean excludesWholeFeature = range && !lowerInclusive && lower.precision() == 1;
+        return lower.feature() + (excludesWholeFeature ? 1 : 0);
+    }
+
+    /**
+     * Highest feature release that can meet this requirement.
+     */
+    public int maxFeature() {
+        if (!range) {
+            return lower.feature();
+        }
+        if (upper == null) {
+            return Integer.MAX_VALUE;
+        }
+        boolean excludesWholeFeature = !upperInclusive && upper.precision() == 1;
+        return upper.feature() - (excludesWholeFeature ? 1 : 0);
+    }
+}
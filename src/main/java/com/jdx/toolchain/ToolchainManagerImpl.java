@@ -1,6 +1,7 @@
 package com.jdx.toolchain;
 
 import com.jdx.catalog.JdkCatalogImpl;
+import com.jdx.model.JavaVersion;
 import com.jdx.model.JdkInfo;
 import com.jdx.model.ProjectConfig;
 
@@ -74,7 +75,7 @@ public class ToolchainManagerImpl implements ToolchainManager {
         xml.append("  <!-- Generated by jdx -->\n");
         
         for (JdkInfo jdk : jdks) {
-            if (!jdk.valid()) continue;
+            if (!jdk.valid() || jdk.archive() != null) continue;
             
             xml.append("  <toolchain>\n");
             xml.append("    <type>jdk</type>\n");
@@ -82,7 +83,7 @@ public class ToolchainManagerImpl implements ToolchainManager {
             
             // Extract major version
             String version = jdk.version().replaceAll("^\"|\"$", "");
-            String majorVersion = extractMajorVersion(version);
+            String majorVersion = JavaVersion.featureOf(version);
             
             xml.append("      <version>").append(majorVersion).append("</version>\n");
             xml.append("      <vendor>").append(jdk.vendor()).append("</vendor>\n");
@@ -154,24 +155,6 @@ public class ToolchainManagerImpl implements ToolchainManager {
         System.out.println("Created gradle/jdx.gradle");
         System.out.println("Add 'apply from: \"gradle/jdx.gradle\"' to your settings.gradle");
     }
-
-    private String extractMajorVersion(String version) {
-        // Extract major version number
-        // "1.8.0_372" -> "8"
-        // "17.0.11" -> "17"
-        // "21" -> "21"
-        
-        if (version.startsWith("1.8")) {
-            return "8";
-        }
-        
-        String[] parts = version.split("[.\\-_]");
-        if (parts.length > 0) {
-            return parts[0];
-        }
-        
-        return version;
-    }
     
     private void configurePomToolchainsPlugin(ProjectConfig config) throws IOException {
         Path pomPath = Paths.get("pom.xml");
@@ -0,0 +1,108 @@
+package com.jdx.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jdx.model.JdkInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryCatalogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTripsEntriesAndSlowRoots() throws IOException {
+        JdkInfo full = new JdkInfo("temurin-21", "21.0.1", "Eclipse Adoptium", "aarch64", "/opt/jdk-21",
+            new LinkedHashSet<>(List.of("jlink", "jfr")), true, "21.0.1+12", "Temurin-21.0.1+12", "musl", "release",
+            List.of("java.base", "jdk.jfr"), List.of("/usr/lib/jvm/default"), null);
+        JdkInfo sparse = new JdkInfo("zulu-8", "1.8.0_392", "Azul Systems, Inc.", "x64", "/tmp/zulu.tar.gz!/zulu8",
+            new LinkedHashSet<>(), false, null, null, null, null, List.of(), List.of(), "/tmp/zulu.tar.gz");
+        Path file = tempDir.resolve("catalog.bin");
+
+        BinaryCatalog.write(file, List.of(full, sparse), List.of("/mnt/nfs"), 7, 0x5EED);
+        BinaryCatalog catalog = BinaryCatalog.open(file);
+
+        assertThat(catalog.size()).isEqualTo(2);
+        assertThat(catalog.id(1)).isEqualTo("zulu-8");
+        assertThat(catalog.get(0)).isEqualTo(full);
+        assertThat(catalog.get(1)).isEqualTo(sparse);
+        assertThat(catalog.slowRoots()).containsExactly("/mnt/nfs");
+        assertThat(catalog.generation()).isEqualTo(7L);
+        assertThat(catalog.jsonChecksum()).isEqualTo(0x5EED);
+    }
+
+    @Test
+    void testReadsGenerationsPastUnsignedInt() throws IOException {
+        Path file = tempDir.resolve("catalog.bin");
+
+        BinaryCatalog.write(file, List.of(), List.of(), (1L << 32) + 5, 0);
+
+        assertThat(BinaryCatalog.open(file).generation()).isEqualTo((1L << 32) + 5);
+    }
+
+    @Test
+    void testEntryWithoutCollectionsEqualsItsJsonAndBinaryCopies() throws IOException {
+        JdkInfo jdk = new JdkInfo("corretto-11", "11.0.21", "Amazon.com Inc.", "x64", "/opt/corretto-11",
+            null, true, null, null, null, null, null, null, null);
+        Path file = tempDir.resolve("catalog.bin");
+
+        BinaryCatalog.write(file, List.of(jdk), List.of(), 1, 0);
+        ObjectMapper mapper = new ObjectMapper();
+        JdkInfo fromJson = mapper.readValue(mapper.writeValueAsBytes(jdk), JdkInfo.class);
+        JdkInfo fromBinary = BinaryCatalog.open(file).get(0);
+
+        assertThat(fromBinary).isEqualTo(jdk).isEqualTo(fromJson);
+        assertThat(fromJson.modules()).isEmpty();
+        assertThat(fromJson.capabilities()).isEmpty();
+    }
+
+    @Test
+    void testMapsLargeCatalogs() throws IOException {
+        List<JdkInfo> jdks = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            jdks.add(new JdkInfo("jdk-" + i, "17.0." + i, "Vendor", "x64", "/opt/jdk-" + i,
+                new LinkedHashSet<>(List.of("jlink")), true));
+        }
+        Path file = tempDir.resolve("catalog.bin");
+
+        BinaryCatalog.write(file, jdks, List.of(), 0, 0);
+
+        assertThat(Files.size(file)).isGreaterThanOrEqualTo(BinaryCatalog.MAP_THRESHOLD);
+        BinaryCatalog catalog = BinaryCatalog.open(file);
+        assertThat(catalog.size()).isEqualTo(3000);
+        assertThat(catalog.get(1234).path()).isEqualTo("/opt/jdk-1234");
+    }
+
+    @Test
+    void testRejectsTruncatedFile() throws IOException {
+        Path file = tempDir.resolve("catalog.bin");
+        BinaryCatalog.write(file, List.of(new JdkInfo("a", "17", "v", "x64", "/a", new LinkedHashSet<>(), true)), List.of(), 0, 0);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertThatThrownBy(() -> BinaryCatalog.open(file))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("truncated");
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("catalog.bin");
+        Files.writeString(file, "{\"jdks\": []}");
+
+        assertThatThrownBy(() -> BinaryCatalog.open(file))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("not a jdx binary catalog");
+    }
+}
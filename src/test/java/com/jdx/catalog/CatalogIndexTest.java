@@ -0,0 +1,58 @@
+package com.jdx.catalog;
+
+import com.jdx.model.JdkInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogIndexTest {
+
+    private static final JdkInfo TEMURIN_17_ARM = jdk("temurin-17-arm", "17.0.11", "Eclipse Adoptium", "aarch64", Set.of("jlink", "jfr"));
+    private static final JdkInfo TEMURIN_17_X64 = jdk("temurin-17", "17.0.9", "Eclipse Adoptium", "x86_64", Set.of("jlink"));
+    private static final JdkInfo ZULU_21_ARM = jdk("zulu-21", "21.0.1", "Azul Systems, Inc.", "aarch64", Set.of("jlink"));
+    private static final JdkInfo TEMURIN_8 = jdk("temurin-8", "1.8.0_392", "Eclipse Adoptium", "aarch64", Set.of());
+
+    private final CatalogIndex index = new CatalogIndex(List.of(TEMURIN_8, ZULU_21_ARM, TEMURIN_17_X64, TEMURIN_17_ARM));
+
+    @Test
+    void testFindsByVersionNewestFirst() {
+        assertThat(index.find(JdkQuery.any().withVersion("17")))
+            .containsExactly(TEMURIN_17_ARM, TEMURIN_17_X64);
+        assertThat(index.find(JdkQuery.any().withVersion("1.8")))
+            .containsExactly(TEMURIN_8);
+    }
+
+    @Test
+    void testFindsByRange() {
+        assertThat(index.find(JdkQuery.any().withVersion("[11,21)"))).containsExactly(TEMURIN_17_ARM, TEMURIN_17_X64);
+        assertThat(index.find(JdkQuery.any().withVersion("[17.0.10,)"))).containsExactly(ZULU_21_ARM, TEMURIN_17_ARM);
+    }
+
+    @Test
+    void testIntersectsVendorArchAndCapabilities() {
+        JdkQuery query = JdkQuery.any().withVendor("temurin").withArch("aarch64").withCapabilities(Set.of("jlink"));
+
+        assertThat(index.find(query)).containsExactly(TEMURIN_17_ARM);
+    }
+
+    @Test
+    void testMatchesPartialVendorNames() {
+        assertThat(index.find(JdkQuery.any().withVendor("azul")))
+            .containsExactly(ZULU_21_ARM);
+        assertThat(index.find(JdkQuery.any().withVendor("zulu")))
+            .containsExactly(ZULU_21_ARM);
+    }
+
+    @Test
+    void testFindsNothingForUnknownKeys() {
+        assertThat(index.find(JdkQuery.any().withArch("riscv64"))).isEmpty();
+        assertThat(index.find(JdkQuery.any().withVersion("99"))).isEmpty();
+    }
+
+    private static JdkInfo jdk(String id, String version, String vendor, String arch, Set<String> capabilities) {
+        return new JdkInfo(id, version, vendor, arch, "/opt/" + id, capabilities, true);
+    }
+}
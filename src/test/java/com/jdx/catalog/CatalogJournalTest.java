@@ -0,0 +1,126 @@
+package com.jdx.catalog;
+
+import com.jdx.catalog.CatalogJournal.Change;
+import com.jdx.model.JdkInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogJournalTest {
+
+    private static final JdkInfo TEMURIN_21 = new JdkInfo("temurin-21", "21.0.1", "Eclipse Adoptium", "x86_64",
+        "/opt/jdks/temurin-21", new LinkedHashSet<>(List.of("jlink", "jfr")), true, "21.0.1+12", "Temurin-21.0.1+12",
+        "gnu", null, List.of("java.base", "jdk.jlink"), List.of("/usr/lib/jvm/temurin-21"), null);
+    private static final JdkInfo ZULU_17 = new JdkInfo("zulu-17", "17.0.9", "Azul Systems, Inc.", "aarch64",
+        "/opt/jdks/zulu-17", new LinkedHashSet<>(List.of("jlink")), false);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReplaysAppendedChangesInOrder() throws IOException {
+        Path file = tempDir.resolve("catalog.log");
+        CatalogJournal journal = new CatalogJournal(file);
+        journal.append(List.of(new CatalogJournal.Put(TEMURIN_21), new CatalogJournal.Put(ZULU_17)));
+        journal.append(List.of(new CatalogJournal.Remove("zulu-17"), new CatalogJournal.SlowRoots(List.of("/mnt/nfs"))));
+
+        List<Change> changes = new CatalogJournal(file).read(0);
+
+        assertThat(changes).containsExactly(
+            new CatalogJournal.Put(TEMURIN_21),
+            new CatalogJournal.Put(ZULU_17),
+            new CatalogJournal.Remove("zulu-17"),
+            new CatalogJournal.SlowRoots(List.of("/mnt/nfs")));
+    }
+
+    @Test
+    void testIgnoresAndOverwritesATornFrame() throws IOException {
+        Path file = tempDir.resolve("catalog.log");
+        CatalogJournal journal = new CatalogJournal(file);
+        journal.append(List.of(new CatalogJournal.Put(TEMURIN_21)));
+        long whole = Files.size(file);
+        journal.append(List.of(new CatalogJournal.Put(ZULU_17)));
+        // A crash in the middle of the second write
+        try (var channel = Files.newByteChannel(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 5);
+        }
+
+        CatalogJournal reopened = new CatalogJournal(file);
+        assertThat(reopened.read(0)).containsExactly(new CatalogJournal.Put(TEMURIN_21));
+        assertThat(reopened.length()).isEqualTo(whole);
+
+        reopened.append(List.of(new CatalogJournal.Remove("temurin-21")));
+        assertThat(new CatalogJournal(file).read(0))
+            .containsExactly(new CatalogJournal.Put(TEMURIN_21), new CatalogJournal.Remove("temurin-21"));
+    }
+
+    @Test
+    void testStopsAtADamagedFrame() throws IOException {
+        Path file = tempDir.resolve("catalog.log");
+        CatalogJournal journal = new CatalogJournal(file);
+        journal.append(List.of(new CatalogJournal.Put(TEMURIN_21)));
+        long first = Files.size(file);
+        journal.append(List.of(new CatalogJournal.Put(ZULU_17)));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[(int) first + 12] ^= 0x20;
+        Files.write(file, bytes);
+
+        assertThat(new CatalogJournal(file).read(0)).containsExactly(new CatalogJournal.Put(TEMURIN_21));
+    }
+
+    @Test
+    void testMissingJournalHasNoChanges() throws IOException {
+        CatalogJournal journal = new CatalogJournal(tempDir.resolve("catalog.log"));
+
+        assertThat(journal.read(4)).isEmpty();
+        assertThat(journal.base()).isEqualTo(4L);
+        assertThat(journal.generation()).isEqualTo(4L);
+    }
+
+    @Test
+    void testNumbersFramesFromTheSnapshotGeneration() throws IOException {
+        Path file = tempDir.resolve("catalog.log");
+        CatalogJournal journal = new CatalogJournal(file);
+        journal.read(4);
+        journal.append(List.of(new CatalogJournal.Put(TEMURIN_21)));
+        journal.append(List.of(new CatalogJournal.Put(ZULU_17)));
+
+        CatalogJournal reopened = new CatalogJournal(file);
+        assertThat(reopened.read(4)).hasSize(2);
+        assertThat(reopened.base()).isEqualTo(4L);
+        assertThat(reopened.generation()).isEqualTo(6L);
+    }
+
+    @Test
+    void testSkipsFramesTheSnapshotIncludes() throws IOException {
+        Path file = tempDir.resolve("catalog.log");
+        CatalogJournal journal = new CatalogJournal(file);
+        journal.append(List.of(new CatalogJournal.Put(TEMURIN_21)));
+        journal.append(List.of(new CatalogJournal.Put(ZULU_17)));
+
+        // As after a compaction to generation 1 that stopped before starting a new journal
+        assertThat(new CatalogJournal(file).read(1)).containsExactly(new CatalogJournal.Put(ZULU_17));
+
+        journal.reset(2);
+        CatalogJournal reopened = new CatalogJournal(file);
+        assertThat(reopened.read(2)).isEmpty();
+        assertThat(reopened.base()).isEqualTo(2L);
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("catalog.log");
+        Files.writeString(file, "{\"jdks\": []}");
+
+        assertThatThrownBy(() -> new CatalogJournal(file).read(0)).isInstanceOf(IOException.class);
+    }
+}
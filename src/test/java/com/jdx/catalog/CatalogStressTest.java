@@ -0,0 +1,140 @@
+package com.jdx.catalog;
+
+import com.jdx.model.JdkInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs writer and reader processes against one catalog at the same time. Writers each save
+ * a sequence of entries, enough between them for the journal to be compacted several times;
+ * readers check that every load shows, for each writer, a prefix of its sequence, which is
+ * what a consistent generation holds.
+ */
+class CatalogStressTest {
+
+    private static final int WRITERS = 6;
+    private static final int READERS = 2;
+    private static final int SAVES = 40;
+    private static final int READS = 150;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testConcurrentProcessesLoseNoUpdates() throws Exception {
+        List<Process> processes = new ArrayList<>();
+        List<Path> logs = new ArrayList<>();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            Path log = tempDir.resolve("writer-" + writer + ".log");
+            processes.add(start(Writer.class, log, tempDir.resolve("jdx").toString(), String.valueOf(writer)));
+            logs.add(log);
+        }
+        for (int reader = 0; reader < READERS; reader++) {
+            Path log = tempDir.resolve("reader-" + reader + ".log");
+            processes.add(start(Reader.class, log, tempDir.resolve("jdx").toString()));
+            logs.add(log);
+        }
+
+        for (int i = 0; i < processes.size(); i++) {
+            Process process = processes.get(i);
+            assertThat(process.waitFor(3, TimeUnit.MINUTES)).isTrue();
+            assertThat(process.exitValue())
+                .as("%s: %s", logs.get(i).getFileName(), Files.readString(logs.get(i)))
+                .isZero();
+        }
+
+        JdkCatalogImpl catalog = new JdkCatalogImpl(tempDir.resolve("jdx"));
+        assertThat(catalog.getAll()).hasSize(WRITERS * SAVES + 1);
+        assertThat(catalog.generation()).isGreaterThanOrEqualTo((long) WRITERS * SAVES);
+        assertThat(catalog.findById("shared")).isPresent();
+    }
+
+    private static Process start(Class<?> main, Path log, String... args) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+            Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", System.getProperty("java.class.path"),
+            main.getName()));
+        command.addAll(List.of(args));
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+    }
+
+    private static JdkInfo entry(String id, String owner) {
+        // Module lists make entries large enough for the journal to pass its compaction threshold
+        return new JdkInfo(id, "21.0." + id.hashCode() % 10, owner, "x86_64", "/opt/jdks/" + id,
+            new LinkedHashSet<>(List.of("jlink")), true, null, null, null, null,
+            Collections.nCopies(80, "jdk.module." + id), List.of(), null);
+    }
+
+    /**
+     * Adds {@code w<n>-0} to {@code w<n>-<SAVES - 1>}, one per save, and overwrites a shared
+     * entry each time, checking after each save that none of its entries went missing.
+     */
+    static final class Writer {
+        public static void main(String[] args) {
+            Path dir = Paths.get(args[0]);
+            String name = "w" + args[1];
+            for (int i = 0; i < SAVES; i++) {
+                JdkCatalogImpl catalog = new JdkCatalogImpl(dir);
+                catalog.add(entry(name + "-" + i, name));
+                catalog.add(entry("shared", name + "-" + i));
+                catalog.save();
+                for (int j = 0; j <= i; j++) {
+                    if (catalog.findById(name + "-" + j).isEmpty()) {
+                        System.err.println(name + "-" + j + " missing after save " + i);
+                        System.exit(1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the catalog repeatedly, checking each load is one consistent generation.
+     */
+    static final class Reader {
+        public static void main(String[] args) {
+            Path dir = Paths.get(args[0]);
+            long lastGeneration = 0;
+            for (int read = 0; read < READS; read++) {
+                JdkCatalogImpl catalog = new JdkCatalogImpl(dir);
+                if (catalog.generation() < lastGeneration) {
+                    System.err.println("generation went back from " + lastGeneration + " to " + catalog.generation());
+                    System.exit(1);
+                }
+                lastGeneration = catalog.generation();
+
+                Map<String, Set<Integer>> saved = new HashMap<>();
+                for (JdkInfo jdk : catalog.getAll()) {
+                    int dash = jdk.id().indexOf('-');
+                    if (!jdk.id().equals("shared")) {
+                        saved.computeIfAbsent(jdk.id().substring(0, dash), w -> new TreeSet<>())
+                            .add(Integer.parseInt(jdk.id().substring(dash + 1)));
+                    }
+                }
+                for (Map.Entry<String, Set<Integer>> writer : saved.entrySet()) {
+                    Set<Integer> sequence = writer.getValue();
+                    if (sequence.size() != Collections.max(sequence) + 1) {
+                        System.err.println("generation " + lastGeneration + " has " + writer.getKey() + " " + sequence);
+                        System.exit(1);
+                    }
+                }
+            }
+        }
+    }
+}
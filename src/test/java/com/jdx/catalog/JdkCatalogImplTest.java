@@ -0,0 +1,150 @@
+package com.jdx.catalog;
+
+import com.jdx.model.JdkInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdkCatalogImplTest {
+
+    private static final Path NFS = Paths.get("/mnt/nfs");
+    private static final Path SMB = Paths.get("/mnt/smb");
+    private static final Path USB = Paths.get("/media/usb");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSavesOverChangesOfAnotherCatalog() {
+        JdkCatalogImpl first = new JdkCatalogImpl(tempDir);
+        JdkCatalogImpl second = new JdkCatalogImpl(tempDir);
+
+        first.add(jdk("temurin-21"));
+        first.save();
+        second.add(jdk("zulu-17"));
+        second.save();
+
+        assertThat(new JdkCatalogImpl(tempDir).getAll().stream().map(JdkInfo::id).toList())
+            .containsExactlyInAnyOrder("temurin-21", "zulu-17");
+    }
+
+    @Test
+    void testMergesSlowRootsSetFromStaleReads() {
+        JdkCatalogImpl setup = new JdkCatalogImpl(tempDir);
+        setup.setSlowRoots(Set.of(NFS));
+        setup.save();
+
+        JdkCatalogImpl first = new JdkCatalogImpl(tempDir);
+        JdkCatalogImpl second = new JdkCatalogImpl(tempDir);
+        // One scan found the NFS root fast again, another timed out on a new root
+        first.setSlowRoots(Set.of());
+        first.save();
+        second.setSlowRoots(Set.of(NFS, SMB));
+        second.save();
+
+        assertThat(new JdkCatalogImpl(tempDir).getSlowRoots()).containsExactlyInAnyOrder(SMB);
+        assertThat(second.getSlowRoots()).containsExactlyInAnyOrder(SMB);
+    }
+
+    @Test
+    void testSkipsSlowRootsChangeAlreadySaved() {
+        JdkCatalogImpl first = new JdkCatalogImpl(tempDir);
+        JdkCatalogImpl second = new JdkCatalogImpl(tempDir);
+
+        first.setSlowRoots(Set.of(USB));
+        first.save();
+        long generation = first.generation();
+        second.setSlowRoots(Set.of(USB));
+        second.save();
+
+        JdkCatalogImpl reloaded = new JdkCatalogImpl(tempDir);
+        assertThat(reloaded.getSlowRoots()).containsExactlyInAnyOrder(USB);
+        assertThat(reloaded.generation()).isEqualTo(generation);
+    }
+
+    @Test
+    void testQuickScanAfterDeepScanKeepsAliasesAndGeneration() {
+        // A deep scan found the JDK through a symlink as well
+        JdkCatalogImpl deep = new JdkCatalogImpl(tempDir);
+        deep.add(jdk("temurin-21").withAliases(List.of("/usr/local/java")));
+        deep.save();
+        long generation = deep.generation();
+
+        // A quick scan does not search /usr/local, so sees no alias
+        JdkCatalogImpl quick = new JdkCatalogImpl(tempDir);
+        quick.add(jdk("temurin-21"));
+        quick.save();
+
+        JdkCatalogImpl reloaded = new JdkCatalogImpl(tempDir);
+        assertThat(quick.generation()).isEqualTo(generation);
+        assertThat(reloaded.generation()).isEqualTo(generation);
+        assertThat(reloaded.findById("temurin-21").orElseThrow().aliases()).containsExactly("/usr/local/java");
+    }
+
+    @Test
+    void testMergesNewAliasesIntoRecordedOnes() {
+        JdkCatalogImpl catalog = new JdkCatalogImpl(tempDir);
+        catalog.add(jdk("temurin-21").withAliases(List.of("/usr/local/java")));
+        catalog.save();
+
+        catalog.add(jdk("temurin-21").withAliases(List.of("/opt/java")));
+        catalog.save();
+
+        assertThat(new JdkCatalogImpl(tempDir).findById("temurin-21").orElseThrow().aliases())
+            .containsExactly("/usr/local/java", "/opt/java");
+    }
+
+    @Test
+    void testImportsCatalogJsonCopiedInWithAnOlderTime() throws IOException {
+        Path backup = Files.createDirectories(tempDir.resolve("backup"));
+        JdkCatalogImpl old = new JdkCatalogImpl(backup);
+        old.add(jdk("zulu-17"));
+        old.save();
+        JdkCatalogImpl current = new JdkCatalogImpl(tempDir);
+        current.add(jdk("temurin-21"));
+        current.save();
+
+        // Restored as cp -p would: the file keeps the time it had in the backup
+        Files.copy(backup.resolve("catalog.json"), tempDir.resolve("catalog.json"), StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(tempDir.resolve("catalog.json"), FileTime.fromMillis(0));
+
+        assertThat(new JdkCatalogImpl(tempDir).getAll()).extracting(JdkInfo::id).containsExactly("zulu-17");
+        // Rebuilt from the import, so not imported again
+        JdkCatalogImpl reloaded = new JdkCatalogImpl(tempDir);
+        reloaded.add(jdk("corretto-11"));
+        reloaded.save();
+        assertThat(new JdkCatalogImpl(tempDir).getAll()).extracting(JdkInfo::id)
+            .containsExactlyInAnyOrder("zulu-17", "corretto-11");
+    }
+
+    @Test
+    void testIgnoresCatalogJsonTimeWhenUnchanged() throws IOException {
+        JdkCatalogImpl catalog = new JdkCatalogImpl(tempDir);
+        catalog.add(jdk("temurin-21"));
+        catalog.save();
+        // Journaled, not yet in catalog.json
+        catalog.add(jdk("zulu-17"));
+        catalog.save();
+
+        Files.setLastModifiedTime(tempDir.resolve("catalog.json"), FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        assertThat(new JdkCatalogImpl(tempDir).getAll()).extracting(JdkInfo::id)
+            .containsExactlyInAnyOrder("temurin-21", "zulu-17");
+    }
+
+    private static JdkInfo jdk(String id) {
+        return new JdkInfo(id, "21.0.1", "Eclipse Adoptium", "x86_64", "/opt/jdks/" + id,
+            new LinkedHashSet<>(List.of("jlink")), true);
+    }
+}
@@ -0,0 +1,93 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchiveReaderTest {
+
+    private static final String RELEASE = "JAVA_VERSION=\"21.0.1\"\nIMPLEMENTOR=\"Eclipse Adoptium\"\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecordsTarEntriesAfterRelease() throws IOException {
+        Path archive = tempDir.resolve("jdk-21.tar.gz");
+        gzip(archive, new TarWriter()
+            .file("jdk-21/release", RELEASE)
+            .file("jdk-21/bin/jlink", "")
+            .file("jdk-21/jmods/java.base.jmod", "")
+            .toByteArray());
+
+        ArchiveReader.Archived archived = ArchiveReader.read(archive).orElseThrow();
+
+        assertThat(archived.home()).isEqualTo("jdk-21");
+        assertThat(archived.release().javaVersion()).isEqualTo("21.0.1");
+        assertThat(archived.contains("bin/jlink")).isTrue();
+        assertThat(archived.contains("jmods")).isTrue();
+    }
+
+    @Test
+    void testPicksShallowestReleaseInTar() throws IOException {
+        Path archive = tempDir.resolve("jdk-21.tar");
+        Files.write(archive, new TarWriter()
+            .file("jdk-21/demo/app/release", "JAVA_VERSION=\"1.0\"\n")
+            .file("jdk-21/release", RELEASE)
+            .toByteArray());
+
+        ArchiveReader.Archived archived = ArchiveReader.read(archive).orElseThrow();
+
+        assertThat(archived.home()).isEqualTo("jdk-21");
+        assertThat(archived.release().javaVersion()).isEqualTo("21.0.1");
+    }
+
+    @Test
+    void testTarAndZipReportTheSameEntries() throws IOException {
+        String[] names = {"jdk-21/release", "jdk-21/bin/jlink", "jdk-21/lib/server/classes.jsa"};
+        Path tarball = tempDir.resolve("jdk-21.tar");
+        TarWriter tar = new TarWriter();
+        for (String name : names) {
+            tar.file(name, name.endsWith("release") ? RELEASE : "");
+        }
+        Files.write(tarball, tar.toByteArray());
+        Path zip = tempDir.resolve("jdk-21.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            for (String name : names) {
+                out.putNextEntry(new ZipEntry(name));
+                out.write((name.endsWith("release") ? RELEASE : "").getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+
+        ArchiveReader.Archived fromTar = ArchiveReader.read(tarball).orElseThrow();
+        ArchiveReader.Archived fromZip = ArchiveReader.read(zip).orElseThrow();
+
+        assertThat(fromTar.home()).isEqualTo(fromZip.home());
+        assertThat(fromTar.entries()).isEqualTo(fromZip.entries());
+    }
+
+    @Test
+    void testIgnoresArchivesWithoutRelease() throws IOException {
+        Path archive = tempDir.resolve("app.tar");
+        Files.write(archive, new TarWriter().file("app/bin/run", "").toByteArray());
+
+        assertThat(ArchiveReader.read(archive)).isEmpty();
+    }
+
+    private static void gzip(Path file, byte[] data) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(data);
+        }
+    }
+}
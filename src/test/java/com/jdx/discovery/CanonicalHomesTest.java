@@ -0,0 +1,83 @@
+package com.jdx.discovery;
+
+import com.jdx.model.JdkInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisabledOnOs(OS.WINDOWS)
+class CanonicalHomesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecordsLaterPathsAsAliases() throws IOException {
+        Path real = Files.createDirectories(tempDir.resolve("jvm/java-17"));
+        Path link = Files.createSymbolicLink(tempDir.resolve("jvm/default-java"), real);
+        CanonicalHomes homes = new CanonicalHomes();
+
+        assertThat(homes.claim(link)).contains(real.toRealPath());
+        assertThat(homes.claim(real)).isEmpty();
+
+        assertThat(homes.aliasesOf(real.toRealPath())).containsExactly(link.toString());
+    }
+
+    @Test
+    void testOrdersByFirstRootWhicheverPathClaimedFirst() throws IOException {
+        Path sdkman = Files.createDirectories(tempDir.resolve("sdkman"));
+        Path jvm = Files.createDirectories(tempDir.resolve("jvm"));
+        Path java17 = Files.createDirectories(jvm.resolve("java-17")).toRealPath();
+        Path java21 = Files.createDirectories(jvm.resolve("java-21")).toRealPath();
+        Path current = Files.createSymbolicLink(sdkman.resolve("current"), java21);
+        List<DiscoveryRoot> roots = List.of(DiscoveryRoot.children(sdkman), DiscoveryRoot.children(jvm));
+
+        for (boolean linkFirst : List.of(true, false)) {
+            CanonicalHomes homes = new CanonicalHomes();
+            homes.claim(java17);
+            if (linkFirst) {
+                homes.claim(current);
+                homes.claim(java21);
+            } else {
+                homes.claim(java21);
+                homes.claim(current);
+            }
+
+            // Merged as the jvm root found them; java-21 was also reached from the first root
+            List<JdkInfo> ordered = homes.inRootOrder(List.of(jdk(java17), jdk(java21)), roots);
+
+            assertThat(ordered).extracting(JdkInfo::path).containsExactly(java21.toString(), java17.toString());
+        }
+    }
+
+    @Test
+    void testOrdersAliasesInOneRootByPath() throws IOException {
+        Path jvm = Files.createDirectories(tempDir.resolve("jvm")).toRealPath();
+        Path java11 = Files.createDirectories(jvm.resolve("java-11"));
+        Path java17 = Files.createDirectories(jvm.resolve("java-17"));
+        Path defaultJava = Files.createSymbolicLink(jvm.resolve("default-java"), java17);
+        CanonicalHomes homes = new CanonicalHomes();
+        homes.claim(java17);
+        homes.claim(java11);
+        homes.claim(defaultJava);
+
+        List<JdkInfo> ordered = homes.inRootOrder(List.of(jdk(java11), jdk(java17)),
+            List.of(DiscoveryRoot.children(jvm)));
+
+        // default-java sorts before java-11, as it would had it been claimed first
+        assertThat(ordered).extracting(JdkInfo::path).containsExactly(java17.toString(), java11.toString());
+    }
+
+    private static JdkInfo jdk(Path home) {
+        return new JdkInfo(home.getFileName().toString(), "17", "Vendor", "x86_64", home.toString(), Set.of(), true);
+    }
+}
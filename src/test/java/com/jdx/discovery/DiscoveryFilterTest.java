@@ -0,0 +1,71 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisabledOnOs(OS.WINDOWS)
+class DiscoveryFilterTest {
+
+    @Test
+    void testDoubleStarMatchesAtAnyDepth() {
+        DiscoveryFilter filter = DiscoveryFilter.of(List.of(), List.of("**/node_modules"));
+
+        assertThat(filter.excludes(Paths.get("/node_modules"))).isTrue();
+        assertThat(filter.excludes(Paths.get("/usr/local/lib/node_modules"))).isTrue();
+        assertThat(filter.excludes(Paths.get("/usr/local/lib/node_modules/jdk"))).isFalse();
+        assertThat(filter.excludes(Paths.get("/usr/local/lib/node_modules_old"))).isFalse();
+    }
+
+    @Test
+    void testSingleStarStaysWithinOneDirectory() {
+        DiscoveryFilter filter = DiscoveryFilter.of(List.of(), List.of("/opt/*/.git"));
+
+        assertThat(filter.excludes(Paths.get("/opt/app/.git"))).isTrue();
+        assertThat(filter.excludes(Paths.get("/opt/vendor/app/.git"))).isFalse();
+        assertThat(filter.excludes(Paths.get("/srv/app/.git"))).isFalse();
+    }
+
+    @Test
+    void testUnanchoredGlobsMatchAtAnyDepth() {
+        DiscoveryFilter filter = DiscoveryFilter.of(List.of(), List.of("node_modules", " */build ", ""));
+
+        assertThat(filter.excludes(Paths.get("/home/dev/app/node_modules"))).isTrue();
+        assertThat(filter.excludes(Paths.get("/home/dev/app/build"))).isTrue();
+        assertThat(filter.excludes(Paths.get("/build"))).isFalse();
+        assertThat(filter.excludes(Paths.get("/home/dev/app"))).isFalse();
+    }
+
+    @Test
+    void testAnchoredGlobsMatchFromTheRoot() {
+        DiscoveryFilter filter = DiscoveryFilter.of(List.of(), List.of("/opt/cache"));
+
+        assertThat(filter.excludes(Paths.get("/opt/cache"))).isTrue();
+        assertThat(filter.excludes(Paths.get("/srv/opt/cache"))).isFalse();
+    }
+
+    @Test
+    void testIncludesRestrictRecordedHomes() {
+        DiscoveryFilter filter = DiscoveryFilter.of(List.of("/opt/jdks/*", "**/temurin-*"), List.of());
+
+        assertThat(filter.includes(Paths.get("/opt/jdks/jdk-21"))).isTrue();
+        assertThat(filter.includes(Paths.get("/home/dev/.jdks/temurin-17"))).isTrue();
+        assertThat(filter.includes(Paths.get("/opt/other/jdk-21"))).isFalse();
+        assertThat(DiscoveryFilter.of(List.of(), List.of()).includes(Paths.get("/anywhere"))).isTrue();
+        assertThat(DiscoveryFilter.of(null, null).excludes(Paths.get("/anywhere"))).isFalse();
+    }
+
+    @Test
+    void testIncludeOverridesExclude() {
+        DiscoveryFilter filter = DiscoveryFilter.of(List.of("/opt/tools/.cache/jdk-*"), List.of("**/.cache/*"));
+
+        assertThat(filter.excludes(Paths.get("/opt/tools/.cache/jdk-21"))).isFalse();
+        assertThat(filter.excludes(Paths.get("/opt/tools/.cache/maven"))).isTrue();
+        assertThat(filter.includes(Paths.get("/opt/tools/.cache/jdk-21"))).isTrue();
+    }
+}
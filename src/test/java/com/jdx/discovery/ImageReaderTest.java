@@ -0,0 +1,149 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageReaderTest {
+
+    private static final String TEMURIN = "opt/java/openjdk";
+    private static final String DISTRO = "usr/lib/jvm/java-17-openjdk";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFindsJdksOfAllLayers() throws IOException {
+        Path image = layout(baseLayer(), new TarWriter().file("etc/hostname", "box").toByteArray());
+
+        List<ImageReader.Image> images = ImageReader.read(image);
+
+        assertThat(images).hasSize(1);
+        assertThat(images.get(0).ref()).isEqualTo("jdx-test:latest");
+        assertThat(homes(images.get(0))).containsExactly(TEMURIN, DISTRO);
+        ArchiveReader.Archived temurin = images.get(0).jdks().get(0);
+        assertThat(temurin.release().javaVersion()).isEqualTo("21.0.1");
+        assertThat(temurin.entries()).contains(TEMURIN + "/bin/jlink");
+    }
+
+    @Test
+    void testWhiteoutRemovesJdkOfLowerLayer() throws IOException {
+        Path image = layout(baseLayer(), new TarWriter()
+            .file("usr/lib/jvm/.wh.java-17-openjdk", "")
+            .toByteArray());
+
+        assertThat(homes(ImageReader.read(image).get(0))).containsExactly(TEMURIN);
+    }
+
+    @Test
+    void testOpaqueDirectoryHidesLowerLayerButKeepsOwnFiles() throws IOException {
+        Path image = layout(baseLayer(), new TarWriter()
+            .file("opt/java/.wh..wh..opq", "")
+            .file("opt/java/jdk-22/release", "JAVA_VERSION=\"22\"\n")
+            .toByteArray());
+
+        ImageReader.Image read = ImageReader.read(image).get(0);
+
+        assertThat(homes(read)).containsExactly("opt/java/jdk-22", DISTRO);
+        // The opaque directory hid the jlink of the lower layer's JDK with it
+        assertThat(read.jdks().get(0).entries()).isEmpty();
+    }
+
+    @Test
+    void testUpperLayerReplacesReleaseFile() throws IOException {
+        Path image = layout(baseLayer(), new TarWriter()
+            .file(TEMURIN + "/release", "JAVA_VERSION=\"21.0.2\"\n")
+            .toByteArray());
+
+        ArchiveReader.Archived temurin = ImageReader.read(image).get(0).jdks().get(0);
+
+        assertThat(temurin.release().javaVersion()).isEqualTo("21.0.2");
+        assertThat(temurin.entries()).contains(TEMURIN + "/bin/jlink");
+    }
+
+    @Test
+    void testReadsDockerSaveTarball() throws IOException {
+        Path tarball = tempDir.resolve("image.tar");
+        Files.write(tarball, new TarWriter()
+            .file("manifest.json", """
+                [{"Config": "config.json", "RepoTags": ["jdx-test:21"],
+                  "Layers": ["base/layer.tar", "top/layer.tar"]}]
+                """)
+            .file("base/layer.tar", baseLayer())
+            .file("top/layer.tar", new TarWriter().file("usr/lib/jvm/.wh.java-17-openjdk", "").toByteArray())
+            .toByteArray());
+
+        List<ImageReader.Image> images = ImageReader.read(tarball);
+
+        assertThat(images).hasSize(1);
+        assertThat(images.get(0).ref()).isEqualTo("jdx-test:21");
+        assertThat(homes(images.get(0))).containsExactly(TEMURIN);
+    }
+
+    /** Two JDKs, one with jlink, and a file that is not a JDK. */
+    private static byte[] baseLayer() {
+        return new TarWriter()
+            .directory(TEMURIN + "/")
+            .file(TEMURIN + "/release", "JAVA_VERSION=\"21.0.1\"\nIMPLEMENTOR=\"Eclipse Adoptium\"\n")
+            .file(TEMURIN + "/bin/jlink", "")
+            .file(DISTRO + "/release", "JAVA_VERSION=\"17.0.9\"\n")
+            .file("usr/lib/jvm/README", "not a JDK")
+            .toByteArray();
+    }
+
+    /**
+     * Write an OCI image layout with one image made of {@code layers}, bottom to top; the
+     * first layer is stored gzip-compressed and the others plain.
+     */
+    private Path layout(byte[]... layers) throws IOException {
+        Path image = tempDir.resolve("layout");
+        Files.createDirectories(image.resolve("blobs/sha256"));
+        Files.writeString(image.resolve("oci-layout"), "{\"imageLayoutVersion\": \"1.0.0\"}");
+
+        StringBuilder descriptors = new StringBuilder();
+        for (int i = 0; i < layers.length; i++) {
+            byte[] layer = i == 0 ? gzip(layers[i]) : layers[i];
+            descriptors.append(i == 0 ? "" : ", ").append("{\"digest\": \"").append(blob(image, layer)).append("\"}");
+        }
+        String manifest = blob(image, ("{\"schemaVersion\": 2, \"mediaType\": \"application/vnd.oci.image.manifest.v1+json\","
+            + " \"layers\": [" + descriptors + "]}").getBytes(StandardCharsets.UTF_8));
+        Files.writeString(image.resolve("index.json"), "{\"schemaVersion\": 2, \"manifests\": [{"
+            + "\"mediaType\": \"application/vnd.oci.image.manifest.v1+json\", \"digest\": \"" + manifest + "\","
+            + " \"annotations\": {\"org.opencontainers.image.ref.name\": \"jdx-test:latest\"}}]}");
+        return image;
+    }
+
+    private static String blob(Path image, byte[] content) throws IOException {
+        try {
+            String hex = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+            Files.write(image.resolve("blobs/sha256").resolve(hex), content);
+            return "sha256:" + hex;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<String> homes(ImageReader.Image image) {
+        return image.jdks().stream().map(ArchiveReader.Archived::home).toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JImageTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testListsModulesOfLittleEndianImage() throws IOException {
+        Path image = write(ByteOrder.LITTLE_ENDIAN);
+
+        assertThat(JImage.modules(image)).containsExactly("java.base", "jdk.jfr");
+    }
+
+    @Test
+    void testListsModulesOfBigEndianImage() throws IOException {
+        Path image = write(ByteOrder.BIG_ENDIAN);
+
+        assertThat(JImage.modules(image)).containsExactly("java.base", "jdk.jfr");
+    }
+
+    @Test
+    void testRejectsFileWithoutMagic() throws IOException {
+        Path image = tempDir.resolve("modules");
+        Files.write(image, new byte[64]);
+
+        assertThatThrownBy(() -> JImage.modules(image))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Not a jimage file");
+    }
+
+    @Test
+    void testRejectsTruncatedIndex() throws IOException {
+        Path image = write(ByteOrder.LITTLE_ENDIAN);
+        byte[] bytes = Files.readAllBytes(image);
+        Files.write(image, Arrays.copyOf(bytes, bytes.length - 8));
+
+        assertThatThrownBy(() -> JImage.modules(image))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Corrupt jimage");
+    }
+
+    /**
+     * Three resources in two modules: java.base twice and jdk.jfr once.
+     */
+    private Path write(ByteOrder order) throws IOException {
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        strings.write(0); // empty string at offset 0
+        int javaBase = string(strings, "java.base");
+        int jdkJfr = string(strings, "jdk.jfr");
+        int moduleInfo = string(strings, "module-info");
+
+        ByteArrayOutputStream locations = new ByteArrayOutputStream();
+        int[] offsets = {
+            location(locations, javaBase, moduleInfo),
+            location(locations, jdkJfr, moduleInfo),
+            location(locations, javaBase, 0)
+        };
+
+        int tableLength = offsets.length;
+        ByteBuffer buffer = ByteBuffer.allocate(28 + 8 * tableLength + locations.size() + strings.size()).order(order);
+        buffer.putInt(0xCAFEDADA).putInt(1 << 16).putInt(0).putInt(tableLength).putInt(tableLength)
+            .putInt(locations.size()).putInt(strings.size());
+        for (int i = 0; i < tableLength; i++) {
+            buffer.putInt(0); // redirect table, unused when listing
+        }
+        for (int offset : offsets) {
+            buffer.putInt(offset);
+        }
+        buffer.put(locations.toByteArray()).put(strings.toByteArray());
+
+        Path image = tempDir.resolve("modules");
+        Files.write(image, buffer.array());
+        return image;
+    }
+
+    private static int string(ByteArrayOutputStream strings, String value) {
+        int offset = strings.size();
+        strings.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        strings.write(0);
+        return offset;
+    }
+
+    /**
+     * Encode a location with a module and base attribute, each as a one-byte value.
+     */
+    private static int location(ByteArrayOutputStream locations, int module, int base) {
+        int offset = locations.size();
+        locations.write(3 << 3); // base
+        locations.write(base);
+        locations.write(1 << 3); // module
+        locations.write(module);
+        locations.write(0); // end
+        return offset;
+    }
+}
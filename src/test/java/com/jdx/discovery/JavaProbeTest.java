@@ -0,0 +1,75 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JavaProbeTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testParsesPropertiesWithReleaseFileArch() {
+        ReleaseFile release = JavaProbe.parse("""
+            Property settings:
+                file.separator = /
+                java.class.path =\s
+                java.library.path = /usr/java/packages/lib
+                    /usr/lib64
+                    /lib64
+                java.runtime.version = 1.8.0_392-b08
+                java.vendor = Temurin
+                java.version = 1.8.0_392
+                os.arch = amd64
+
+            openjdk version "1.8.0_392"
+            """).orElseThrow();
+
+        assertThat(release.javaVersion()).isEqualTo("1.8.0_392");
+        assertThat(release.runtimeVersion()).isEqualTo("1.8.0_392-b08");
+        assertThat(release.implementor()).isEqualTo("Temurin");
+        assertThat(release.osArch()).isEqualTo("x86_64");
+    }
+
+    @Test
+    void testTranslatesArchToReleaseFileNames() {
+        assertThat(JavaProbe.releaseArch("amd64")).isEqualTo("x86_64");
+        assertThat(JavaProbe.releaseArch("x86_64")).isEqualTo("x86_64");
+        assertThat(JavaProbe.releaseArch("i386")).isEqualTo("x86");
+        assertThat(JavaProbe.releaseArch("arm64")).isEqualTo("aarch64");
+        assertThat(JavaProbe.releaseArch("ppc64le")).isEqualTo("ppc64le");
+        assertThat(JavaProbe.releaseArch(null)).isNull();
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void testTrustsOnlyLaunchersNobodyElseCanWrite() throws IOException {
+        Path bin = Files.createDirectories(tempDir.resolve("jdk/bin"));
+        Files.setPosixFilePermissions(bin, PosixFilePermissions.fromString("rwxr-xr-x"));
+        Path java = Files.createFile(bin.resolve("java"));
+        Files.setPosixFilePermissions(java, PosixFilePermissions.fromString("rwxr-xr-x"));
+        assertThat(JavaProbe.isTrusted(java)).isTrue();
+
+        Files.setPosixFilePermissions(java, PosixFilePermissions.fromString("rwxrwxr-x"));
+        assertThat(JavaProbe.isTrusted(java)).isFalse();
+
+        // A launcher that is safe itself but can be replaced
+        Files.setPosixFilePermissions(java, PosixFilePermissions.fromString("rwxr-xr-x"));
+        Files.setPosixFilePermissions(bin, PosixFilePermissions.fromString("rwxrwxrwx"));
+        assertThat(JavaProbe.isTrusted(java)).isFalse();
+
+        // Links are judged by what they point to
+        Files.setPosixFilePermissions(bin, PosixFilePermissions.fromString("rwxr-xr-x"));
+        Path link = Files.createSymbolicLink(tempDir.resolve("java"), java);
+        assertThat(JavaProbe.isTrusted(link)).isTrue();
+    }
+}
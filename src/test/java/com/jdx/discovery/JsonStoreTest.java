@@ -0,0 +1,54 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonStoreTest {
+
+    record Entry(String name, long size) {}
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTripsEntries() throws IOException {
+        Path file = tempDir.resolve("jdx/index.json");
+        new JsonStore<>(file, 1, Entry.class).save(Map.of("/opt/jdk", new Entry("jdk", 42)));
+
+        assertThat(new JsonStore<>(file, 1, Entry.class).load())
+            .contains(Map.of("/opt/jdk", new Entry("jdk", 42)));
+        // Nothing but the file itself is left behind
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    void testMissingFileLoadsNothing() {
+        assertThat(new JsonStore<>(tempDir.resolve("index.json"), 1, Entry.class).load()).isEmpty();
+    }
+
+    @Test
+    void testOtherVersionLoadsEmpty() throws IOException {
+        Path file = tempDir.resolve("index.json");
+        new JsonStore<>(file, 1, Entry.class).save(Map.of("/opt/jdk", new Entry("jdk", 42)));
+
+        assertThat(new JsonStore<>(file, 2, Entry.class).load()).contains(Map.of());
+    }
+
+    @Test
+    void testCorruptFileLoadsEmpty() throws IOException {
+        Path file = tempDir.resolve("index.json");
+        Files.writeString(file, "{\"version\":1,\"entries\":{\"/opt/j");
+
+        assertThat(new JsonStore<>(file, 1, Entry.class).load()).contains(Map.of());
+    }
+}
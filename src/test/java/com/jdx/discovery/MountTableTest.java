@@ -0,0 +1,74 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MountTableTest {
+
+    private static final List<String> MOUNTINFO = List.of(
+        "22 1 8:1 / / rw,relatime shared:1 - ext4 /dev/sda1 rw,errors=remount-ro",
+        "23 22 0:21 / /proc rw,nosuid,nodev,noexec,relatime shared:12 - proc proc rw",
+        "24 22 0:22 / /sys rw,nosuid,nodev,noexec,relatime shared:7 - sysfs sysfs rw",
+        "25 24 0:23 / /sys/fs/cgroup rw,nosuid,nodev,noexec,relatime shared:9 - cgroup2 cgroup2 rw",
+        "40 22 0:50 / /mnt/nfs rw,relatime shared:30 - nfs4 server:/export rw,vers=4.2",
+        "41 22 0:51 / /mnt/remote rw,nosuid,nodev,relatime shared:31 - fuse.sshfs user@host:/ rw",
+        "42 22 8:1 /srv/jdks /opt/jdks rw,relatime shared:1 master:2 - ext4 /dev/sda1 rw",
+        "43 22 8:17 / /mnt/My\\040Disk rw,relatime - ext4 /dev/sdb1 rw",
+        "44 22 8:18 / /mnt/back\\134slash\\x rw,relatime - xfs /dev/sdb2 rw",
+        "45 22 0:60 / /mnt/stack rw,relatime - tmpfs tmpfs rw",
+        "46 45 0:61 / /mnt/stack rw,relatime - overlay overlay rw,lowerdir=/a,upperdir=/b",
+        "not a mountinfo line",
+        "47 22 0:62 / /mnt/short rw -");
+
+    private final MountTable table = MountTable.parse(MOUNTINFO);
+
+    @Test
+    void testParsesMountsAndSkipsMalformedLines() {
+        assertThat(table.size()).isEqualTo(10);
+
+        MountTable.Mount root = table.mountAt(Paths.get("/"));
+        assertThat(root.device()).isEqualTo("8:1");
+        assertThat(root.root()).isEqualTo("/");
+        assertThat(root.type()).isEqualTo("ext4");
+        assertThat(table.mountAt(Paths.get("/mnt/short"))).isNull();
+        assertThat(table.mountAt(Paths.get("/usr"))).isNull();
+    }
+
+    @Test
+    void testClassifiesPseudoAndRemoteFileSystems() {
+        assertThat(table.mountAt(Paths.get("/proc")).isPseudo()).isTrue();
+        assertThat(table.mountAt(Paths.get("/sys")).isPseudo()).isTrue();
+        assertThat(table.mountAt(Paths.get("/sys/fs/cgroup")).isPseudo()).isTrue();
+        assertThat(table.mountAt(Paths.get("/")).isPseudo()).isFalse();
+
+        assertThat(table.mountAt(Paths.get("/mnt/nfs")).isRemote()).isTrue();
+        assertThat(table.mountAt(Paths.get("/mnt/remote")).isRemote()).isTrue();
+        assertThat(table.mountAt(Paths.get("/")).isRemote()).isFalse();
+    }
+
+    @Test
+    void testKeepsBindMountRoot() {
+        MountTable.Mount bind = table.mountAt(Paths.get("/opt/jdks"));
+
+        // Same device as /, but a different directory of it
+        assertThat(bind.device()).isEqualTo("8:1");
+        assertThat(bind.root()).isEqualTo("/srv/jdks");
+        assertThat(bind.isPseudo()).isFalse();
+    }
+
+    @Test
+    void testUnescapesOctalEscapes() {
+        assertThat(table.mountAt(Paths.get("/mnt/My Disk")).device()).isEqualTo("8:17");
+        // A backslash not followed by three octal digits is kept as it is
+        assertThat(table.mountAt(Paths.get("/mnt/back\\slash\\x")).type()).isEqualTo("xfs");
+    }
+
+    @Test
+    void testLastStackedMountIsVisible() {
+        assertThat(table.mountAt(Paths.get("/mnt/stack")).type()).isEqualTo("overlay");
+    }
+}
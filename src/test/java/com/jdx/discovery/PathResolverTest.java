@@ -0,0 +1,104 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathResolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFindsExecutablesInPathOrder() throws IOException {
+        Path first = executable(tempDir.resolve("first/java"));
+        Path second = executable(tempDir.resolve("second/java"));
+
+        PathResolver resolver = new PathResolver(path(second.getParent(), first.getParent()), null);
+
+        assertThat(resolver.findAll("java")).containsExactly(second, first);
+        assertThat(resolver.find("java")).contains(second);
+    }
+
+    @Test
+    void testSkipsEmptyAndQuotedEntries() throws IOException {
+        Path java = executable(tempDir.resolve("bin/java"));
+        String path = File.pathSeparator + "\"" + java.getParent() + "\"" + File.pathSeparator + " " + File.pathSeparator;
+
+        assertThat(new PathResolver(path, null).findAll("java")).containsExactly(java);
+        assertThat(new PathResolver("", null).findAll("java")).isEmpty();
+        assertThat(new PathResolver(null, null).findAll("java")).isEmpty();
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void testSkipsNonExecutableMatches() throws IOException {
+        Path plain = tempDir.resolve("plain/java");
+        Files.createDirectories(plain.getParent());
+        Files.createFile(plain, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-r--r--")));
+        Files.createDirectories(tempDir.resolve("directory/java"));
+        Path java = executable(tempDir.resolve("bin/java"));
+
+        PathResolver resolver = new PathResolver(
+            path(plain.getParent(), tempDir.resolve("directory"), java.getParent()), null);
+
+        assertThat(resolver.findAll("java")).containsExactly(java);
+    }
+
+    @Test
+    void testTriesEachPathExtension() throws IOException {
+        Path cmd = executable(tempDir.resolve("a/java.cmd"));
+        Path exe = executable(tempDir.resolve("b/java.exe"));
+        executable(tempDir.resolve("b/java"));
+
+        PathResolver resolver = new PathResolver(path(cmd.getParent(), exe.getParent()), ".COM;.EXE; ;.CMD");
+
+        assertThat(resolver.findAll("java")).containsExactly(cmd, exe);
+        // A PATHEXT without entries still finds .exe files
+        assertThat(new PathResolver(path(exe.getParent()), ";").findAll("java")).containsExactly(exe);
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void testResolvesSymlinkedJavaToItsHome() throws IOException {
+        Path home = tempDir.resolve("jvm/jdk-21");
+        Path java = executable(home.resolve("bin/java"));
+        Path alternatives = Files.createDirectories(tempDir.resolve("alternatives"));
+        Files.createSymbolicLink(alternatives.resolve("java"), java);
+        Path bin = Files.createDirectories(tempDir.resolve("usr/bin"));
+        Path link = Files.createSymbolicLink(bin.resolve("java"), alternatives.resolve("java"));
+
+        PathResolver resolver = new PathResolver(path(bin, home.resolve("bin")), null);
+
+        // Matches are reported as found on PATH, and both resolve to the one home
+        assertThat(resolver.findAll("java")).containsExactly(link, java);
+        assertThat(resolver.javaHomes()).containsExactly(home.toRealPath());
+    }
+
+    private static Path executable(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "#!/bin/sh\n");
+        file.toFile().setExecutable(true);
+        return file;
+    }
+
+    private static String path(Path... directories) {
+        StringBuilder path = new StringBuilder();
+        for (Path directory : directories) {
+            if (!path.isEmpty()) {
+                path.append(File.pathSeparator);
+            }
+            path.append(directory);
+        }
+        return path.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisabledOnOs(OS.WINDOWS)
+class ProcessRunnerTest {
+
+    @Test
+    void testReturnsOutputAndExitStatus() throws IOException {
+        List<String> lines = new ArrayList<>();
+
+        ProcessRunner.Result<Void> result = ProcessRunner.run(
+            new ProcessBuilder("sh", "-c", "printf 'a\\nb\\n'; exit 3"), Duration.ofSeconds(10),
+            ProcessRunner.lines(lines::add));
+
+        assertThat(lines).containsExactly("a", "b");
+        assertThat(result.exitStatus()).isEqualTo(3);
+    }
+
+    @Test
+    void testKillsCommandThatOutlivesTimeout() {
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> ProcessRunner.run(new ProcessBuilder("sleep", "30"), Duration.ofMillis(200),
+                in -> in.readAllBytes()))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("did not finish");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,71 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReleaseFileTest {
+
+    @Test
+    void testParsesModernReleaseFile() {
+        ReleaseFile release = parse("""
+            IMPLEMENTOR="Eclipse Adoptium"
+            IMPLEMENTOR_VERSION="Temurin-21.0.1+12"
+            JAVA_RUNTIME_VERSION="21.0.1+12-LTS"
+            JAVA_VERSION="21.0.1"
+            JAVA_VERSION_DATE="2023-10-17"
+            LIBC="gnu"
+            MODULES="java.base java.logging jdk.jfr"
+            OS_ARCH="x86_64"
+            OS_NAME="Linux"
+            IMAGE_TYPE="JDK"
+            """);
+
+        assertThat(release.javaVersion()).isEqualTo("21.0.1");
+        assertThat(release.runtimeVersion()).isEqualTo("21.0.1+12-LTS");
+        assertThat(release.implementor()).isEqualTo("Eclipse Adoptium");
+        assertThat(release.implementorVersion()).isEqualTo("Temurin-21.0.1+12");
+        assertThat(release.osArch()).isEqualTo("x86_64");
+        assertThat(release.libc()).isEqualTo("gnu");
+        assertThat(release.buildType()).isNull();
+        assertThat(release.modules()).containsExactly("java.base", "java.logging", "jdk.jfr");
+    }
+
+    @Test
+    void testParsesJdk8ReleaseFile() {
+        ReleaseFile release = parse("""
+            JAVA_VERSION="1.8.0_392"
+            OS_NAME="Linux"
+            OS_ARCH="amd64"
+            IMPLEMENTOR="Eclipse Adoptium"
+            """);
+
+        assertThat(release.javaVersion()).isEqualTo("1.8.0_392");
+        assertThat(release.osArch()).isEqualTo("amd64");
+        assertThat(release.runtimeVersion()).isNull();
+        assertThat(release.modules()).isEmpty();
+    }
+
+    @Test
+    void testHandlesUnquotedValuesWhitespaceAndCrlf() {
+        ReleaseFile release = parse("JAVA_VERSION = 17.0.9 \r\nIMPLEMENTOR=\"Oracle Corporation\"\r\nBUILD_TYPE=commercial\r\n");
+
+        assertThat(release.javaVersion()).isEqualTo("17.0.9");
+        assertThat(release.implementor()).isEqualTo("Oracle Corporation");
+        assertThat(release.buildType()).isEqualTo("commercial");
+    }
+
+    @Test
+    void testIgnoresMalformedLinesAndKeepsLastDuplicate() {
+        ReleaseFile release = parse("# comment\n=orphan\nJAVA_VERSION=\"11\"\nnot a pair\nJAVA_VERSION=\"11.0.2\"");
+
+        assertThat(release.javaVersion()).isEqualTo("11.0.2");
+        assertThat(release.implementor()).isNull();
+    }
+
+    private static ReleaseFile parse(String content) {
+        return ReleaseFile.parse(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
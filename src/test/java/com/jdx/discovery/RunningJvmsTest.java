@@ -0,0 +1,141 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RunningJvmsTest {
+
+    private static final long BOOT_TIME = 1_700_000_000L;
+    private static final Path HOME = Paths.get("/opt/jdks/temurin-21");
+
+    @TempDir
+    Path proc;
+
+    @BeforeEach
+    void writeBootTime() throws IOException {
+        Files.writeString(proc.resolve("stat"), "cpu  1 2 3 4\nbtime " + BOOT_TIME + "\nprocesses 42\n");
+    }
+
+    @Test
+    void testKeepsJavaLaunchersAndSkipsOthers() throws IOException {
+        process(100, "/usr/lib/jvm/java-17/bin/java", "java", 0);
+        process(101, "/usr/bin/bash", "bash", 0);
+        Files.createDirectories(proc.resolve("self"));
+        Files.createDirectories(proc.resolve("102"));
+
+        RunningJvms.Snapshot snapshot = RunningJvms.scan(proc, Set.of());
+
+        assertThat(snapshot.processes()).extracting(RunningJvms.JvmProcess::pid).containsExactly(100L);
+        assertThat(snapshot.inaccessible()).isZero();
+    }
+
+    @Test
+    void testStripsDeletedSuffix() throws IOException {
+        process(200, HOME + "/bin/java (deleted)", "java", 0);
+
+        RunningJvms.JvmProcess jvm = RunningJvms.scan(proc, Set.of(HOME)).processes().get(0);
+
+        assertThat(jvm.executable()).isEqualTo(HOME.resolve("bin/java"));
+        assertThat(jvm.deleted()).isTrue();
+    }
+
+    @Test
+    void testCountsAnyExecutableUnderAHome() throws IOException {
+        process(300, HOME + "/bin/jshell", "jshell", 0);
+        process(301, "/opt/other/bin/jshell", "jshell", 0);
+
+        RunningJvms.Snapshot snapshot = RunningJvms.scan(proc, Set.of(HOME));
+
+        assertThat(snapshot.processes()).extracting(RunningJvms.JvmProcess::executable)
+            .containsExactly(HOME.resolve("bin/jshell"));
+    }
+
+    @Test
+    void testReadsStartTimeAfterParenthesesInCommandName() throws IOException {
+        process(400, "/usr/bin/java", "evil) (name", 12_345);
+
+        RunningJvms.JvmProcess jvm = RunningJvms.scan(proc, Set.of()).processes().get(0);
+
+        assertThat(jvm.started()).isEqualTo(Instant.ofEpochSecond(BOOT_TIME).plusMillis(123_450));
+    }
+
+    @Test
+    void testReadsClockTicksFromAuxiliaryVector() throws IOException {
+        process(450, "/usr/bin/java", "java", 12_345);
+        boolean wide = !"32".equals(System.getProperty("sun.arch.data.model"));
+        ByteBuffer auxv = ByteBuffer.allocate(6 * (wide ? Long.BYTES : Integer.BYTES)).order(ByteOrder.nativeOrder());
+        // AT_PAGESZ, AT_CLKTCK, AT_NULL
+        for (long word : new long[] {6, 4096, 17, 250, 0, 0}) {
+            if (wide) {
+                auxv.putLong(word);
+            } else {
+                auxv.putInt((int) word);
+            }
+        }
+        Files.write(Files.createDirectories(proc.resolve("self")).resolve("auxv"), auxv.array());
+
+        RunningJvms.JvmProcess jvm = RunningJvms.scan(proc, Set.of()).processes().get(0);
+
+        assertThat(jvm.started()).isEqualTo(Instant.ofEpochSecond(BOOT_TIME).plusMillis(49_380));
+    }
+
+    @Test
+    void testReadsResidentSetSize() throws IOException {
+        process(500, "/usr/bin/java", "java", 0);
+        process(501, "/usr/bin/java", "java", 0);
+        Files.writeString(proc.resolve("501/status"), "Name:\tjava\nVmPeak:\t  1000 kB\n");
+
+        List<RunningJvms.JvmProcess> jvms = RunningJvms.scan(proc, Set.of()).processes().stream()
+            .sorted(Comparator.comparingLong(RunningJvms.JvmProcess::pid))
+            .toList();
+
+        assertThat(jvms).extracting(RunningJvms.JvmProcess::rssBytes).containsExactly(204_800L * 1024, -1L);
+    }
+
+    @Test
+    void testCountsProcessesWhoseExecutableIsDenied() throws IOException {
+        process(600, "/usr/bin/java", "java", 0);
+        process(601, "/usr/bin/java", "java", 0);
+        process(602, "/usr/bin/java", "java", 0);
+        Path denied = proc.resolve("601/exe");
+
+        RunningJvms.Snapshot snapshot = RunningJvms.scan(proc, Set.of(), link -> {
+            if (link.equals(denied)) {
+                throw new AccessDeniedException(link.toString());
+            }
+            return Files.readSymbolicLink(link);
+        });
+
+        assertThat(snapshot.processes()).extracting(RunningJvms.JvmProcess::pid).containsExactlyInAnyOrder(600L, 602L);
+        assertThat(snapshot.inaccessible()).isEqualTo(1);
+    }
+
+    /**
+     * A process directory with an {@code exe} link, a {@code status} with 200 MB resident
+     * and a {@code stat} starting {@code ticks} after boot.
+     */
+    private void process(long pid, String exe, String command, long ticks) throws IOException {
+        Path dir = Files.createDirectories(proc.resolve(Long.toString(pid)));
+        Files.createSymbolicLink(dir.resolve("exe"), Paths.get(exe));
+        Files.writeString(dir.resolve("status"), "Name:\t" + command + "\nVmPeak:\t  300000 kB\nVmRSS:\t  204800 kB\n");
+        StringBuilder stat = new StringBuilder(pid + " (" + command + ") S");
+        // Fields 4 to 21, then the start time in field 22
+        stat.append(" 0".repeat(18)).append(' ').append(ticks).append(" 0 0\n");
+        Files.writeString(dir.resolve("stat"), stat);
+    }
+}
@@ -0,0 +1,94 @@
+package com.jdx.discovery;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TarInputTest {
+
+    private static final String LONG_HOME = "usr/lib/jvm/" + "very-long-directory-name-".repeat(6) + "jdk-21";
+    private static final String PREFIX = "usr/lib/jvm/" + "x".repeat(120);
+
+    @Test
+    void testReadsUstarEntries() throws IOException {
+        TarInput tar = tar(new TarWriter()
+            .directory("./opt/java/")
+            .file("./opt/java/release", "JAVA_VERSION=\"21.0.1\"\n"));
+
+        TarInput.Entry directory = tar.next();
+        assertThat(directory.name()).isEqualTo("opt/java");
+        assertThat(directory.isFile()).isFalse();
+        TarInput.Entry release = tar.next();
+        assertThat(release.name()).isEqualTo("opt/java/release");
+        assertThat(release.isFile()).isTrue();
+        assertThat(new String(tar.read(1024), StandardCharsets.UTF_8)).isEqualTo("JAVA_VERSION=\"21.0.1\"\n");
+        assertThat(tar.next()).isNull();
+    }
+
+    @Test
+    void testAppliesGnuLongNameToNextEntry() throws IOException {
+        TarInput tar = tar(new TarWriter()
+            .longNameFile(LONG_HOME + "/release", "JAVA_VERSION=\"21\"\n")
+            .file("after", "x"));
+
+        TarInput.Entry entry = tar.next();
+        assertThat(entry.name()).isEqualTo(LONG_HOME + "/release");
+        assertThat(new String(tar.read(1024), StandardCharsets.UTF_8)).isEqualTo("JAVA_VERSION=\"21\"\n");
+        // The long name applies to one entry only
+        assertThat(tar.next().name()).isEqualTo("after");
+    }
+
+    @Test
+    void testAppliesPaxPathToNextEntry() throws IOException {
+        TarInput tar = tar(new TarWriter()
+            .paxFile(LONG_HOME + "/bin/jlink", "")
+            .file("after", "x"));
+
+        assertThat(tar.next().name()).isEqualTo(LONG_HOME + "/bin/jlink");
+        assertThat(tar.next().name()).isEqualTo("after");
+    }
+
+    @Test
+    void testJoinsUstarPrefixAndName() throws IOException {
+        TarInput tar = tar(new TarWriter().prefixedFile(PREFIX, "release", ""));
+
+        assertThat(tar.next().name()).isEqualTo(PREFIX + "/release");
+    }
+
+    @Test
+    void testReportsDataOffsets() throws IOException {
+        TarInput tar = tar(new TarWriter()
+            .file("a", "a".repeat(600))
+            .longNameFile(LONG_HOME + "/release", "b"));
+
+        // Header, then data padded to two blocks, then the long name header and data, then the header
+        assertThat(tar.next().offset()).isEqualTo(512L);
+        TarInput.Entry second = tar.next();
+        assertThat(second.offset()).isEqualTo(512L * 6);
+        assertThat(second.size()).isEqualTo(1L);
+    }
+
+    @Test
+    void testRejectsCorruptPaxHeader() {
+        byte[] bytes = new TarWriter().paxFile("opt/java/release", "").toByteArray();
+        // Break the record length
+        bytes[512] = 'x';
+
+        assertThatThrownBy(() -> tar(bytes).next())
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("pax");
+    }
+
+    private static TarInput tar(TarWriter writer) {
+        return tar(writer.toByteArray());
+    }
+
+    private static TarInput tar(byte[] bytes) {
+        return new TarInput(new ByteArrayInputStream(bytes));
+    }
+}
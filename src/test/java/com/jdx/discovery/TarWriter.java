@@ -0,0 +1,108 @@
+package com.jdx.discovery;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds tarballs in memory for tests: ustar headers, with GNU long name and pax
+ * extended header entries on request.
+ */
+final class TarWriter {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    TarWriter file(String name, String content) {
+        return file(name, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    TarWriter file(String name, byte[] content) {
+        return entry(name, '0', content);
+    }
+
+    TarWriter directory(String name) {
+        return entry(name, '5', new byte[0]);
+    }
+
+    /** A file whose name is carried by a preceding GNU {@code L} entry. */
+    TarWriter longNameFile(String name, String content) {
+        entry("././@LongLink", 'L', (name + "\0").getBytes(StandardCharsets.UTF_8));
+        return entry(name.substring(0, 99), '0', content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** A file whose name is carried by a preceding pax {@code path} record. */
+    TarWriter paxFile(String name, String content) {
+        String record = " path=" + name + "\n";
+        // The length prefix counts itself
+        int length = record.length() + 1;
+        while ((length + record).length() != length) {
+            length = (length + record).length();
+        }
+        entry("PaxHeaders/file", 'x', (length + record).getBytes(StandardCharsets.UTF_8));
+        return entry("truncated", '0', content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** A file whose name is split between the ustar prefix and name fields. */
+    TarWriter prefixedFile(String prefix, String name, String content) {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        byte[] header = header(name, '0', data.length);
+        put(header, 345, prefix, 155);
+        checksum(header);
+        out.writeBytes(header);
+        return data(data);
+    }
+
+    byte[] toByteArray() {
+        // Two zero blocks end the archive
+        return concat(out.toByteArray(), new byte[1024]);
+    }
+
+    private TarWriter entry(String name, char type, byte[] data) {
+        byte[] header = header(name, type, data.length);
+        checksum(header);
+        out.writeBytes(header);
+        return data(data);
+    }
+
+    private TarWriter data(byte[] data) {
+        out.writeBytes(data);
+        out.writeBytes(new byte[(512 - data.length % 512) % 512]);
+        return this;
+    }
+
+    private static byte[] header(String name, char type, long size) {
+        byte[] header = new byte[512];
+        put(header, 0, name, 100);
+        put(header, 100, "0000644", 8);
+        put(header, 108, "0000000", 8);
+        put(header, 116, "0000000", 8);
+        put(header, 124, String.format("%011o", size), 12);
+        put(header, 136, "00000000000", 12);
+        header[156] = (byte) type;
+        put(header, 257, "ustar", 6);
+        put(header, 263, "00", 2);
+        return header;
+    }
+
+    private static void checksum(byte[] header) {
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        int sum = 0;
+        for (byte b : header) {
+            sum += b & 0xFF;
+        }
+        put(header, 148, String.format("%06o", sum), 7);
+    }
+
+    private static void put(byte[] header, int offset, String value, int length) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] joined = new byte[a.length + b.length];
+        System.arraycopy(a, 0, joined, 0, a.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+        return joined;
+    }
+}
@@ -0,0 +1,139 @@
+package com.jdx.discovery.sources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocateDatabaseTest {
+
+    /** The read buffer of {@link LocateDatabase}, which the database must outgrow. */
+    private static final int BUFFER = 256 * 1024;
+
+    private static final FileTime UPDATED = FileTime.from(Instant.parse("2024-01-01T00:00:00Z"));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadsMlocateDatabaseLargerThanItsBuffer() throws IOException {
+        Mlocate db = new Mlocate();
+        db.directory("/opt/jdks/jdk-17", "release", "bin");
+        while (db.size() < BUFFER - 200) {
+            db.directory("/var/filler/" + db.size(), "file");
+        }
+        // Leave a record's time straddling the end of the first buffer
+        db.directory("/var/filler/" + "x".repeat(BUFFER - 8 - db.size() - 18 - "/var/filler/".length()));
+        assertThat(db.size()).isEqualTo(BUFFER - 8);
+        db.directory("/opt/jdks/jdk-21", "release", "bin");
+        for (int i = 0; i < 2000; i++) {
+            db.directory("/var/filler/more-" + i, "file");
+        }
+        db.directory("/opt/jdks/vendor/jdk-22", "release", "bin");
+        db.directory("/opt/jdks/not-a-jdk", "release");
+        db.directory("/usr/lib/jvm/jdk-11", "release", "bin");
+
+        LocateDatabase database = new LocateDatabase(db.write(tempDir.resolve("mlocate.db")), UPDATED);
+
+        assertThat(database.homes(List.of(Paths.get("/opt/jdks")), 3)).containsExactly(
+            Paths.get("/opt/jdks/jdk-17"), Paths.get("/opt/jdks/jdk-21"), Paths.get("/opt/jdks/vendor/jdk-22"));
+    }
+
+    @Test
+    void testRejectsTruncatedMlocateDatabase() throws IOException {
+        Mlocate db = new Mlocate();
+        db.directory("/opt/jdks/jdk-21", "release", "bin");
+        Path file = db.write(tempDir.resolve("mlocate.db"));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        LocateDatabase database = new LocateDatabase(file, UPDATED);
+
+        assertThatThrownBy(() -> database.homes(List.of(Paths.get("/opt/jdks")), 3))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Truncated");
+    }
+
+    @Test
+    void testFreshOnlyIfNoDirectoryAboveTheDeepestHomeChanged() throws IOException {
+        Path root = tempDir.resolve("opt");
+        Path vendor = Files.createDirectories(root.resolve("vendor"));
+        Path jdk = Files.createDirectories(vendor.resolve("jdk-21"));
+        Path bin = Files.createDirectories(jdk.resolve("bin"));
+        FileTime before = FileTime.from(UPDATED.toInstant().minusSeconds(3600));
+        FileTime after = FileTime.from(UPDATED.toInstant().plusSeconds(3600));
+        for (Path dir : List.of(root, vendor, jdk, bin)) {
+            Files.setLastModifiedTime(dir, before);
+        }
+        LocateDatabase database = new LocateDatabase(tempDir.resolve("mlocate.db"), UPDATED);
+
+        assertThat(database.isFreshFor(root, 3)).isTrue();
+
+        // Below the deepest home's parent: a change inside a home, not a new home
+        Files.setLastModifiedTime(bin, after);
+        assertThat(database.isFreshFor(root, 3)).isTrue();
+
+        // Two levels down: a home may have been unpacked into it
+        Files.setLastModifiedTime(jdk, after);
+        assertThat(database.isFreshFor(root, 3)).isFalse();
+        assertThat(database.isFreshFor(root, 2)).isTrue();
+    }
+
+    /**
+     * Writes an {@code mlocate.db} as described in mlocate.db(5).
+     */
+    private static final class Mlocate {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        Mlocate() throws IOException {
+            out.write("\0mlocate".getBytes(StandardCharsets.US_ASCII));
+            // Configuration block size, format version, visibility flag, padding, root
+            out.writeInt(0);
+            out.writeByte(0);
+            out.writeByte(0);
+            out.writeShort(0);
+            string("/");
+        }
+
+        /** A directory record: 18 bytes plus its path and entries. */
+        void directory(String path, String... files) throws IOException {
+            out.writeLong(UPDATED.toInstant().getEpochSecond());
+            out.writeInt(0);
+            out.writeInt(0);
+            string(path);
+            for (String file : files) {
+                out.writeByte(file.equals("bin") ? 1 : 0);
+                string(file);
+            }
+            out.writeByte(2);
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        Path write(Path file) throws IOException {
+            return Files.write(file, bytes.toByteArray());
+        }
+
+        private void string(String value) throws IOException {
+            out.write(value.getBytes(StandardCharsets.UTF_8));
+            out.writeByte(0);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.jdx.discovery.sources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackageManagerSourceTest {
+
+    private static final String STATUS = """
+        Package: openjdk-17-jre-headless
+        Status: install ok installed
+        Priority: optional
+        Section: java
+        Installed-Size: 185473
+        Maintainer: Ubuntu Developers <ubuntu-devel-discuss@lists.ubuntu.com>
+        Architecture: amd64
+        Multi-Arch: same
+        Source: openjdk-17
+        Version: 17.0.9+9-1~22.04
+        Replaces: openjdk-17-jre (<< 17~10)
+        Provides: java-runtime-headless (= 17), java10-runtime-headless, java11-runtime-headless,
+         java17-runtime-headless, java2-runtime-headless, java5-runtime-headless
+        Depends: ca-certificates-java, java-common, libcups2, libfontconfig1, util-linux
+        Description: OpenJDK Java runtime, using Hotspot JIT (headless)
+         Minimal Java runtime - needed for executing non GUI Java programs,
+         using Hotspot JIT.
+        Homepage: https://openjdk.java.net/
+
+        Package: openjdk-11-jre-headless
+        Status: deinstall ok config-files
+        Priority: optional
+        Section: java
+        Architecture: amd64
+        Multi-Arch: same
+        Version: 11.0.21+9-0ubuntu1~22.04
+        Provides: java-runtime-headless (= 11), java11-runtime-headless
+        Description: OpenJDK Java runtime, using Hotspot JIT (headless)
+
+        Package: ca-certificates-java
+        Status: install ok installed
+        Architecture: all
+        Multi-Arch: foreign
+        Version: 20190909ubuntu1.2
+        Description: Common CA certificates (JKS keystore)
+         Provides: java-runtime, as far as this description is concerned.
+
+        Package: temurin-21-jdk
+        Status: install ok installed
+        Architecture: amd64
+        Version: 21.0.1.0.0+12
+        Provides: java-compiler, java-sdk, java21-sdk
+        Description: Eclipse Temurin 21 JDK
+
+        Package: bellsoft-java21
+        Status: hold ok installed
+        Architecture: amd64
+        Version: 21.0.1+12
+        Provides: java-compiler,
+        \tjava21-sdk-headless
+        Description: BellSoft Liberica JDK 21
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testListsInstalledJavaPackages() throws IOException {
+        List<String> packages = PackageManagerSource.readDpkgStatus(new BufferedReader(new StringReader(STATUS)));
+
+        // A Provides folded onto the next line still counts; removed packages and descriptions do not
+        assertThat(packages).containsExactly(
+            "openjdk-17-jre-headless:amd64", "temurin-21-jdk:amd64", "bellsoft-java21:amd64");
+    }
+
+    @Test
+    void testParsesLastStanzaWithoutTrailingBlankLine() throws IOException {
+        String status = "Package: zulu21-jdk\nStatus: install ok installed\nArchitecture: arm64";
+
+        assertThat(PackageManagerSource.readDpkgStatus(new BufferedReader(new StringReader(status))))
+            .containsExactly("zulu21-jdk:arm64");
+    }
+
+    @Test
+    void testReadsMultiArchAndPlainFileLists() throws IOException {
+        Files.write(tempDir.resolve("openjdk-17-jre-headless:amd64.list"), List.of(
+            "/.",
+            "/usr/lib/jvm/java-17-openjdk-amd64/bin",
+            "/usr/lib/jvm/java-17-openjdk-amd64/bin/java",
+            "/usr/lib/jvm/java-17-openjdk-amd64/bin/jshell",
+            "/usr/bin/java"));
+        Files.write(tempDir.resolve("temurin-21-jdk.list"), List.of(
+            "/usr/lib/jvm/temurin-21-jdk-amd64/bin/java",
+            "/usr/lib/jvm/temurin-21-jdk-amd64/bin/javac"));
+        Set<Path> homes = new LinkedHashSet<>();
+
+        PackageManagerSource.readDpkgLists(
+            List.of("openjdk-17-jre-headless:amd64", "temurin-21-jdk:amd64", "bellsoft-java21:amd64"), tempDir, homes);
+
+        assertThat(homes).containsExactly(
+            Paths.get("/usr/lib/jvm/java-17-openjdk-amd64"), Paths.get("/usr/lib/jvm/temurin-21-jdk-amd64"));
+    }
+}
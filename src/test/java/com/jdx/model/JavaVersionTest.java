@@ -0,0 +1,89 @@
+package com.jdx.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JavaVersionTest {
+
+    @Test
+    void testParsesJep223Versions() {
+        JavaVersion version = parse("17.0.11+9");
+
+        assertThat(version.feature()).isEqualTo(17);
+        assertThat(version.interim()).isZero();
+        assertThat(version.update()).isEqualTo(11);
+        assertThat(version.build()).isEqualTo(9);
+        assertThat(version.isEarlyAccess()).isFalse();
+        assertThat(parse("17.0.9.1").patch()).isEqualTo(1);
+        assertThat(parse("\"21.0.1\"").toString()).isEqualTo("21.0.1");
+    }
+
+    @Test
+    void testParsesLegacyVersions() {
+        assertThat(parse("1.8").toString()).isEqualTo("8");
+        assertThat(parse("1.8.0_392").toString()).isEqualTo("8.0.392");
+        assertThat(parse("8u372").toString()).isEqualTo("8.0.372");
+        assertThat(parse("1.8.0_392-b08").build()).isEqualTo(8);
+        assertThat(parse("8u372-b07").isEarlyAccess()).isFalse();
+    }
+
+    @Test
+    void testParsesEarlyAccessVersions() {
+        assertThat(parse("25-ea").isEarlyAccess()).isTrue();
+        assertThat(parse("25-ea+3").build()).isEqualTo(3);
+    }
+
+    @Test
+    void testRejectsNonVersions() {
+        assertThat(JavaVersion.parse("unknown")).isEmpty();
+        assertThat(JavaVersion.parse("")).isEmpty();
+        assertThat(JavaVersion.parse(null)).isEmpty();
+    }
+
+    @Test
+    void testOrdersNumerically() {
+        List<String> sorted = Stream.of("9", "21", "17.0.9", "17.0.11", "1.8.0_392", "25-ea", "25", "17.0.11+9")
+            .map(JavaVersionTest::parse)
+            .sorted()
+            .map(JavaVersion::toString)
+            .toList();
+
+        assertThat(sorted).containsExactly("8.0.392", "9", "17.0.9", "17.0.11", "17.0.11+9", "21", "25-ea", "25");
+    }
+
+    @Test
+    void testMatchesOnTheComponentsGiven() {
+        assertThat(parse("17").isMetBy(parse("17.0.11"))).isTrue();
+        assertThat(parse("1").isMetBy(parse("17.0.11"))).isFalse();
+        assertThat(parse("21").isMetBy(parse("21.0.1"))).isTrue();
+        assertThat(parse("17.0.1").isMetBy(parse("17.0.11"))).isFalse();
+        assertThat(parse("8").isMetBy(parse("1.8.0_392"))).isTrue();
+        assertThat(parse("8u392").isMetBy(parse("1.8.0_392-b08"))).isTrue();
+        assertThat(parse("25-ea").isMetBy(parse("25"))).isFalse();
+        assertThat(parse("25").isMetBy(parse("25-ea+3"))).isTrue();
+    }
+
+    @Test
+    void testRanges() {
+        VersionSpec range = VersionSpec.parse("[17,21)").orElseThrow();
+
+        assertThat(range.test("17.0.11")).isTrue();
+        assertThat(range.test("20")).isTrue();
+        assertThat(range.test("21.0.1")).isFalse();
+        assertThat(range.test("11.0.21")).isFalse();
+        assertThat(VersionSpec.parse("[17,21]").orElseThrow().test("21.0.3")).isTrue();
+        assertThat(VersionSpec.parse("(17,)").orElseThrow().test("17.0.11")).isFalse();
+        assertThat(VersionSpec.parse("(,11]").orElseThrow().test("1.8.0_392")).isTrue();
+        assertThat(VersionSpec.parse("[17,21)").orElseThrow().maxFeature()).isEqualTo(20);
+        assertThat(VersionSpec.parse("[17,").isEmpty()).isTrue();
+        assertThat(VersionSpec.parse("[,]").isEmpty()).isTrue();
+    }
+
+    private static JavaVersion parse(String text) {
+        return JavaVersion.parse(text).orElseThrow();
+    }
+}
@@ -0,0 +1,47 @@
+package com.jdx.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdxConfigTest {
+
+    private final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+
+    @Test
+    void testDiscoveryWithoutExcludeKeepsDefaultExcludes() throws IOException {
+        JdxConfig config = mapper.readValue("""
+            discovery:
+              include: ["/opt/jdks/*"]
+              disabled_sources: ["system-dirs"]
+            """, JdxConfig.class);
+
+        assertThat(config.discovery().include()).containsExactly("/opt/jdks/*");
+        assertThat(config.discovery().exclude()).isEqualTo(JdxConfig.DiscoveryConfig.defaults().exclude());
+        assertThat(config.discovery().disabled_sources()).containsExactly("system-dirs");
+    }
+
+    @Test
+    void testEmptyExcludeTurnsDefaultsOff() throws IOException {
+        JdxConfig config = mapper.readValue("""
+            discovery:
+              exclude: []
+            """, JdxConfig.class);
+
+        assertThat(config.discovery().exclude()).isEmpty();
+        assertThat(config.discovery().include()).isEmpty();
+    }
+
+    @Test
+    void testDefaultsPruneCommonToolDirectories() {
+        assertThat(JdxConfig.DiscoveryConfig.defaults().exclude())
+            .containsExactly("**/node_modules", "**/.git", "**/.svn", "**/.hg", "**/__pycache__");
+        assertThat(new JdxConfig.DiscoveryConfig(null, List.of("**/build"), null).exclude())
+            .containsExactly("**/build");
+    }
+}